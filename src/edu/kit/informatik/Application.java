@@ -1,10 +1,33 @@
 package edu.kit.informatik;
 
+import edu.kit.informatik.entity.ai.AIType;
+import edu.kit.informatik.manager.GameRegistry;
+import edu.kit.informatik.manager.journal.MoveJournal;
+import edu.kit.informatik.server.GameServer;
+import edu.kit.informatik.tournament.DistanceBenchmark;
+import edu.kit.informatik.tournament.PlayoutBenchmark;
+import edu.kit.informatik.tournament.TournamentRunner;
+import edu.kit.informatik.ui.BatchOutput;
 import edu.kit.informatik.ui.CommandHandler;
 
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
 /**
  * Main application class for the Hex game.
  * This class validates command-line arguments, creates a new CommandHandler instance, and starts the game loop.
+ * Alternatively, it runs a headless tournament between the AI players or a benchmark of the playout policies or
+ * the distance map kernels, or it hosts the games of many clients as a server.
  *
  * @author utobm
  * @version 1.0
@@ -17,14 +40,27 @@ public final class Application {
     private static final int SIZE_INDEX = 0;
     private static final int FIRST_PLAYER_NAME_INDEX = 1;
     private static final int SECOND_PLAYER_NAME_INDEX = 2;
-    private static final int AUTO_PRINT_INDEX = 3;
+    private static final int FIRST_OPTION_INDEX = 3;
     private static final int MIN_NUMBER_OF_ARGUMENTS = 3;
-    private static final int MAX_NUMBER_OF_ARGUMENTS = 4;
+    private static final int MAX_NUMBER_OF_ARGUMENTS = 10;
     private static final int ODD_NUMBERS_MODULO = 2;
-    private static final String BOGO_AI_NAME = "BogoAI";
-    private static final String HERO_AI_NAME = "HeroAI";
-    private static final String NAME_REGEX = "^(?!.*[;" + System.lineSeparator() + "]).*$";
+    private static final int MODE_INDEX = 0;
+    private static final String TOURNAMENT_MODE = "tournament";
+    private static final String PLAYOUT_BENCHMARK_MODE = "playout-benchmark";
+    private static final String DISTANCE_BENCHMARK_MODE = "distance-benchmark";
+    private static final String SERVER_MODE = "server";
+    private static final int ADDRESS_INDEX = 0;
+    private static final Pattern NAME_PATTERN = Pattern.compile("^(?!.*[;" + System.lineSeparator() + "]).*$");
     private static final String AUTO_PRINT = "auto-print";
+    private static final String PONDER = "ponder";
+    private static final String ASYNC_AI = "async-ai";
+    private static final String JOURNAL_PREFIX = "journal=";
+    private static final String SPILL_PREFIX = "spill=";
+    private static final String MEMORY_PREFIX = "memory=";
+    private static final int DEFAULT_MEMORY_BUDGET = 256;
+    private static final int MEGABYTE_SHIFT = 20;
+    private static final String BATCH_PREFIX = "batch=";
+    private static final int SCRIPT_BUFFER_SIZE = 1 << 20;
     private static final String INVALID_ARGUMENTS_ERROR = "Error: Invalid arguments provided!";
     private static final String INVALID_NUMBER_OF_ARGUMENTS_ERROR = "Error: Incorrect number of arguments. "
             + "Expected between " + MIN_NUMBER_OF_ARGUMENTS + " and " + MAX_NUMBER_OF_ARGUMENTS + " arguments.";
@@ -33,7 +69,19 @@ public final class Application {
     private static final String FIRST_PLAYER_AI_ERROR = "Error: The first player's name cannot be the name of an AI.";
     private static final String SAME_NAME_ERROR = "Error: The names of the players cannot be the same.";
     private static final String INVALID_BOARD_SIZE_ERROR = "Error: Invalid Argument for board size.";
+    private static final String SERVER_USAGE_ERROR
+            = "Error: Usage: server <port-or-socket-path> <size> <first-player> <second-player> [auto-print]"
+            + " [journal=<directory>] [spill=<directory>] [memory=<megabytes>]";
+    private static final String JOURNAL_ERROR = "Error: The journal could not be opened: %s%n";
+    private static final String SPILL_ERROR = "Error: The spill directory could not be opened: %s%n";
+    private static final String BATCH_ERROR = "Error: The batch file could not be opened: %s%n";
     private static boolean print = false;
+    private static boolean ponder = false;
+    private static boolean async = false;
+    private static String journalDirectory = null;
+    private static String spillDirectory = null;
+    private static int memoryBudget = 0;
+    private static String batchFile = null;
 
     /**
      * Private constructor to prevent instantiation of the utility class.
@@ -44,22 +92,190 @@ public final class Application {
 
     /**
      * Starts the game loop with the provided command-line arguments.
+     * If the first argument is 'tournament', a headless AI tournament is run instead,
+     * if it is 'playout-benchmark', the playout policies are benchmarked,
+     * if it is 'distance-benchmark', the distance map kernels are benchmarked,
+     * and if it is 'server', the games are served to clients connecting to a local socket.
      *
-     * @param args The command-line arguments, including game board size, player names, and optional auto-print flag.
+     * @param args The command-line arguments, including game board size, player names,
+     *             the optional auto-print, ponder and async-ai flags, the optional journal and spill directories,
+     *             the optional memory budget and the optional batch file.
      */
     public static void run(String[] args) {
-        if (isArgumentsValid(args)) {
-            CommandHandler commandHandler = new CommandHandler(
-                    Integer.parseInt(args[SIZE_INDEX]),
-                    args[FIRST_PLAYER_NAME_INDEX],
-                    args[SECOND_PLAYER_NAME_INDEX],
-                    print
-            );
+        if (args.length > MODE_INDEX && TOURNAMENT_MODE.equals(args[MODE_INDEX])) {
+            TournamentRunner.run(Arrays.copyOfRange(args, MODE_INDEX + 1, args.length));
+            return;
+        }
+        if (args.length > MODE_INDEX && PLAYOUT_BENCHMARK_MODE.equals(args[MODE_INDEX])) {
+            PlayoutBenchmark.run(Arrays.copyOfRange(args, MODE_INDEX + 1, args.length));
+            return;
+        }
+        if (args.length > MODE_INDEX && DISTANCE_BENCHMARK_MODE.equals(args[MODE_INDEX])) {
+            DistanceBenchmark.run(Arrays.copyOfRange(args, MODE_INDEX + 1, args.length));
+            return;
+        }
+        if (args.length > MODE_INDEX && SERVER_MODE.equals(args[MODE_INDEX])) {
+            runServer(Arrays.copyOfRange(args, MODE_INDEX + 1, args.length));
+            return;
+        }
+        if (!isArgumentsValid(args)) {
+            return;
+        }
+        if (batchFile != null) {
+            runBatch(args);
+        } else {
+            playGames(args, null, null);
+        }
+    }
 
+    /**
+     * Plays the games with the given arguments, reading the commands from the user or from a script.
+     *
+     * @param args   The validated command-line arguments.
+     * @param script The script, or null to read the user's input.
+     * @param output The buffered output the script prints to, or null to read the user's input.
+     */
+    private static void playGames(String[] args, BufferedReader script, BatchOutput output) {
+        GameRegistry registry = new GameRegistry(Integer.parseInt(args[SIZE_INDEX]),
+                args[FIRST_PLAYER_NAME_INDEX], args[SECOND_PLAYER_NAME_INDEX]);
+        if (!enableSpilling(registry)) {
+            return;
+        }
+        MoveJournal journal = openJournal(registry);
+        if (journalDirectory != null && journal == null) {
+            return;
+        }
+        CommandHandler commandHandler = new CommandHandler(registry, print, ponder, async);
+
+        if (script == null) {
             commandHandler.handleUserInput();
+        } else {
+            commandHandler.handleScript(script, output);
+        }
+        closeJournal(journal);
+    }
+
+    /**
+     * Plays the games with the commands of the batch file, one command per line. The file is read through a large
+     * buffer, and the standard and error output are replaced by buffered streams for the whole run, which keep the
+     * order of the printed text, so the output is the same as if the commands had been typed in.
+     *
+     * @param args The validated command-line arguments.
+     */
+    private static void runBatch(String[] args) {
+        BufferedReader script;
+        try {
+            script = new BufferedReader(new InputStreamReader(Files.newInputStream(Path.of(batchFile)),
+                    Charset.defaultCharset()), SCRIPT_BUFFER_SIZE);
+        } catch (IOException | InvalidPathException e) {
+            System.err.printf(BATCH_ERROR, e.getMessage());
+            return;
+        }
+        PrintStream standardOutput = System.out;
+        PrintStream standardError = System.err;
+        BatchOutput output = new BatchOutput(new FileOutputStream(FileDescriptor.out),
+                new FileOutputStream(FileDescriptor.err), Charset.defaultCharset());
+        System.setOut(output.getOutput());
+        System.setErr(output.getErrorOutput());
+        try {
+            playGames(args, script, output);
+        } finally {
+            output.flush();
+            System.setOut(standardOutput);
+            System.setErr(standardError);
+        }
+    }
+
+    /**
+     * Lets the registry evict idle games to the directory given by the spill option once the memory budget is
+     * exceeded. Without a memory option, a budget of {@value #DEFAULT_MEMORY_BUDGET} megabytes is used.
+     *
+     * @param registry The registry.
+     * @return False if spilling has been requested but the directory could not be opened, otherwise true.
+     */
+    private static boolean enableSpilling(GameRegistry registry) {
+        if (spillDirectory == null) {
+            return true;
+        }
+        long budget = (long) ((memoryBudget > 0) ? memoryBudget : DEFAULT_MEMORY_BUDGET) << MEGABYTE_SHIFT;
+        try {
+            registry.enableSpilling(Path.of(spillDirectory), budget);
+            return true;
+        } catch (IOException e) {
+            System.err.printf(SPILL_ERROR, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Opens the journal in the directory given by the journal option and restores the games recorded in it.
+     *
+     * @param registry The registry receiving the restored games.
+     * @return The journal, or null if no journal has been requested or it could not be opened.
+     */
+    private static MoveJournal openJournal(GameRegistry registry) {
+        if (journalDirectory == null) {
+            return null;
+        }
+        try {
+            return MoveJournal.open(Path.of(journalDirectory), registry);
+        } catch (IOException e) {
+            System.err.printf(JOURNAL_ERROR, e.getMessage());
+            return null;
         }
     }
 
+    /**
+     * Closes the given journal after all its records have been written.
+     *
+     * @param journal The journal, or null if there is none.
+     */
+    private static void closeJournal(MoveJournal journal) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.printf(JOURNAL_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Starts the server with the given arguments: the port or socket path, followed by the same arguments as a game
+     * on the console. The ponder and async-ai flags are not available, since the server applies every AI move
+     * before the next command of its client, and neither is the batch option, since the commands come from the
+     * clients.
+     *
+     * @param args The address, the board size, the player names, the optional auto-print flag, the optional
+     *             journal and spill directories and the optional memory budget.
+     */
+    private static void runServer(String[] args) {
+        if (args.length <= ADDRESS_INDEX) {
+            System.err.println(SERVER_USAGE_ERROR);
+            return;
+        }
+        String[] gameArgs = Arrays.copyOfRange(args, ADDRESS_INDEX + 1, args.length);
+        if (!isArgumentsValid(gameArgs)) {
+            return;
+        }
+        if (ponder || async || batchFile != null) {
+            System.err.println(INVALID_ARGUMENTS_ERROR);
+            return;
+        }
+        GameRegistry registry = new GameRegistry(Integer.parseInt(gameArgs[SIZE_INDEX]),
+                gameArgs[FIRST_PLAYER_NAME_INDEX], gameArgs[SECOND_PLAYER_NAME_INDEX]);
+        if (!enableSpilling(registry)) {
+            return;
+        }
+        MoveJournal journal = openJournal(registry);
+        if (journalDirectory != null && journal == null) {
+            return;
+        }
+        new GameServer(registry, print).serve(args[ADDRESS_INDEX]);
+        closeJournal(journal);
+    }
+
     /**
      * Validates player names. Two players should have different names.
      * Names should match a certain regex pattern and shouldn't be empty.
@@ -74,7 +290,7 @@ public final class Application {
             System.err.println(SAME_NAME_ERROR);
             return false;
         }
-        if (nameOfFirstPlayer.equals(BOGO_AI_NAME) || nameOfFirstPlayer.equals(HERO_AI_NAME)) {
+        if (AIType.fromName(nameOfFirstPlayer) != null) {
             System.err.println(FIRST_PLAYER_AI_ERROR);
             return false;
         }
@@ -82,7 +298,8 @@ public final class Application {
             System.err.println(NAME_EMPTY_ERROR);
             return false;
         }
-        if (!nameOfFirstPlayer.matches(NAME_REGEX) || !nameOfSecondPlayer.matches(NAME_REGEX)) {
+        if (!NAME_PATTERN.matcher(nameOfFirstPlayer).matches()
+                || !NAME_PATTERN.matcher(nameOfSecondPlayer).matches()) {
             System.err.println(NAME_REGEX_ERROR);
             return false;
         }
@@ -115,48 +332,82 @@ public final class Application {
 
 
     /**
-     * Validates the auto-print flag. If the 'auto-print' flag is set, set the print boolean variable to true.
+     * Validates the optional flags. If the 'auto-print' flag is set, set the print boolean variable to true.
+     * If the 'ponder' flag is set, set the ponder boolean variable to true.
+     * If the 'async-ai' flag is set, set the async boolean variable to true.
+     * If the 'journal=directory' option is given, the games are journaled in that directory.
+     * If the 'spill=directory' option is given, idle games are evicted to that directory once the memory budget,
+     * given in megabytes by the 'memory=megabytes' option, is exceeded. The memory option requires the spill option.
+     * If the 'batch=file' option is given, the commands are read from that file instead of the user's input.
+     * Each flag may be given at most once.
      *
      * @param args The command-line arguments.
-     * @return True if the auto-print flag is valid or not provided, false otherwise.
+     * @return True if all provided flags are valid, false otherwise.
      */
-    private static boolean isAutoPrintValid(String[] args) {
-        if (AUTO_PRINT.equals(args[AUTO_PRINT_INDEX])) {
-            print = true;
-            return true;
+    private static boolean isOptionsValid(String[] args) {
+        for (int i = FIRST_OPTION_INDEX; i < args.length; i++) {
+            if (AUTO_PRINT.equals(args[i]) && !print) {
+                print = true;
+            } else if (PONDER.equals(args[i]) && !ponder) {
+                ponder = true;
+            } else if (ASYNC_AI.equals(args[i]) && !async) {
+                async = true;
+            } else if (args[i].startsWith(JOURNAL_PREFIX) && args[i].length() > JOURNAL_PREFIX.length()
+                    && journalDirectory == null) {
+                journalDirectory = args[i].substring(JOURNAL_PREFIX.length());
+            } else if (args[i].startsWith(SPILL_PREFIX) && args[i].length() > SPILL_PREFIX.length()
+                    && spillDirectory == null) {
+                spillDirectory = args[i].substring(SPILL_PREFIX.length());
+            } else if (args[i].startsWith(MEMORY_PREFIX) && memoryBudget == 0
+                    && parseMemoryBudget(args[i].substring(MEMORY_PREFIX.length())) > 0) {
+                memoryBudget = parseMemoryBudget(args[i].substring(MEMORY_PREFIX.length()));
+            } else if (args[i].startsWith(BATCH_PREFIX) && args[i].length() > BATCH_PREFIX.length()
+                    && batchFile == null) {
+                batchFile = args[i].substring(BATCH_PREFIX.length());
+            } else {
+                System.err.println(INVALID_ARGUMENTS_ERROR);
+                return false;
+            }
+        }
+        if (memoryBudget > 0 && spillDirectory == null) {
+            System.err.println(INVALID_ARGUMENTS_ERROR);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses the memory budget of the memory option.
+     *
+     * @param value The value of the option.
+     * @return The budget in megabytes, or 0 if the value is not a positive number.
+     */
+    private static int parseMemoryBudget(String value) {
+        try {
+            return Math.max(0, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return 0;
         }
-        System.err.println(INVALID_ARGUMENTS_ERROR);
-        return false;
     }
 
     /**
      * Validates all provided command-line arguments.
-     * Checks if the board size, player names, and optional auto-print flag are valid.
+     * Checks if the board size, player names, and optional flags are valid.
      *
      * @param args The command-line arguments.
      * @return True if all arguments are valid, false otherwise.
      */
     private static boolean isArgumentsValid(String[] args) {
-        switch (args.length) {
-            case MIN_NUMBER_OF_ARGUMENTS -> {
-                if (isSizeValid(args)) {
-                    return false;
-                }
-                return isNamesValid(args);
-            }
-            case MAX_NUMBER_OF_ARGUMENTS -> {
-                if (isSizeValid(args)) {
-                    return false;
-                }
-                if (!isNamesValid(args)) {
-                    return false;
-                }
-                return isAutoPrintValid(args);
-            }
-            default -> {
-                System.err.println(INVALID_NUMBER_OF_ARGUMENTS_ERROR);
-                return false;
-            }
+        if (args.length < MIN_NUMBER_OF_ARGUMENTS || args.length > MAX_NUMBER_OF_ARGUMENTS) {
+            System.err.println(INVALID_NUMBER_OF_ARGUMENTS_ERROR);
+            return false;
+        }
+        if (isSizeValid(args)) {
+            return false;
+        }
+        if (!isNamesValid(args)) {
+            return false;
         }
+        return isOptionsValid(args);
     }
 }
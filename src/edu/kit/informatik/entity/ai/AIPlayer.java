@@ -0,0 +1,37 @@
+package edu.kit.informatik.entity.ai;
+
+import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.Move;
+import edu.kit.informatik.util.concurrent.Deadline;
+
+/**
+ * Represents a player whose moves are computed instead of being read from the user.
+ * Implementations derive their move solely from the game state that is passed in, which allows the
+ * computation to run on a copy of a game, for example while pondering in the background.
+ * The computation is bounded by a {@link Deadline}: once it expires, the best move found so far is returned.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public interface AIPlayer {
+
+    /**
+     * Determines the next move of this player in the given game within the move budget of the game.
+     *
+     * @param game The game in which this player is the current player.
+     * @return The next move, or null if there is none.
+     */
+    default Move nextMove(HexGame game) {
+        return nextMove(game, Deadline.of(game.getMoveBudget()));
+    }
+
+    /**
+     * Determines the next move of this player in the given game.
+     * The computation checks the deadline cooperatively and returns the best move found so far once it expires.
+     *
+     * @param game     The game in which this player is the current player.
+     * @param deadline The deadline by which the move has to be determined.
+     * @return The next move, or null if there is none.
+     */
+    Move nextMove(HexGame game, Deadline deadline);
+}
@@ -1,20 +1,32 @@
 package edu.kit.informatik.entity.ai;
 
 import edu.kit.informatik.entity.Player;
-import edu.kit.informatik.manager.GameManager;
 import edu.kit.informatik.manager.session.Board;
+import edu.kit.informatik.manager.session.Move;
+import edu.kit.informatik.util.concurrent.Deadline;
+import edu.kit.informatik.util.concurrent.TranspositionTable;
 import edu.kit.informatik.util.vector.Vector2D;
 
 /**
  * Helper class providing AI-related strategy functions.
  * Assists AI players in determining strategic moves such as winning moves or blocking opponent moves.
  *
+ * <p>The search for winning locations is the most expensive part of every AI move. Its results are cached in a
+ * {@link TranspositionTable}, if the game provides one, keyed by the position and the token that is to connect.</p>
+ *
  * <p>This class should not be instantiated, and all methods are static for utility purposes.</p>
  *
  * @author utobm
  * @version 1.0
  */
 public final class AIStrategyHelper {
+    /**
+     * Distinguishes the keys of the winning locations of the different tokens in the same position.
+     */
+    private static final long TOKEN_SALT = 0xD6E8FEB86659FD93L;
+    private static final int NO_LOCATION = -1;
+    private static final long NANOS_PER_MICRO = 1_000L;
+
     private AIStrategyHelper() {
         throw new UnsupportedOperationException("This class cannot be instantiated!");
     }
@@ -22,15 +34,18 @@ public final class AIStrategyHelper {
     /**
      * Identifies a potential winning move for the provided player on the given board.
      *
-     * @param board  the current game board.
-     * @param player the player for whom a winning move is sought.
-     * @return a command string for the winning move in the format "place y x",
-     *        or null if no winning move is found.
+     * @param board    the current game board.
+     * @param player   the player for whom a winning move is sought.
+     * @param deadline the deadline after which the search is aborted.
+     * @param table    the table caching the results of the search, or null.
+     * @return the move placing a token on the winning location,
+     *        or null if no winning move is found before the deadline expires.
      */
-    public static String determineWinningMove(Board board, Player player) {
-        Vector2D winningPosition = board.getWinningLocation(player);
+    public static Move determineWinningMove(Board board, Player player, Deadline deadline,
+                                              TranspositionTable table) {
+        Vector2D winningPosition = findWinningLocation(board, player, deadline, table);
         if (winningPosition != null) {
-            return convertMoveToCommand(winningPosition);
+            return Move.place(winningPosition);
         }
         return null;
     }
@@ -38,26 +53,79 @@ public final class AIStrategyHelper {
     /**
      * Identifies a move that blocks the opponent from potentially winning on the given board.
      *
-     * @param board   the current game board.
-     * @param manager the game manager to determine the current opponent.
-     * @return a command string for the move that prevents the opponent from winning in the format "place y x",
-     *        or null if no such preventative move is found.
+     * @param board    the current game board.
+     * @param opponent the opponent whose winning move should be blocked.
+     * @param deadline the deadline after which the search is aborted.
+     * @param table    the table caching the results of the search, or null.
+     * @return the move that prevents the opponent from winning,
+     *        or null if no such preventative move is found before the deadline expires.
      */
-    public static String determineBlockingMove(Board board, GameManager manager) {
-        Vector2D blockPosition = board.getWinningLocation(manager.getCurrentGame().getOpponent());
+    public static Move determineBlockingMove(Board board, Player opponent, Deadline deadline,
+                                               TranspositionTable table) {
+        Vector2D blockPosition = findWinningLocation(board, opponent, deadline, table);
         if (blockPosition != null) {
-            return convertMoveToCommand(blockPosition);
+            return Move.place(blockPosition);
         }
         return null;
     }
 
     /**
-     * Converts a move vector into the appropriate command format.
+     * Finds a location at which the given player would win, looking it up in the table first.
+     * A completed search is stored in the table together with the time it took, so that the table prefers to keep
+     * expensive results. A cached location is only used if it is still empty, which guards against the rare
+     * case that two positions share a key.
+     *
+     * @param board    the current game board.
+     * @param player   the player for whom a winning location is sought.
+     * @param deadline the deadline after which the search is aborted.
+     * @param table    the table caching the results of the search, or null.
+     * @return the winning location, or null if there is none or the deadline expired before one was found.
+     */
+    private static Vector2D findWinningLocation(Board board, Player player, Deadline deadline,
+                                                TranspositionTable table) {
+        if (table == null) {
+            return board.getWinningLocation(player, deadline);
+        }
+        int size = board.getSize();
+        long key = board.getPositionKey() ^ TOKEN_SALT * (player.getToken().ordinal() + 1);
+        int cached = table.probe(key);
+        if (cached == NO_LOCATION) {
+            return null;
+        }
+        if (cached != TranspositionTable.MISS && cached >= 0 && cached < size * size
+                && board.isEmpty(cached / size, cached % size)) {
+            return new Vector2D(cached / size, cached % size);
+        }
+        long start = System.nanoTime();
+        Vector2D location = board.getWinningLocation(player, deadline);
+        if (location != null) {
+            table.store(key, location.x() * size + location.y(),
+                    (int) ((System.nanoTime() - start) / NANOS_PER_MICRO));
+        } else if (!deadline.isExpired()) {
+            table.store(key, NO_LOCATION, (int) ((System.nanoTime() - start) / NANOS_PER_MICRO));
+        }
+        return location;
+    }
+
+    /**
+     * Determines a move that can always be played as long as the board is not full.
+     * AI players compute it before any expensive strategy, so that they have a move at hand
+     * when their deadline expires.
+     * This method iterates over the board and returns the first empty cell.
      *
-     * @param movePosition the vector indicating the location of the move.
-     * @return a command string in the format "place y x".
+     * @param board the current game board.
+     * @return the move placing a token on the first empty cell, or null if the board is full.
      */
-    public static String convertMoveToCommand(Vector2D movePosition) {
-        return "place " + movePosition.y() + " " + movePosition.x();
+    public static Move determineFallbackMove(Board board) {
+        int size = board.getSize();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (board.isEmpty(i, j)) {
+                    return Move.place(new Vector2D(i, j));
+                }
+            }
+        }
+        return null;
     }
+
 }
@@ -0,0 +1,78 @@
+package edu.kit.informatik.entity.ai;
+
+
+import edu.kit.informatik.entity.Player;
+
+import java.util.function.Supplier;
+
+/**
+ * Enumerates the available AI players.
+ * Each type is identified by the player name that selects it and knows how to create a new instance.
+ * A new AI is made available to games and tournaments by adding a constant here.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public enum AIType {
+    /**
+     * The AI following the shortest path to the opposite edge.
+     */
+    HERO_AI("HeroAI", HeroAI::new),
+    /**
+     * The AI making winning, blocking, symmetric or random moves.
+     */
+    BOGO_AI("BogoAI", BogoAI::new);
+
+    /**
+     * The player name that selects the AI.
+     */
+    private final String name;
+    /**
+     * Creates new instances of the AI.
+     */
+    private final Supplier<Player> factory;
+
+    /**
+     * Constructor to initialize the name and the factory of the AI.
+     *
+     * @param name    The player name that selects the AI.
+     * @param factory Creates new instances of the AI, which have to implement {@link AIPlayer}.
+     */
+    AIType(String name, Supplier<Player> factory) {
+        this.name = name;
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the player name that selects the AI.
+     *
+     * @return The name of the AI.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Creates a new instance of the AI, playing with the token {@code Entry.O}.
+     *
+     * @return A new AI player.
+     */
+    public Player create() {
+        return factory.get();
+    }
+
+    /**
+     * Finds the AI selected by the given player name.
+     *
+     * @param name The player name.
+     * @return The AI type with the given name, or null if the name does not select an AI.
+     */
+    public static AIType fromName(String name) {
+        for (AIType type : values()) {
+            if (type.name.equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -2,12 +2,15 @@ package edu.kit.informatik.entity.ai;
 
 
 import edu.kit.informatik.entity.Player;
-import edu.kit.informatik.manager.GameManager;
 import edu.kit.informatik.manager.session.Board;
 import edu.kit.informatik.manager.session.Entry;
 import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.Move;
+import edu.kit.informatik.util.concurrent.Deadline;
 import edu.kit.informatik.util.vector.Vector2D;
 
+import java.util.SplittableRandom;
+
 import static edu.kit.informatik.entity.ai.AIStrategyHelper.*;
 
 /**
@@ -19,82 +22,113 @@ import static edu.kit.informatik.entity.ai.AIStrategyHelper.*;
  * Making a symmetric move in response to the opponent's last move.
  * If none of the above apply, make a random move.
  *
+ * <p>The random move is chosen uniformly among the empty cells. It is derived from the seed of the AI and the
+ * number of moves in the game, so a copy of the AI makes the same move in the same position.</p>
+ *
  * @author utobm
  * @version 1.0
  */
 
 
-public class BogoAI extends Player {
+public class BogoAI extends Player implements AIPlayer {
 
     /**
      * Static name for the BogoAI player.
      */
     private static final String NAME = "BogoAI";
     /**
-     * Reference to the game manager.
+     * The seed used if none is given, which makes games against BogoAI reproducible.
      */
-    private final GameManager manager;
+    private static final long DEFAULT_SEED = 0x5DEECE66DL;
+    /**
+     * An odd constant spreading consecutive move counts over the seeds of the random number generator.
+     */
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
 
+    /**
+     * The seed from which the random moves are derived.
+     */
+    private final long seed;
 
     /**
      * Initializes a new BogoAI player.
-     *
-     * @param manager The game manager.
      */
 
-    public BogoAI(GameManager manager) {
-        super(NAME, Entry.O);
-        this.manager = manager;
+    public BogoAI() {
+        this(DEFAULT_SEED);
+    }
 
+    /**
+     * Initializes a new BogoAI player whose random moves are derived from the given seed.
+     *
+     * @param seed The seed of the random moves.
+     */
+    public BogoAI(long seed) {
+        super(NAME, Entry.O);
+        this.seed = seed;
     }
 
     /**
      * Determines the next move for BogoAI.
+     * The random move is only determined if neither a winning nor a blocking move is found or if the deadline
+     * expires while searching for them. It is found by counting the empty cells of the blocks of the board, which
+     * takes time proportional to the number of blocks and the cells of one block, so it is ready within
+     * milliseconds even on the largest boards.
      *
-     * @return A string command representing the next move.
+     * @param currentGame The game in which BogoAI is the current player.
+     * @param deadline    The deadline by which the move has to be determined.
+     * @return The next move, or null if the board is full.
      */
-    public String nextMove() {
-        HexGame currentGame = manager.getCurrentGame();
-        Board board;
-        board = currentGame.getBoard().copy();
+    @Override
+    public Move nextMove(HexGame currentGame, Deadline deadline) {
+        Board board = currentGame.getBoard();
+        int moveCount = currentGame.getMoveHistory().size();
 
-        String winningMove = determineWinningMove(board, this);
+        Move winningMove = determineWinningMove(board, this, deadline, currentGame.getTranspositionTable());
         if (winningMove != null) {
             return winningMove;
         }
+        if (deadline.isExpired()) {
+            return findRandomMove(board, moveCount);
+        }
 
-        String preventativeMove = determineBlockingMove(board, manager);
+        Move preventativeMove = determineBlockingMove(board, currentGame.getOpponent(), deadline,
+                currentGame.getTranspositionTable());
         if (preventativeMove != null) {
             return preventativeMove;
         }
+        if (deadline.isExpired()) {
+            return findRandomMove(board, moveCount);
+        }
 
-        String swapMove = findSwapMove(currentGame);
+        Move swapMove = findSwapMove(currentGame);
         if (swapMove != null) {
             return swapMove;
         }
-        String symmetricMove = getSymmetricMove(currentGame);
+        Move symmetricMove = getSymmetricMove(currentGame);
         if (symmetricMove != null) {
             return symmetricMove;
         }
 
-        return findRandomMove(board);
+        return findRandomMove(board, moveCount);
     }
     /**
      * Determines if a swap move is possible based on the current game state.
      * In this specific Hex game implementation, after the first move, the opposing player
      * can decide to "swap" positions if certain conditions are met.
      * This method checks
-     * whether the swap condition is satisfied and if so, returns the string "swap".
+     * whether the swap condition is satisfied and if so, returns the swap move.
+     * The players may swap only once, which matters if BogoAI plays against itself.
      *
      * @param currentGame The current state of the Hex game.
-     * @return "swap" if a swap is possible based on the game's current state, otherwise returns null.
+     * @return The swap move if a swap is possible based on the game's current state, otherwise returns null.
      */
 
-    private String findSwapMove(HexGame currentGame) {
-        if (currentGame.getMoveHistory().size() == 1) {
-            Vector2D vector = currentGame.getMoveHistory().get(0).vector();
+    private Move findSwapMove(HexGame currentGame) {
+        if (currentGame.getMoveHistory().size() == 1 && !currentGame.hasSwapped()) {
+            Vector2D vector = currentGame.getMoveHistory().getVector(0);
             if ((vector.x() + vector.y()) % 2 == 0) {
-                return "swap";
+                return Move.SWAP;
             }
         }
         return null;
@@ -103,43 +137,40 @@ public class BogoAI extends Player {
      * Calculates the symmetric move for a given game state.
      * The symmetric move is the one that mirrors the last move about the center of the board.
      * If the symmetric move is valid (i.e., the position on the board is empty), then it
-     * returns the symmetric move as a command.
+     * returns the symmetric move.
      * Otherwise, it returns null.
      *
      * @param currentGame The current state of the Hex game.
-     * @return A command representing the symmetric move if it's valid, otherwise returns null.
+     * @return The symmetric move if it's valid, otherwise returns null.
+     *        There is no symmetric move if BogoAI makes the first move of the game.
      */
-    private String getSymmetricMove(HexGame currentGame) {
+    private Move getSymmetricMove(HexGame currentGame) {
+        if (currentGame.getMoveHistory().isEmpty()) {
+            return null;
+        }
         int boardSize = currentGame.getBoard().getSize();
-        Vector2D lastMove = currentGame.getMoveHistory().get(currentGame.getMoveHistory().size() - 1).vector();
+        Vector2D lastMove = currentGame.getMoveHistory().getVector(currentGame.getMoveHistory().size() - 1);
         int symmetricY = boardSize - 1 - lastMove.x();
         int symmetricX = boardSize - 1 - lastMove.y();
         if (currentGame.getBoard().isEmpty(symmetricX, symmetricY)) {
-            return convertMoveToCommand(new Vector2D(symmetricX, symmetricY));
+            return Move.place(new Vector2D(symmetricX, symmetricY));
         }
         return null;
     }
     /**
      * Finds a random move on the board that has not been occupied.
-     * This method iterates over the entire board, looking for the first empty cell.
-     * It returns this cell as a move command.
-     * If no such cell is found (i.e., the board is full),
-     * it returns null.
+     * The cell is chosen uniformly by drawing its rank among the empty cells, which are ranked block by block
+     * with the token counts of the blocks (see {@link Board#getRandomEmptyCell}).
+     * If the board is full, it returns null.
      *
-     * @param board The current board state.
-     * @return A command representing the first found empty cell, or null if the board is full.
+     * @param board     The current board state.
+     * @param moveCount The number of moves made so far, which selects the random choice for this move.
+     * @return A move placing a token on a random empty cell, or null if the board is full.
      */
 
-    private String findRandomMove(Board board) {
-        int size = board.getSize();
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                if (board.isEmpty(i, j)) {
-                    return convertMoveToCommand(new Vector2D(i, j));
-                }
-            }
-        }
-        return null;
+    private Move findRandomMove(Board board, int moveCount) {
+        Vector2D cell = board.getRandomEmptyCell(new SplittableRandom(seed + moveCount * SEED_INCREMENT));
+        return (cell != null) ? Move.place(cell) : null;
     }
 
     /**
@@ -147,11 +178,15 @@ public class BogoAI extends Player {
      * This method is used to create a new instance of BogoAI with the same properties
      * as the current instance.
      * It ensures that the copied BogoAI player retains its
-     * behavior and state.
+     * behavior and state, including its seed and a token that has been switched by a swap.
      *
      * @return A new BogoAI object that is a copy of the current instance.
      */
     public BogoAI copy() {
-        return new BogoAI(manager);
+        BogoAI copy = new BogoAI(seed);
+        if (copy.getToken() != getToken()) {
+            copy.switchToken();
+        }
+        return copy;
     }
 }
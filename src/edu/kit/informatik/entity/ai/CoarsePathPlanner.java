@@ -0,0 +1,188 @@
+package edu.kit.informatik.entity.ai;
+
+
+import edu.kit.informatik.manager.session.Board;
+import edu.kit.informatik.manager.session.Entry;
+import edu.kit.informatik.util.concurrent.Deadline;
+import edu.kit.informatik.util.graph.SearchWorkspace;
+import edu.kit.informatik.util.vector.Direction2D;
+import edu.kit.informatik.util.vector.Vector2D;
+
+/**
+ * Plans the path of {@link HeroAI} to the eastern edge on very large boards in two stages, so that a move only
+ * touches a small part of the board.
+ *
+ * <p>First, a route is searched on the coarse board of blocks that the {@link Board} counts its tokens in. A block
+ * is considered passable as long as not all of its cells hold a token {@code X}. Then the detailed shortest path
+ * search runs only within the start block and the next block of the route, searching for a path from the last
+ * move into that block. If there is none, the block is excluded and the route is planned again.</p>
+ *
+ * <p>The searches reuse their workspaces, so a planner must only be used by one thread at a time.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+final class CoarsePathPlanner {
+    private static final int MAX_ATTEMPTS = 16;
+    private static final int NO_BLOCK = -1;
+    /**
+     * The directions to the neighbours of a cell or block, in the order in which they are searched.
+     */
+    private static final Direction2D[] DIRECTIONS = Direction2D.values();
+
+    /**
+     * The memory of the search on the coarse board.
+     */
+    private final SearchWorkspace coarseWorkspace = new SearchWorkspace();
+    /**
+     * The memory of the detailed search within two blocks.
+     */
+    private final SearchWorkspace detailedWorkspace = new SearchWorkspace();
+    /**
+     * The number of the plan in which each block has been excluded.
+     */
+    private int[] excludedIn = new int[0];
+    /**
+     * The number of the current plan.
+     */
+    private int plan;
+
+    /**
+     * Finds the next cell on a path of empty cells and tokens {@code O} from the given cell to the eastern edge.
+     *
+     * @param board       The current board state.
+     * @param startRow    The row of the cell the path starts at, which is not in the last column.
+     * @param startColumn The column of the cell the path starts at.
+     * @param deadline    The deadline after which the search is aborted.
+     * @return The empty neighbour of the start cell that continues the path,
+     *        or null if none is found before the deadline expires.
+     */
+    Vector2D findNextStep(Board board, int startRow, int startColumn, Deadline deadline) {
+        int blocks = board.getBlocksPerSide();
+        beginPlan(blocks * blocks);
+        int startBlock = (startRow / Board.BLOCK_SIZE) * blocks + startColumn / Board.BLOCK_SIZE;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && !deadline.isExpired(); attempt++) {
+            int targetBlock = findNextBlock(board, startBlock, deadline);
+            if (targetBlock == NO_BLOCK) {
+                return null;
+            }
+            Vector2D step = refine(board, startRow, startColumn, startBlock, targetBlock, deadline);
+            if (step != null || targetBlock == startBlock) {
+                return step;
+            }
+            excludedIn[targetBlock] = plan;
+        }
+        return null;
+    }
+
+    /**
+     * Starts a new plan in which no block is excluded.
+     *
+     * @param blockCount The number of blocks of the board.
+     */
+    private void beginPlan(int blockCount) {
+        if (excludedIn.length < blockCount) {
+            excludedIn = new int[blockCount];
+            plan = 0;
+        }
+        plan++;
+    }
+
+    /**
+     * Searches a route on the coarse board from the start block to a block in the last column.
+     *
+     * @param board      The current board state.
+     * @param startBlock The index of the block containing the start cell.
+     * @param deadline   The deadline after which the search is aborted.
+     * @return The index of the block following the start block on the route, the start block itself if it lies
+     *        in the last column, or -1 if there is no route.
+     */
+    private int findNextBlock(Board board, int startBlock, Deadline deadline) {
+        int blocks = board.getBlocksPerSide();
+        if (startBlock % blocks == blocks - 1) {
+            return startBlock;
+        }
+        coarseWorkspace.begin(blocks * blocks);
+        coarseWorkspace.reach(startBlock);
+        while (!coarseWorkspace.isQueueEmpty() && !deadline.isExpired()) {
+            int current = coarseWorkspace.dequeue();
+            if (current % blocks == blocks - 1) {
+                int next = current;
+                while (coarseWorkspace.getParent(next) != startBlock) {
+                    next = coarseWorkspace.getParent(next);
+                }
+                return next;
+            }
+            for (Direction2D dir : DIRECTIONS) {
+                int row = current / blocks + dir.getDirection().x();
+                int column = current % blocks + dir.getDirection().y();
+                if (row >= 0 && row < blocks && column >= 0 && column < blocks
+                        && excludedIn[row * blocks + column] != plan
+                        && board.getTokenCountInBlock(Entry.X, row, column) < board.getCellCountInBlock(row, column)) {
+                    coarseWorkspace.reach(row * blocks + column, current);
+                }
+            }
+        }
+        return NO_BLOCK;
+    }
+
+    /**
+     * Runs the detailed shortest path search within the start block and the target block.
+     * The search ends at a cell of the target block, or at a cell of the last column if the target block is the
+     * start block.
+     *
+     * @param board       The current board state.
+     * @param startRow    The row of the start cell.
+     * @param startColumn The column of the start cell.
+     * @param startBlock  The index of the block containing the start cell.
+     * @param targetBlock The index of the block to reach.
+     * @param deadline    The deadline after which the search is aborted.
+     * @return The empty neighbour of the start cell on the path, or null if there is none.
+     */
+    private Vector2D refine(Board board, int startRow, int startColumn, int startBlock, int targetBlock,
+                            Deadline deadline) {
+        int size = board.getSize();
+        int blocks = board.getBlocksPerSide();
+        int firstRow = Math.min(startBlock / blocks, targetBlock / blocks) * Board.BLOCK_SIZE;
+        int firstColumn = Math.min(startBlock % blocks, targetBlock % blocks) * Board.BLOCK_SIZE;
+        int endRow = Math.min(size, (Math.max(startBlock / blocks, targetBlock / blocks) + 1) * Board.BLOCK_SIZE);
+        int endColumn = Math.min(size,
+                (Math.max(startBlock % blocks, targetBlock % blocks) + 1) * Board.BLOCK_SIZE);
+        int width = endColumn - firstColumn;
+
+        int start = (startRow - firstRow) * width + startColumn - firstColumn;
+        detailedWorkspace.begin((endRow - firstRow) * width);
+        detailedWorkspace.reach(start);
+        while (!detailedWorkspace.isQueueEmpty() && !deadline.isExpired()) {
+            int current = detailedWorkspace.dequeue();
+            int row = firstRow + current / width;
+            int column = firstColumn + current % width;
+            boolean reached = (targetBlock == startBlock) ? column == size - 1
+                    : (row / Board.BLOCK_SIZE) * blocks + column / Board.BLOCK_SIZE == targetBlock;
+            if (reached) {
+                int next = current;
+                while (detailedWorkspace.getParent(next) != start) {
+                    next = detailedWorkspace.getParent(next);
+                }
+                int nextRow = firstRow + next / width;
+                int nextColumn = firstColumn + next % width;
+                if (board.isEmpty(nextRow, nextColumn)) {
+                    return new Vector2D(nextRow, nextColumn);
+                }
+                continue;
+            }
+            for (Direction2D dir : DIRECTIONS) {
+                int neighborRow = row + dir.getDirection().x();
+                int neighborColumn = column + dir.getDirection().y();
+                if (neighborRow >= firstRow && neighborRow < endRow
+                        && neighborColumn >= firstColumn && neighborColumn < endColumn
+                        && (board.isEmpty(neighborRow, neighborColumn)
+                        || board.getEntryAt(neighborRow, neighborColumn).equals(Entry.O))) {
+                    detailedWorkspace.reach((neighborRow - firstRow) * width + neighborColumn - firstColumn,
+                            current);
+                }
+            }
+        }
+        return null;
+    }
+}
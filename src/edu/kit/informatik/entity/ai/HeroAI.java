@@ -2,18 +2,15 @@ package edu.kit.informatik.entity.ai;
 
 
 import edu.kit.informatik.entity.Player;
-import edu.kit.informatik.manager.GameManager;
 import edu.kit.informatik.manager.session.Board;
 import edu.kit.informatik.manager.session.Entry;
 import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.Move;
+import edu.kit.informatik.util.concurrent.Deadline;
+import edu.kit.informatik.util.graph.SearchWorkspace;
 import edu.kit.informatik.util.vector.Direction2D;
 import edu.kit.informatik.util.vector.Vector2D;
 
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.Queue;
-
 import static edu.kit.informatik.entity.ai.AIStrategyHelper.*;
 
 
@@ -25,94 +22,111 @@ import static edu.kit.informatik.entity.ai.AIStrategyHelper.*;
  * Preventing the opponent from making a winning move.
  * Trying to occupy the north most west position on the board.
  * Calculate the shortest path to reach the end and make a move accordingly.
- * If no suitable move is found, recursively call the next move with a different approach.
+ * If no suitable move is found, repeat the search with a different approach.
  * It utilizes Breadth-First Search (BFS) to find the shortest path for its moves.
+ * All searches of an instance reuse the same {@link SearchWorkspace}, so a move allocates almost no memory once
+ * the workspace has grown to the size of the board. An instance must therefore not compute two moves at once.
  *
  * @author utobm
  * @version 1.0
  */
 
-public class HeroAI extends Player {
+public class HeroAI extends Player implements AIPlayer {
     /**
      * Static name for the HeroAI player.
      */
     private static final String NAME = "HeroAI";
     /**
-     * Reference to the game manager.
+     * The directions to the neighbours of a cell, in the order in which they are searched.
+     */
+    private static final Direction2D[] DIRECTIONS = Direction2D.values();
+    /**
+     * The board size from which on the path is planned on the coarse board of blocks.
      */
-    private final GameManager manager;
+    private static final int COARSE_PLANNING_SIZE = 4 * Board.BLOCK_SIZE;
 
+    /**
+     * The memory reused by all shortest path searches of this instance.
+     */
+    private final SearchWorkspace workspace = new SearchWorkspace();
+    /**
+     * The planner of the paths on very large boards.
+     */
+    private final CoarsePathPlanner planner = new CoarsePathPlanner();
 
     /**
      * Initializes a new HeroAI player.
-     *
-     * @param manager The game manager.
      */
 
-    public HeroAI(GameManager manager) {
+    public HeroAI() {
         super(NAME, Entry.O);
-        this.manager = manager;
-
     }
 
     /**
      * Determines the next move for HeroAI based on its advanced strategies.
      * If no valid move is found,
-     * the method recursively checks for valid moves by treating past moves of the HeroAI as free.
-     * The number of past moves considered is increased with each recursive call, and the recursion terminates
-     * when all past moves have been considered.
+     * the method repeatedly checks for valid moves by treating past moves of the HeroAI as free.
+     * The number of past moves considered is increased with each attempt, and the search terminates
+     * when all past moves have been considered or the deadline has expired.
+     * A fallback move is determined before any expensive strategy and returned in both cases.
      *
-     * @param pastMoves The number of past moves to consider as free in the current iteration.
-     *                  For the initial call, this should typically be set to 0.
-     * @return A string command representing the next move.
-     *        If no valid move is found after considering all past moves, it might return null or a default value.
+     * @param currentGame The game in which HeroAI is the current player.
+     * @param deadline    The deadline by which the move has to be determined.
+     * @return The next move, or null if the board is full.
      */
+    @Override
+    public Move nextMove(HexGame currentGame, Deadline deadline) {
+        Board board = currentGame.getBoard();
+        Move fallbackMove = findNorthMostWestMove(board);
+        if (fallbackMove == null) {
+            fallbackMove = determineFallbackMove(board);
+        }
 
-    public String nextMove(int pastMoves) {
-
-        HexGame currentGame = manager.getCurrentGame();
-        Board board = currentGame.getBoard().copy();
-
-        String winningMove = determineWinningMove(board, this);
+        Move winningMove = determineWinningMove(board, this, deadline, currentGame.getTranspositionTable());
         if (winningMove != null) {
             return winningMove;
         }
+        if (deadline.isExpired()) {
+            return fallbackMove;
+        }
 
-        String preventativeMove = determineBlockingMove(board, manager);
+        Move preventativeMove = determineBlockingMove(board, currentGame.getOpponent(), deadline,
+                currentGame.getTranspositionTable());
         if (preventativeMove != null) {
             return preventativeMove;
         }
 
         if (currentGame.getMoveHistory().size() == 1) {
-            return findNorthMostWestMove(board);
+            return fallbackMove;
         }
 
-        String pathMove = findShortestPathMove(board, pastMoves);
-        if (pathMove != null) {
-            return pathMove;
+        // If no suitable move is found, try again treating more of the tried hexagons as free
+        for (int pastMoves = 0; !deadline.isExpired() && currentGame.getLastMoveForPlayer(this, pastMoves) != null;
+             pastMoves++) {
+            Move pathMove = findShortestPathMove(currentGame, board, pastMoves, deadline);
+            if (pathMove != null) {
+                return pathMove;
+            }
         }
-
-        // If no suitable move found, recursively call nextMove() treating tried hexagons as free
-        // Note: You need to handle and avoid infinite recursion
-        return nextMove(pastMoves + 1);
+        return fallbackMove;
     }
 
     /**
      * Finds the northernmost unoccupied position in the westernmost column of the board.
      * This method iterates through the rows of the westernmost column of the board
      * looking for an unoccupied cell.
-     * If found, it returns the position as a move command;
+     * If found, it returns the move placing a token there;
      * otherwise, it returns null.
      *
      * @param board The current board state.
-     * @return A command representing the northernmost unoccupied cell in the westernmost column,
+     * @return A move placing a token on the northernmost unoccupied cell in the westernmost column,
      *        or null if no such cell is found.
      */
 
-    private String findNorthMostWestMove(Board board) {
+    private Move findNorthMostWestMove(Board board) {
         for (int i = 0; i < board.getSize(); i++) {
             if (board.isEmpty(i, 0)) {  // Check the westernmost column
-                return convertMoveToCommand(new Vector2D(i, 0));
+                return Move.place(new Vector2D(i, 0));
             }
         }
         return null;
@@ -124,44 +138,51 @@ public class HeroAI extends Player {
      * next move that would create or continue the shortest path to reach the east side of the board.
      * This method utilizes BFS (Breadth-First Search) to explore potential paths.
      *
-     * @param board     The current board state.
-     * @param pastMoves The number of past moves made.
-     * @return A command representing the next move based on the shortest path strategy,
-     *        or null if no suitable move is found.
+     * @param currentGame The game whose move history provides the last move.
+     * @param board       The current board state.
+     * @param pastMoves   The number of past moves made.
+     * @param deadline    The deadline after which the search is aborted.
+     * @return The next move based on the shortest path strategy,
+     *        or null if no suitable move is found before the deadline expires.
      */
-    private String findShortestPathMove(Board board, int pastMoves) {
+    private Move findShortestPathMove(HexGame currentGame, Board board, int pastMoves, Deadline deadline) {
         int boardSize = board.getSize();
-        boolean[][] visited = new boolean[boardSize][boardSize];
-        Queue<Vector2D> queue = new LinkedList<>();
-        Map<Vector2D, Vector2D> parentMap = new HashMap<>();
-
-        Vector2D lastMove = getLastMove(pastMoves);
-        if (lastMove.y() == boardSize - 1) {
+        Vector2D lastMoveVector = currentGame.getLastMoveForPlayer(this, pastMoves);
+        // The history stores the column first
+        int lastRow = lastMoveVector.y();
+        int lastColumn = lastMoveVector.x();
+        if (lastColumn == boardSize - 1) {
             return null;
         }
-        queue.add(lastMove);
-        visited[lastMove.x()][lastMove.y()] = true;
-
-        while (!queue.isEmpty()) {
-            Vector2D current = queue.poll();
-
-            if (current.y() == boardSize - 1) {
-                Vector2D backtrack = backtrack(lastMove, current, parentMap);
-                assert backtrack != null;
-                if (board.getEntryAt(backtrack).equals(Entry.EMPTY)) {
-                    return convertMoveToCommand(backtrack);
+        if (boardSize >= COARSE_PLANNING_SIZE) {
+            Vector2D step = planner.findNextStep(board, lastRow, lastColumn, deadline);
+            return (step != null) ? Move.place(step) : null;
+        }
+        int lastMove = lastRow * boardSize + lastColumn;
+        workspace.begin(boardSize * boardSize);
+        workspace.reach(lastMove);
+
+        while (!workspace.isQueueEmpty() && !deadline.isExpired()) {
+            int current = workspace.dequeue();
+            int currentRow = current / boardSize;
+            int currentColumn = current % boardSize;
+
+            if (currentColumn == boardSize - 1) {
+                int next = backtrack(lastMove, current);
+                if (board.isEmpty(next / boardSize, next % boardSize)) {
+                    return Move.place(new Vector2D(next / boardSize, next % boardSize));
                 } else {
                     continue;
                 }
             }
 
-            for (Direction2D dir : Direction2D.values()) {
-                Vector2D neighbor = current.add(dir.getDirection());
-                if (board.isPositionValid(neighbor) && !visited[neighbor.x()][neighbor.y()]
-                        && (board.isEmpty(neighbor.x(), neighbor.y()) || board.getEntryAt(neighbor).equals(Entry.O))) {
-                    queue.add(neighbor);
-                    visited[neighbor.x()][neighbor.y()] = true;
-                    parentMap.put(neighbor, current);
+            for (Direction2D dir : DIRECTIONS) {
+                int neighborRow = currentRow + dir.getDirection().x();
+                int neighborColumn = currentColumn + dir.getDirection().y();
+                if (neighborRow >= 0 && neighborRow < boardSize && neighborColumn >= 0 && neighborColumn < boardSize
+                        && (board.isEmpty(neighborRow, neighborColumn)
+                        || board.getEntryAt(neighborRow, neighborColumn).equals(Entry.O))) {
+                    workspace.reach(neighborRow * boardSize + neighborColumn, current);
                 }
             }
         }
@@ -170,38 +191,20 @@ public class HeroAI extends Player {
     }
 
     /**
-     * Backtracks from the destination position to find the next move after the last move.
-     * Using the parentMap, which maps each position to the position from which it was visited,
-     * this method backtracks from the destination to find the next position that needs to be visited.
+     * Backtracks from the destination cell to find the next move after the last move.
+     * Using the parents recorded in the workspace, this method follows the path from the destination back to
+     * the cell that was reached directly from the last move.
      *
-     * @param lastMove    The last move that was made.
-     * @param destination The final destination position.
-     * @param parentMap   A map from each position to its parent in the search tree.
-     * @return The next move's position after the last move, or null if such a move doesn't exist.
+     * @param lastMove    The index of the cell of the last move that was made.
+     * @param destination The index of the final destination cell, which differs from the last move.
+     * @return The index of the cell on the path that follows the last move.
      */
-    private Vector2D backtrack(Vector2D lastMove, Vector2D destination, Map<Vector2D, Vector2D> parentMap) {
-        Vector2D currentNode = destination;
-
-        while (currentNode != null) {
-            if (parentMap.get(currentNode).equals(lastMove)) {
-                return currentNode;
-            }
-            currentNode = parentMap.get(currentNode);
+    private int backtrack(int lastMove, int destination) {
+        int currentNode = destination;
+        while (workspace.getParent(currentNode) != lastMove) {
+            currentNode = workspace.getParent(currentNode);
         }
-        return null;
-    }
-    /**
-     * Retrieves the last move made by the player based on a given number of past moves.
-     * Uses a manager to fetch the last move for the player, taking the number of past moves into account.
-     * Note: The returned position has its x and y values swapped.
-     *
-     * @param pastMoves The number of past moves made.
-     * @return The position of the last move made by the player.
-     */
-
-    private Vector2D getLastMove(int pastMoves) {
-        Vector2D vector = manager.getLastMoveForPlayer(this, pastMoves);
-        return new Vector2D(vector.y(), vector.x());
+        return currentNode;
     }
 
     /**
@@ -209,12 +212,16 @@ public class HeroAI extends Player {
      * This method is used to create a new instance of HeroAI with the same properties
      * as the current instance.
      * It ensures that the copied HeroAI player retains its
-     * behavior and state.
+     * behavior and state, including a token that has been switched by a swap.
      *
      * @return A new HeroAI object that is a copy of the current instance.
      */
     public HeroAI copy() {
-        return new HeroAI(manager);
+        HeroAI copy = new HeroAI();
+        if (copy.getToken() != getToken()) {
+            copy.switchToken();
+        }
+        return copy;
     }
 
 
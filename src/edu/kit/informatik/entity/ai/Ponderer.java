@@ -0,0 +1,284 @@
+package edu.kit.informatik.entity.ai;
+
+
+import edu.kit.informatik.entity.Player;
+import edu.kit.informatik.manager.session.Board;
+import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.Move;
+import edu.kit.informatik.manager.session.MoveHistory;
+import edu.kit.informatik.manager.session.PlaceResult;
+import edu.kit.informatik.util.concurrent.Deadline;
+import edu.kit.informatik.util.vector.Vector2D;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Lets an AI search its replies while the human opponent is still thinking.
+ * While the human is to move, a single long-lived background thread works on a copy of the game, which is taken
+ * once per position and kept while the search pauses for commands that do not move. It plays the most likely
+ * human moves on forks of that copy, first the cells around the latest moves and then the rest of the board,
+ * and stores the reply the AI would give to each of them.
+ * Once the human has moved, the stored reply for the actual move is handed out if the game has advanced by
+ * exactly that move. In every other case the pondered work is thrown away and the AI computes its move as usual.
+ *
+ * <p>Since the AIs compute their moves deterministically from the game state, a pondered reply is identical to the
+ * reply that would have been computed afterwards, as long as the game has no move budget. The search of a reply is
+ * not bounded, while with a budget the AI may stop earlier and answer differently. Games with a move budget are
+ * therefore not pondered, and no reply is handed out for them.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class Ponderer {
+    /**
+     * The maximum number of human moves for which a reply is computed in advance.
+     */
+    private static final int MAX_CANDIDATES = 256;
+    /**
+     * The distance around the latest moves in which human moves are considered likely.
+     */
+    private static final int CANDIDATE_RADIUS = 2;
+    /**
+     * The number of latest moves around which human moves are considered likely.
+     */
+    private static final int RECENT_MOVES = 2;
+    private static final String THREAD_NAME = "ponder";
+
+    /**
+     * The pondered replies of the current position, keyed by the human move they answer.
+     */
+    private Map<Vector2D, Move> replies = new ConcurrentHashMap<>();
+    /**
+     * The game that is currently pondered, or null if nothing is pondered.
+     */
+    private HexGame ponderedGame;
+    /**
+     * The number of moves the pondered game had when pondering started.
+     */
+    private int ponderedHistorySize;
+    /**
+     * Whether the players of the pondered game had swapped when pondering started.
+     */
+    private boolean ponderedSwapped;
+    /**
+     * The copy of the pondered game, taken when pondering of the position started, or null if nothing is pondered.
+     */
+    private HexGame snapshot;
+    /**
+     * The background search of the current position, or null if no search is running.
+     */
+    private PonderTask task;
+    /**
+     * The searches waiting for the worker, which runs them one after another.
+     */
+    private final BlockingQueue<PonderTask> tasks = new LinkedBlockingQueue<>();
+    /**
+     * The thread running the searches, started on first use.
+     */
+    private Thread worker;
+
+    /**
+     * Starts pondering the given game if the human is to move and the AI moves next.
+     * Calling this method again for a position that is already pondered resumes the search on the same copy of the
+     * game and keeps the replies found so far. Any other position discards them. A game with a move budget is not
+     * pondered.
+     *
+     * @param game The game in which the human is about to move.
+     */
+    public void start(HexGame game) {
+        if (isPondered(game)) {
+            if (task == null) {
+                resume();
+            }
+            return;
+        }
+        discard();
+        if (game.getWinningPlayer() != null || game.getCurrentPlayer() instanceof AIPlayer
+                || !(game.getOpponent() instanceof AIPlayer) || game.getMoveBudget() > 0) {
+            return;
+        }
+        ponderedGame = game;
+        ponderedHistorySize = game.getMoveHistory().size();
+        ponderedSwapped = game.hasSwapped();
+        snapshot = game.copy();
+        resume();
+    }
+
+    /**
+     * Stops the background search. Replies that were found so far are kept.
+     */
+    public void stop() {
+        if (task != null) {
+            task.deadline.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Hands out the pondered reply for the move the human has just made in the given game.
+     * A reply is only handed out if the game is the pondered one, has advanced by exactly one placement since
+     * pondering started and has no move budget. The pondered work is discarded in any case.
+     *
+     * @param game The game in which the AI is about to move.
+     * @return The pondered reply, or null if the AI has to compute its move.
+     */
+    public Move takeReply(HexGame game) {
+        Move reply = null;
+        MoveHistory moveHistory = game.getMoveHistory();
+        if (game == ponderedGame && game.hasSwapped() == ponderedSwapped
+                && moveHistory.size() == ponderedHistorySize + 1 && game.getMoveBudget() == 0) {
+            reply = replies.get(moveHistory.getVector(moveHistory.size() - 1));
+        }
+        discard();
+        return reply;
+    }
+
+    /**
+     * Checks whether the given game is pondered in its current position.
+     *
+     * @param game The game to check.
+     * @return True if the current position of the game is pondered, otherwise false.
+     */
+    private boolean isPondered(HexGame game) {
+        return game == ponderedGame && game.hasSwapped() == ponderedSwapped
+                && game.getMoveHistory().size() == ponderedHistorySize;
+    }
+
+    /**
+     * Hands a search of the pondered position to the worker, starting the worker on first use.
+     */
+    private void resume() {
+        task = new PonderTask(snapshot, replies);
+        if (worker == null) {
+            worker = new Thread(this::work, THREAD_NAME);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        tasks.add(task);
+    }
+
+    /**
+     * Runs the searches handed to the worker one after another. A search that has been stopped before its turn
+     * returns right away.
+     */
+    private void work() {
+        try {
+            while (true) {
+                tasks.take().run();
+            }
+        } catch (InterruptedException e) {
+            // The worker is a daemon thread, so it is only interrupted when the process ends
+        }
+    }
+
+    /**
+     * Stops the background search and throws away all pondered replies.
+     */
+    private void discard() {
+        stop();
+        ponderedGame = null;
+        snapshot = null;
+        replies = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Computes the likely human moves for the given snapshot, the most likely ones first.
+     * These are the empty cells around the latest moves, followed by the remaining empty cells in board order.
+     *
+     * @param snapshot The snapshot in which the human is to move.
+     * @return The likely human moves as positions in the coordinates of the place command.
+     */
+    private static Set<Vector2D> findCandidates(HexGame snapshot) {
+        Set<Vector2D> candidates = new LinkedHashSet<>();
+        Board board = snapshot.getBoard();
+        int size = board.getSize();
+        MoveHistory moveHistory = snapshot.getMoveHistory();
+        for (int i = moveHistory.size() - 1; i >= Math.max(0, moveHistory.size() - RECENT_MOVES); i--) {
+            Vector2D move = moveHistory.getVector(i);
+            for (int y = move.y() - CANDIDATE_RADIUS; y <= move.y() + CANDIDATE_RADIUS; y++) {
+                for (int x = move.x() - CANDIDATE_RADIUS; x <= move.x() + CANDIDATE_RADIUS; x++) {
+                    addCandidate(candidates, board, x, y);
+                }
+            }
+        }
+        for (int y = 0; y < size && candidates.size() < MAX_CANDIDATES; y++) {
+            for (int x = 0; x < size && candidates.size() < MAX_CANDIDATES; x++) {
+                addCandidate(candidates, board, x, y);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Adds the given position to the candidates if it lies on the board, is empty and the limit is not reached.
+     *
+     * @param candidates The candidates found so far.
+     * @param board      The board of the snapshot.
+     * @param x          The x-coordinate of the place command.
+     * @param y          The y-coordinate of the place command.
+     */
+    private static void addCandidate(Set<Vector2D> candidates, Board board, int x, int y) {
+        Vector2D position = new Vector2D(x, y);
+        if (candidates.size() < MAX_CANDIDATES && board.isPositionValid(position) && board.isEmpty(y, x)) {
+            candidates.add(position);
+        }
+    }
+
+    /**
+     * The background search of one position. It plays each likely human move on a snapshot of the snapshot, which
+     * forks the board instead of copying it, and stores the reply of the AI until it is cancelled or all candidates
+     * have been answered.
+     * The search is not bound by the move budget of the game, since it only uses time in which the human is thinking.
+     * Cancelling it aborts the reply that is currently computed, which is then not stored.
+     */
+    private static final class PonderTask implements Runnable {
+        private final HexGame snapshot;
+        private final Map<Vector2D, Move> answered;
+        private final Deadline deadline = Deadline.unlimited();
+
+        /**
+         * Creates a new background search.
+         *
+         * @param snapshot The copy of the pondered game, only used by the worker.
+         * @param answered The replies of the pondered position, including those found by earlier searches.
+         */
+        private PonderTask(HexGame snapshot, Map<Vector2D, Move> answered) {
+            this.snapshot = snapshot;
+            this.answered = answered;
+        }
+
+        @Override
+        public void run() {
+            if (deadline.isCancelled()) {
+                return;
+            }
+            for (Vector2D candidate : findCandidates(snapshot)) {
+                if (deadline.isCancelled()) {
+                    return;
+                }
+                if (answered.containsKey(candidate)) {
+                    continue;
+                }
+                HexGame branch = snapshot.snapshot();
+                if (branch.tryPlace(candidate.x(), candidate.y()) != PlaceResult.PLACED) {
+                    // The candidate is taken or wins the game, so the AI does not reply to it
+                    continue;
+                }
+                Player aiPlayer = branch.getCurrentPlayer();
+                if (!(aiPlayer instanceof AIPlayer)) {
+                    continue;
+                }
+                Move reply = ((AIPlayer) aiPlayer).nextMove(branch, deadline);
+                if (!deadline.isCancelled() && reply != null) {
+                    answered.put(candidate, reply);
+                }
+            }
+        }
+    }
+}
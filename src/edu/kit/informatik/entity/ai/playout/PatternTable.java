@@ -0,0 +1,103 @@
+package edu.kit.informatik.entity.ai.playout;
+
+
+import edu.kit.informatik.manager.session.PackedBoard;
+
+/**
+ * Provides precomputed tables that classify the surroundings of a cell, read from a {@link PackedBoard}.
+ * A table is indexed by the states of the six neighbours or of the six bridge partners of a cell, which are
+ * packed into twelve bits, so every lookup is a single array access.
+ *
+ * <p>Two patterns are encoded:</p>
+ * <ul>
+ *     <li>Saving a bridge: if the opponent has just played into one of the two cells connecting a bridge of the
+ *     player to move, the player answers in the other one. Seen from the opponent's move, the bridge is a pair of
+ *     the player's stones two neighbours apart with an empty neighbour between them. Since the border of a packed
+ *     board looks like the player's own stones, this also saves the bridges of stones to their edges.</li>
+ *     <li>Forming a bridge: a cell forms a bridge with a stone of the player if both cells between them are empty.
+ *     This combines a table of the neighbours with a table of the bridge partners, which together describe the
+ *     twelve cells around a cell.</li>
+ * </ul>
+ *
+ * <p>This class should not be instantiated, and all methods are static for utility purposes.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class PatternTable {
+    private static final int STATES = 1 << (PackedBoard.BITS_PER_CELL * PackedBoard.RING_SIZE);
+    private static final int STATE_MASK = (1 << PackedBoard.BITS_PER_CELL) - 1;
+    private static final int PLAYERS = 3;
+
+    /**
+     * For each player and neighbourhood, the set of neighbours that save a bridge, one bit per neighbour.
+     */
+    private static final byte[][] BRIDGE_SAVES = new byte[PLAYERS][STATES];
+    /**
+     * For each neighbourhood, the set of bridge directions whose two connecting cells are empty.
+     */
+    private static final byte[] FREE_CARRIERS = new byte[STATES];
+    /**
+     * For each player and state of the bridge partners, the set of partners holding a stone of the player.
+     */
+    private static final byte[][] OWN_PARTNERS = new byte[PLAYERS][STATES];
+
+    static {
+        for (int state = 0; state < STATES; state++) {
+            for (int i = 0; i < PackedBoard.RING_SIZE; i++) {
+                int previous = cell(state, (i + PackedBoard.RING_SIZE - 1) % PackedBoard.RING_SIZE);
+                int current = cell(state, i);
+                int next = cell(state, (i + 1) % PackedBoard.RING_SIZE);
+                if (current == PackedBoard.EMPTY && next == PackedBoard.EMPTY) {
+                    FREE_CARRIERS[state] |= (byte) (1 << i);
+                }
+                for (int player = PackedBoard.X; player <= PackedBoard.O; player++) {
+                    if (current == PackedBoard.EMPTY && previous == player && next == player) {
+                        BRIDGE_SAVES[player][state] |= (byte) (1 << i);
+                    }
+                    if (current == player) {
+                        OWN_PARTNERS[player][state] |= (byte) (1 << i);
+                    }
+                }
+            }
+        }
+    }
+
+    private PatternTable() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+
+    /**
+     * Extracts the state of one cell from a packed ring of six cells.
+     *
+     * @param state    The states of the ring.
+     * @param position The position of the cell in the ring.
+     * @return The state of the cell.
+     */
+    private static int cell(int state, int position) {
+        return state >>> (position * PackedBoard.BITS_PER_CELL) & STATE_MASK;
+    }
+
+    /**
+     * Determines the neighbours of the opponent's last move in which the player saves a bridge.
+     *
+     * @param player        The player to move, {@link PackedBoard#X} or {@link PackedBoard#O}.
+     * @param neighbourhood The neighbourhood of the opponent's last move.
+     * @return The set of neighbours saving a bridge, one bit per neighbour, or 0 if no bridge is attacked.
+     */
+    public static int bridgeSaves(int player, int neighbourhood) {
+        return BRIDGE_SAVES[player][neighbourhood];
+    }
+
+    /**
+     * Checks whether a stone of the player on a cell would form a bridge with another stone of the player.
+     *
+     * @param player         The player, {@link PackedBoard#X} or {@link PackedBoard#O}.
+     * @param neighbourhood  The neighbourhood of the cell.
+     * @param bridgePartners The states of the bridge partners of the cell.
+     * @return True if the cell forms a bridge, otherwise false.
+     */
+    public static boolean formsBridge(int player, int neighbourhood, int bridgePartners) {
+        return (FREE_CARRIERS[neighbourhood] & OWN_PARTNERS[player][bridgePartners]) != 0;
+    }
+}
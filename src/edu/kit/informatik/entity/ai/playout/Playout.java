@@ -0,0 +1,245 @@
+package edu.kit.informatik.entity.ai.playout;
+
+
+import edu.kit.informatik.manager.session.PackedBoard;
+import edu.kit.informatik.util.graph.SearchWorkspace;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays random games from a fixed starting position until the board is full and reports the winner.
+ * Since a full Hex board always has exactly one winner, the outcome of such a playout estimates the chances of
+ * the players in the starting position.
+ *
+ * <p>All playouts of an instance reuse the same board, list of empty cells and search workspace, so a playout
+ * does not allocate any memory. An instance must therefore only be used by one thread at a time.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class Playout {
+    private static final int NO_CELL = -1;
+
+    /**
+     * The starting position of every playout.
+     */
+    private final PackedBoard start;
+    /**
+     * The board on which the current playout is played.
+     */
+    private final PackedBoard board;
+    private final PlayoutPolicy policy;
+    /**
+     * The empty cells of the starting position.
+     */
+    private final int[] startEmptyCells;
+    /**
+     * The empty cells of the current playout, packed at the front of the array.
+     */
+    private final int[] emptyCells;
+    /**
+     * The position of every empty cell in {@link #emptyCells}.
+     */
+    private final int[] positions;
+    /**
+     * The memory of the search for the winner.
+     */
+    private final SearchWorkspace workspace = new SearchWorkspace();
+    /**
+     * The number of empty cells in the current playout.
+     */
+    private int emptyCount;
+
+    /**
+     * Constructs a new playout for the given starting position.
+     *
+     * @param start  The starting position, which is copied.
+     * @param policy The way in which the moves are chosen.
+     */
+    public Playout(PackedBoard start, PlayoutPolicy policy) {
+        this.start = start.copy();
+        this.board = start.copy();
+        this.policy = policy;
+        int size = start.getSize();
+        int count = 0;
+        int[] cells = new int[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                int index = start.index(row, column);
+                if (start.get(index) == PackedBoard.EMPTY) {
+                    cells[count++] = index;
+                }
+            }
+        }
+        this.startEmptyCells = Arrays.copyOf(cells, count);
+        this.emptyCells = new int[count];
+        this.positions = new int[start.getCapacity()];
+    }
+
+    /**
+     * Returns the empty cells of the starting position.
+     *
+     * @return The number of empty cells.
+     */
+    public int getEmptyCellCount() {
+        return startEmptyCells.length;
+    }
+
+    /**
+     * Returns an empty cell of the starting position.
+     *
+     * @param position The position of the cell, between 0 and {@code getEmptyCellCount() - 1}.
+     * @return The index of the cell in the packed board.
+     */
+    public int getEmptyCell(int position) {
+        return startEmptyCells[position];
+    }
+
+    /**
+     * Plays a game from the starting position until the board is full.
+     *
+     * @param player    The player to move, {@link PackedBoard#X} or {@link PackedBoard#O}.
+     * @param firstMove The index of the cell the player moves to first, or -1 to let the policy choose it.
+     * @param lastMove  The index of the opponent's last move in the starting position, or -1 if unknown.
+     * @param random    The source of randomness.
+     * @return The winner, {@link PackedBoard#X} or {@link PackedBoard#O}.
+     */
+    public int play(int player, int firstMove, int lastMove, RandomGenerator random) {
+        reset();
+        int current = player;
+        int previousMove = lastMove;
+        if (firstMove != NO_CELL) {
+            occupy(firstMove, current);
+            previousMove = firstMove;
+            current = opponent(current);
+        }
+        while (emptyCount > 0) {
+            int cell = chooseMove(current, previousMove, random);
+            occupy(cell, current);
+            previousMove = cell;
+            current = opponent(current);
+        }
+        return winner();
+    }
+
+    /**
+     * Restores the starting position.
+     */
+    private void reset() {
+        board.copyFrom(start);
+        emptyCount = startEmptyCells.length;
+        for (int i = 0; i < emptyCount; i++) {
+            int cell = startEmptyCells[i];
+            emptyCells[i] = cell;
+            positions[cell] = i;
+        }
+    }
+
+    /**
+     * Chooses the next move according to the policy.
+     *
+     * @param player       The player to move.
+     * @param previousMove The index of the opponent's last move, or -1 if unknown.
+     * @param random       The source of randomness.
+     * @return The index of an empty cell.
+     */
+    private int chooseMove(int player, int previousMove, RandomGenerator random) {
+        if (policy == PlayoutPolicy.RANDOM) {
+            return emptyCells[random.nextInt(emptyCount)];
+        }
+        if (previousMove != NO_CELL) {
+            int saves = PatternTable.bridgeSaves(player, board.neighbourhood(previousMove));
+            if (saves != 0) {
+                return previousMove + board.getNeighbourOffset(chooseBit(saves, random));
+            }
+        }
+        int cell = emptyCells[random.nextInt(emptyCount)];
+        if (policy == PlayoutPolicy.BRIDGE_SAVE_AND_FORM && !formsBridge(player, cell)) {
+            int alternative = emptyCells[random.nextInt(emptyCount)];
+            if (formsBridge(player, alternative)) {
+                return alternative;
+            }
+        }
+        return cell;
+    }
+
+    /**
+     * Checks whether a stone of the player on the cell would form a bridge.
+     *
+     * @param player The player.
+     * @param cell   The index of the cell.
+     * @return True if the cell forms a bridge with a stone of the player, otherwise false.
+     */
+    private boolean formsBridge(int player, int cell) {
+        return PatternTable.formsBridge(player, board.neighbourhood(cell), board.bridgePartners(cell));
+    }
+
+    /**
+     * Chooses one of the set bits of a mask uniformly at random.
+     *
+     * @param mask   The mask, which must not be 0.
+     * @param random The source of randomness.
+     * @return The position of the chosen bit.
+     */
+    private static int chooseBit(int mask, RandomGenerator random) {
+        int remaining = mask;
+        int skip = (Integer.bitCount(mask) > 1) ? random.nextInt(Integer.bitCount(mask)) : 0;
+        for (int i = 0; i < skip; i++) {
+            remaining &= remaining - 1;
+        }
+        return Integer.numberOfTrailingZeros(remaining);
+    }
+
+    /**
+     * Places a stone of the player on an empty cell.
+     *
+     * @param cell   The index of the cell.
+     * @param player The player.
+     */
+    private void occupy(int cell, int player) {
+        board.set(cell, player);
+        emptyCount--;
+        int position = positions[cell];
+        int last = emptyCells[emptyCount];
+        emptyCells[position] = last;
+        positions[last] = position;
+    }
+
+    /**
+     * Returns the opponent of a player.
+     *
+     * @param player The player.
+     * @return The opponent.
+     */
+    private static int opponent(int player) {
+        return PackedBoard.X + PackedBoard.O - player;
+    }
+
+    /**
+     * Determines the winner of the full board by searching for a chain of {@code X} from the upper to the lower
+     * border.
+     *
+     * @return The winner, {@link PackedBoard#X} or {@link PackedBoard#O}.
+     */
+    private int winner() {
+        int size = board.getSize();
+        int firstSearched = board.index(-1, 0);
+        int lowerBorder = board.index(size, 0);
+        workspace.begin(board.getCapacity());
+        workspace.reach(firstSearched);
+        while (!workspace.isQueueEmpty()) {
+            int cell = workspace.dequeue();
+            if (cell >= lowerBorder) {
+                return PackedBoard.X;
+            }
+            for (int i = 0; i < PackedBoard.RING_SIZE; i++) {
+                int neighbour = cell + board.getNeighbourOffset(i);
+                if (neighbour >= firstSearched && board.get(neighbour) == PackedBoard.X) {
+                    workspace.reach(neighbour);
+                }
+            }
+        }
+        return PackedBoard.O;
+    }
+}
@@ -0,0 +1,25 @@
+package edu.kit.informatik.entity.ai.playout;
+
+/**
+ * Enumerates the ways in which a {@link Playout} chooses its moves.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public enum PlayoutPolicy {
+    /**
+     * Every move is chosen uniformly among the empty cells.
+     */
+    RANDOM,
+    /**
+     * A bridge attacked by the opponent's last move is saved, which only needs the six neighbours of that move.
+     * Otherwise, the move is chosen uniformly among the empty cells.
+     */
+    BRIDGE_SAVE,
+    /**
+     * A bridge attacked by the opponent's last move is saved. Otherwise, a random cell is chosen, preferring a
+     * second random cell if only that one forms a bridge with a stone of the player, which needs the twelve cells
+     * around both candidates.
+     */
+    BRIDGE_SAVE_AND_FORM
+}
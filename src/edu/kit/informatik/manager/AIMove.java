@@ -0,0 +1,44 @@
+package edu.kit.informatik.manager;
+
+
+import edu.kit.informatik.manager.exceptions.GameAlreadyWonException;
+import edu.kit.informatik.manager.exceptions.NotEmptyException;
+import edu.kit.informatik.manager.exceptions.OutOfBoundsException;
+import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.Move;
+
+/**
+ * Represents a move that an AI has computed in the background and that still has to be applied to its game.
+ * The number of moves the game had when the computation started allows to detect a move that has become stale.
+ *
+ * @param game      The game the move was computed for.
+ * @param moveCount The number of moves the game had when the computation started.
+ * @param move      The computed move, or null if the AI found no move.
+ * @author utobm
+ * @version 1.0
+ */
+public record AIMove(HexGame game, int moveCount, Move move) {
+
+    /**
+     * Checks whether the move can still be applied, i.e. the game has neither advanced nor been won since the
+     * computation started and it is still the game on the heap under its name.
+     *
+     * @param registry The registry holding the game.
+     * @return True if the move can be applied, otherwise false.
+     */
+    public boolean isApplicable(GameRegistry registry) {
+        return move != null && game.getWinningPlayer() == null && game.getMoveHistory().size() == moveCount
+                && registry.isResident(game);
+    }
+
+    /**
+     * Applies the move to its game without printing anything.
+     *
+     * @throws NotEmptyException       If the move places a token on an occupied position.
+     * @throws GameAlreadyWonException If the game has already been won.
+     * @throws OutOfBoundsException    If the move places a token outside of the board.
+     */
+    public void apply() throws NotEmptyException, GameAlreadyWonException, OutOfBoundsException {
+        game.makeMove(move);
+    }
+}
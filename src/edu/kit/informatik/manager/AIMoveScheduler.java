@@ -0,0 +1,133 @@
+package edu.kit.informatik.manager;
+
+
+import edu.kit.informatik.entity.Player;
+import edu.kit.informatik.entity.ai.AIPlayer;
+import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.Move;
+import edu.kit.informatik.util.concurrent.Deadline;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Computes the moves of AI players on a bounded pool of background threads, so that a slow AI in one game does not
+ * hold up the others. Each game has at most one pending move at a time.
+ *
+ * <p>The AI works on a snapshot of the game (see {@link HexGame#snapshot()}) taken when the move is scheduled, so it
+ * never reads the board while another thread prints or changes the game. Still, a game must not be changed while
+ * its move is pending, since the move is computed for the position of the snapshot. A computed move is not applied
+ * by the scheduler but handed to a callback, which lets the owner apply the moves of all games on a single thread
+ * in the order in which they complete. The owner marks a move as finished once it
+ * has been applied, which allows the next move of that game to be scheduled. A game is pinned on the heap of its
+ * registry while its move is pending, so that it is not evicted before the move has been applied.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class AIMoveScheduler {
+    private static final String THREAD_NAME = "ai-move-";
+
+    /**
+     * The background threads computing the moves.
+     */
+    private final ExecutorService executor;
+    /**
+     * The registry holding the games, in which the games with a pending move are pinned.
+     */
+    private final GameRegistry registry;
+    /**
+     * The deadlines of the pending moves, keyed by their game.
+     */
+    private final Map<HexGame, Deadline> pendingMoves = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new scheduler with one background thread per available processor.
+     *
+     * @param registry The registry holding the games.
+     */
+    public AIMoveScheduler(GameRegistry registry) {
+        this(registry, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a new scheduler with the given number of background threads.
+     *
+     * @param registry The registry holding the games.
+     * @param threads  The number of moves that are computed at the same time.
+     */
+    public AIMoveScheduler(GameRegistry registry, int threads) {
+        this.registry = registry;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules the computation of the next move in the given game, if an AI is to move there and no move of
+     * the game is pending yet and the game has not been evicted. The computation is bounded by the move budget of
+     * the game.
+     *
+     * @param game       The game in which the AI is to move.
+     * @param onComplete The callback receiving the computed move. It is called on a background thread.
+     * @return True if a computation was scheduled, otherwise false.
+     */
+    public boolean schedule(HexGame game, Consumer<AIMove> onComplete) {
+        Player currentPlayer = game.getCurrentPlayer();
+        if (game.getWinningPlayer() != null || !(currentPlayer instanceof AIPlayer)) {
+            return false;
+        }
+        Deadline deadline = Deadline.of(game.getMoveBudget());
+        if (pendingMoves.putIfAbsent(game, deadline) != null) {
+            return false;
+        }
+        if (!registry.pin(game)) {
+            pendingMoves.remove(game);
+            return false;
+        }
+        game.beginSearch();
+        HexGame snapshot = game.snapshot();
+        int moveCount = snapshot.getMoveHistory().size();
+        executor.execute(() -> {
+            Move move = deadline.isCancelled() ? null : ((AIPlayer) currentPlayer).nextMove(snapshot, deadline);
+            onComplete.accept(new AIMove(game, moveCount, move));
+        });
+        return true;
+    }
+
+    /**
+     * Checks whether a move of the given game is pending, i.e. scheduled but not yet finished.
+     *
+     * @param game The game to check.
+     * @return True if a move of the game is pending, otherwise false.
+     */
+    public boolean isPending(HexGame game) {
+        return pendingMoves.containsKey(game);
+    }
+
+    /**
+     * Marks the pending move of the given game as finished, so that the game may be changed and evicted again.
+     *
+     * @param game The game whose move has been applied or discarded.
+     */
+    public void finish(HexGame game) {
+        if (pendingMoves.remove(game) != null) {
+            registry.release(game);
+        }
+    }
+
+    /**
+     * Cancels all pending computations and stops the background threads.
+     */
+    public void shutdown() {
+        pendingMoves.values().forEach(Deadline::cancel);
+        executor.shutdownNow();
+    }
+}
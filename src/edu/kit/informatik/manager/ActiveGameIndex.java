@@ -0,0 +1,255 @@
+package edu.kit.informatik.manager;
+
+
+import edu.kit.informatik.manager.session.GameListener;
+import edu.kit.informatik.manager.session.HexGame;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Keeps the names and move counts of the games of a {@link GameRegistry} in the order in which they have been
+ * created, together with whether they are still active, so that the active games can be listed without visiting
+ * every game.
+ *
+ * <p>The index is the listener of every game in the registry and is updated as games are created, moves are made
+ * and games are won. It passes these changes on to the listener of the registry. The games have a slot each, in
+ * the order of their creation, and a Fenwick tree counts the active games among the slots, so that a page of the
+ * active games is found in time logarithmic in the number of games however many of them have been won.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+final class ActiveGameIndex implements GameListener {
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * The number of games copied at once before they are handed to the caller outside of the lock.
+     */
+    private static final int CHUNK_SIZE = 256;
+
+    private final Lock lock = new ReentrantLock();
+    /**
+     * The slots of the games by their names.
+     */
+    private final Map<String, Integer> slots = new HashMap<>();
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int[] moveCounts = new int[INITIAL_CAPACITY];
+    private boolean[] active = new boolean[INITIAL_CAPACITY];
+    /**
+     * The Fenwick tree over the slots, 1-based, counting the active games.
+     */
+    private int[] activeTree = new int[INITIAL_CAPACITY + 1];
+    private int slotCount;
+    private volatile GameListener delegate;
+
+    /**
+     * Sets the listener that the changes of the games are passed on to.
+     *
+     * @param delegate The listener, or null to not pass the changes on.
+     */
+    void setDelegate(GameListener delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Adds a game that has been created and passes it on to the listener.
+     *
+     * @param game The new game.
+     */
+    @Override
+    public void gameCreated(HexGame game) {
+        update(game);
+        GameListener current = delegate;
+        if (current != null) {
+            current.gameCreated(game);
+        }
+    }
+
+    /**
+     * Updates the move count of the game and marks it as won if the move has won it, then passes the move on to
+     * the listener.
+     *
+     * @param game      The game.
+     * @param moveIndex The index of the move in the history of the game.
+     * @param x         The x-coordinate passed to {@link HexGame#placeToken(int, int)}.
+     * @param y         The y-coordinate passed to {@link HexGame#placeToken(int, int)}.
+     */
+    @Override
+    public void tokenPlaced(HexGame game, int moveIndex, int x, int y) {
+        lock.lock();
+        try {
+            Integer slot = slots.get(game.getName());
+            if (slot != null) {
+                moveCounts[slot] = moveIndex + 1;
+                setActive(slot, game.getWinningPlayer() == null);
+            }
+        } finally {
+            lock.unlock();
+        }
+        GameListener current = delegate;
+        if (current != null) {
+            current.tokenPlaced(game, moveIndex, x, y);
+        }
+    }
+
+    /**
+     * Passes the swap on to the listener, since it changes neither the move count nor the winner.
+     *
+     * @param game The game.
+     */
+    @Override
+    public void tokensSwapped(HexGame game) {
+        GameListener current = delegate;
+        if (current != null) {
+            current.tokensSwapped(game);
+        }
+    }
+
+    /**
+     * Adds the given game or updates its entry if a game with the same name is known, keeping its slot.
+     * Must be called while holding the lock of the game.
+     *
+     * @param game The game.
+     */
+    void update(HexGame game) {
+        lock.lock();
+        try {
+            Integer slot = slots.get(game.getName());
+            if (slot == null) {
+                slot = addSlot(game.getName());
+            }
+            moveCounts[slot] = game.getMoveHistory().size();
+            setActive(slot, game.getWinningPlayer() == null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Passes a page of the active games to the given action, in the order in which they have been created.
+     * The games are copied in chunks under the lock of the index and the action is called outside of it, so a slow
+     * action does not hold up the moves in other games. A long listing is therefore not a snapshot of one moment,
+     * but every game is listed at most once and in order.
+     *
+     * @param offset The number of active games to skip.
+     * @param limit  The maximum number of games to list.
+     * @param action The action receiving the name and the move count of each game.
+     */
+    void forEachActive(int offset, int limit, ObjIntConsumer<String> action) {
+        String[] chunkNames = new String[Math.min(CHUNK_SIZE, Math.max(limit, 0))];
+        int[] chunkMoveCounts = new int[chunkNames.length];
+        int remaining = limit;
+        int nextSlot = -1;
+        while (remaining > 0) {
+            int filled = 0;
+            lock.lock();
+            try {
+                int rank = (nextSlot < 0) ? offset : countActive(nextSlot);
+                int wanted = Math.min(chunkNames.length, remaining);
+                for (int slot = findActive(rank); filled < wanted && slot < slotCount; slot = findActive(++rank)) {
+                    chunkNames[filled] = names[slot];
+                    chunkMoveCounts[filled++] = moveCounts[slot];
+                    nextSlot = slot + 1;
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (int i = 0; i < filled; i++) {
+                action.accept(chunkNames[i], chunkMoveCounts[i]);
+            }
+            if (filled < Math.min(chunkNames.length, remaining)) {
+                return;
+            }
+            remaining -= filled;
+        }
+    }
+
+    /**
+     * Adds a slot for a game at the end of the index. Must be called while holding the lock.
+     *
+     * @param name The name of the game.
+     * @return The slot.
+     */
+    private int addSlot(String name) {
+        if (slotCount == names.length) {
+            int capacity = 2 * names.length;
+            names = Arrays.copyOf(names, capacity);
+            moveCounts = Arrays.copyOf(moveCounts, capacity);
+            active = Arrays.copyOf(active, capacity);
+            rebuildTree();
+        }
+        names[slotCount] = name;
+        slots.put(name, slotCount);
+        return slotCount++;
+    }
+
+    /**
+     * Marks a slot as active or not, updating the tree if it changes. Must be called while holding the lock.
+     *
+     * @param slot     The slot.
+     * @param isActive True if the game of the slot is active.
+     */
+    private void setActive(int slot, boolean isActive) {
+        if (active[slot] == isActive) {
+            return;
+        }
+        active[slot] = isActive;
+        int delta = isActive ? 1 : -1;
+        for (int i = slot + 1; i < activeTree.length; i += i & -i) {
+            activeTree[i] += delta;
+        }
+    }
+
+    /**
+     * Rebuilds the tree for the current capacity of the slots in linear time. Must be called while holding the
+     * lock.
+     */
+    private void rebuildTree() {
+        activeTree = new int[active.length + 1];
+        for (int i = 1; i < activeTree.length; i++) {
+            activeTree[i] += active[i - 1] ? 1 : 0;
+            int parent = i + (i & -i);
+            if (parent < activeTree.length) {
+                activeTree[parent] += activeTree[i];
+            }
+        }
+    }
+
+    /**
+     * Counts the active games in the slots before the given one. Must be called while holding the lock.
+     *
+     * @param slot The slot.
+     * @return The number of active games in the slots {@code 0} to {@code slot - 1}.
+     */
+    private int countActive(int slot) {
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            count += activeTree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Finds the slot of an active game by its rank among the active games. Must be called while holding the lock.
+     *
+     * @param rank The number of active games before the one to find.
+     * @return The slot of the game, or the number of slots if there are not that many active games.
+     */
+    private int findActive(int rank) {
+        int position = 0;
+        int rest = rank;
+        for (int step = Integer.highestOneBit(activeTree.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < activeTree.length && activeTree[next] <= rest) {
+                position = next;
+                rest -= activeTree[next];
+            }
+        }
+        // The slots before the position hold exactly rank active games, so the slot at the position is active
+        return Math.min(position, slotCount);
+    }
+}
@@ -2,37 +2,50 @@ package edu.kit.informatik.manager;
 
 
 import edu.kit.informatik.entity.Player;
-import edu.kit.informatik.entity.ai.BogoAI;
-import edu.kit.informatik.entity.ai.HeroAI;
+import edu.kit.informatik.entity.ai.AIPlayer;
 import edu.kit.informatik.manager.exceptions.GameAlreadyExistsException;
 import edu.kit.informatik.manager.exceptions.GameNotFoundException;
-import edu.kit.informatik.manager.session.Entry;
+import edu.kit.informatik.manager.exceptions.NotEmptyException;
+import edu.kit.informatik.manager.exceptions.OutOfBoundsException;
+import edu.kit.informatik.manager.record.GameRecord;
 import edu.kit.informatik.manager.session.HexGame;
-import edu.kit.informatik.manager.session.Moves;
+import edu.kit.informatik.manager.session.PlaceResult;
 import edu.kit.informatik.util.vector.Vector2D;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 /**
- * Manages the games of Hex being played. Responsible for creating, switching, and monitoring games.
- * This class also keeps track of the players and the current game being played.
+ * Manages the games of Hex being played by one client. Responsible for creating, switching, and monitoring games.
+ * The games themselves are kept in a {@link GameRegistry}, which may be shared by the managers of several clients,
+ * while each manager keeps track of its own current game and writes its output to its own streams.
+ * The current game is acquired from the registry, so that it stays on the heap while the manager plays on it.
  *
  * @author utobm
  * @version 1.0
  */
 public class GameManager {
     private static final String DEFAULT_GAME_NAME = "Prime";
-    private final int size;
+    private final GameRegistry registry;
     private final boolean print;
-    private final List<Player> players = new ArrayList<>();
-    private final LinkedHashMap<String, HexGame> gameSessions = new LinkedHashMap<>();
-    private HexGame currentGame;
+    private final PrintStream output;
+    private final PrintStream errorOutput;
+    private final Charset charset;
+    /**
+     * The games in which a batch of placements has left an AI to move, pinned on the heap until the moves of the
+     * AI have been scheduled.
+     */
+    private final Set<HexGame> gamesAwaitingAI = new LinkedHashSet<>();
+    private volatile HexGame currentGame;
 
     /**
-     * Constructs a new game manager.
+     * Constructs a new game manager with a registry of its own that writes to the standard streams.
      *
      * @param size               The size of the board for the games.
      * @param nameOfFirstPlayer  The name of the first player.
@@ -41,57 +54,70 @@ public class GameManager {
      */
 
     public GameManager(int size, String nameOfFirstPlayer, String nameOfSecondPlayer, boolean print) {
-        this.size = size;
-        initializePlayers(nameOfFirstPlayer, nameOfSecondPlayer);
-        this.print = print;
-        initializeDefaultGame();
-
+        this(new GameRegistry(size, nameOfFirstPlayer, nameOfSecondPlayer), print);
     }
+
     /**
-     * Initializes players for the game based on the provided names.
-     * The first player is always initialized with the token {@code Entry.X}.
-     * For the second player:
-     * - If the name is "HeroAI", a {@code HeroAI} instance is created.
-     * - If the name is "BogoAI", a {@code BogoAI} instance is created.
-     * - Otherwise, a regular {@code Player} instance with the token {@code Entry.O} is created.
-     * Both players are then added to the player list.
-     * </p>
+     * Constructs a new game manager for the console that writes to the standard streams.
+     * The manager starts with the game named "Prime", which is resumed if the registry already holds it, for
+     * example after it has been restored from a journal.
      *
-     * @param nameOfFirstPlayer  The name of the first player.
-     * @param nameOfSecondPlayer The name of the second player, which can also be the name of a specific AI.
+     * @param registry The registry holding the games.
+     * @param print    Flag indicating whether to print the game board after each move.
      */
+    public GameManager(GameRegistry registry, boolean print) {
+        this(registry, registry.getOrCreateGame(DEFAULT_GAME_NAME), print, System.out, System.err,
+                Charset.defaultCharset());
+    }
 
-    private void initializePlayers(String nameOfFirstPlayer, String nameOfSecondPlayer) {
-        Player firstPlayer = new Player(nameOfFirstPlayer, Entry.X);
-        Player secondPlayer = switch (nameOfSecondPlayer) {
-            case "HeroAI" -> new HeroAI(this);
-            case "BogoAI" -> new BogoAI(this);
-            default -> new Player(nameOfSecondPlayer, Entry.O);
-        };
+    /**
+     * Constructs a new game manager for a client of the given registry.
+     * The manager starts with a new default game, which is named "Prime" or, if that name is taken, "Prime"
+     * followed by a number.
+     *
+     * @param registry    The registry holding the games.
+     * @param print       Flag indicating whether to print the game board after each move.
+     * @param output      The stream to which the output of the client is written.
+     * @param errorOutput The stream to which the error messages of the client are written.
+     * @param charset     The charset in which the output stream encodes text.
+     */
+    public GameManager(GameRegistry registry, boolean print, PrintStream output, PrintStream errorOutput,
+                       Charset charset) {
+        this(registry, registry.createUniqueGame(DEFAULT_GAME_NAME), print, output, errorOutput, charset);
+    }
 
-        players.add(firstPlayer);
-        players.add(secondPlayer);
+    /**
+     * Constructs a new game manager starting with the given game.
+     *
+     * @param registry    The registry holding the games.
+     * @param firstGame   The game that is current at the start.
+     * @param print       Flag indicating whether to print the game board after each move.
+     * @param output      The stream to which the output of the client is written.
+     * @param errorOutput The stream to which the error messages of the client are written.
+     * @param charset     The charset in which the output stream encodes text.
+     */
+    private GameManager(GameRegistry registry, HexGame firstGame, boolean print, PrintStream output,
+                        PrintStream errorOutput, Charset charset) {
+        this.registry = registry;
+        this.print = print;
+        this.output = output;
+        this.errorOutput = errorOutput;
+        this.charset = charset;
+        enterCreatedGame(firstGame);
+        welcomeToFirstGame();
     }
+
     /**
-     * Initializes the default game session with a fresh board and players.
-     * The method first creates a deep copy of the player list.
-     * Then, it initializes a new
-     * {@code HexGame} instance with the default game name, board size, and copied players.
-     * This game instance is added to the game sessions map.
+     * Welcomes the client to its first game.
      * If print mode is enabled, the
-     * initial game state and the name of the player who has the first move are printed.
+     * game state and the name of the player who has the next move are printed.
      */
-
-
-    private void initializeDefaultGame() {
-        List<Player> copiedPlayers = players.stream().map(Player::copy).collect(Collectors.toList());
-        currentGame = new HexGame(DEFAULT_GAME_NAME, size, copiedPlayers);
-        gameSessions.put(DEFAULT_GAME_NAME, currentGame);
-        System.out.println("Welcome to " + DEFAULT_GAME_NAME);
+    private void welcomeToFirstGame() {
+        output.println("Welcome to " + currentGame.getName());
         if (print) {
-            System.out.print(currentGame.getBoard());
+            output.print(currentGame.getBoard());
         }
-        System.out.println(getCurrentPlayer().getName() + "'s turn");
+        output.println(getCurrentPlayer().getName() + "'s turn");
     }
 
     /**
@@ -114,19 +140,44 @@ public class GameManager {
     }
 
     /**
-     * Creates a new game with the given name.
+     * Creates a new game with the given name and makes it the current game.
      *
      * @param name The name of the new game.
      * @throws GameAlreadyExistsException If a game with the given name already exists.
      */
 
     public void addNewGame(String name) throws GameAlreadyExistsException {
-        if (gameSessions.containsKey(name)) {
-            throw new GameAlreadyExistsException(name);
-        }
-        List<Player> copiedPlayers = players.stream().map(Player::copy).collect(Collectors.toList());
-        currentGame = new HexGame(name, size, copiedPlayers);
-        gameSessions.put(name, currentGame);
+        enterCreatedGame(registry.createGame(name));
+    }
+
+    /**
+     * Rebuilds the game of the given record with copies of the players of this manager, adds it as a new game and
+     * makes it the current game.
+     *
+     * @param record The record of the game, whose board must have the size of the games of this manager.
+     * @throws GameAlreadyExistsException If a game with the name of the record already exists.
+     * @throws NotEmptyException          If the record places two tokens on the same cell.
+     * @throws OutOfBoundsException       If the record places a token outside of the board.
+     */
+    public void addRecordedGame(GameRecord record)
+            throws GameAlreadyExistsException, NotEmptyException, OutOfBoundsException {
+        HexGame game = record.toGame(registry.createPlayers());
+        registry.addGame(game);
+        enterCreatedGame(game);
+    }
+
+    /**
+     * Forks the current game into a new game with the given name and makes it the current game.
+     * The new game starts from the current position and shares the board with the current game until either of
+     * them places a token. Must be called while holding the lock of the current game.
+     *
+     * @param name The name of the new game.
+     * @throws GameAlreadyExistsException If a game with the given name already exists.
+     */
+    public void forkGame(String name) throws GameAlreadyExistsException {
+        HexGame fork = currentGame.fork(name, registry.createPlayers());
+        registry.addGame(fork);
+        enterCreatedGame(fork);
     }
 
     /**
@@ -138,19 +189,7 @@ public class GameManager {
      */
 
     public Vector2D getLastMoveForPlayer(Player player, int pastMoves) {
-        int counter = 0;
-        List<Moves> moveHistory = getCurrentGame().getMoveHistory();
-        for (int i = moveHistory.size() - 1; i >= 0; i--) {
-            Moves move = moveHistory.get(i);
-            if (move.player().equals(player)) {
-                if (pastMoves == counter) {
-                    return (move.vector());
-
-                }
-                counter++;
-            }
-        }
-        return null;  // This player hasn't made a move yet.
+        return getCurrentGame().getLastMoveForPlayer(player, pastMoves);
     }
 
     /**
@@ -163,34 +202,184 @@ public class GameManager {
      * @throws GameNotFoundException If there is no game session with the specified name in the managed sessions.
      */
     public boolean switchGame(String name) throws GameNotFoundException {
-        if (!gameSessions.containsKey(name)) {
+        if (!registry.containsGame(name)) {
             throw new GameNotFoundException(name);
         }
         if (currentGame.getName().equals(name)) {
             return false;
         }
-        currentGame = gameSessions.get(name);
+        enter(name);
         return true;
     }
 
-    private List<HexGame> getActiveGames() {
-        return gameSessions.values().stream()
-                .filter(game -> game.getWinningPlayer() == null)
-                .collect(Collectors.toList());
+    /**
+     * Makes the game with the given name the current game: acquires it from the registry, which loads it again if
+     * it has been evicted, releases the previous current game and lets the registry evict idle games.
+     *
+     * @param name The name of the game.
+     * @throws GameNotFoundException If there is no game with the given name or it cannot be loaded again.
+     */
+    private void enter(String name) throws GameNotFoundException {
+        HexGame previousGame = currentGame;
+        currentGame = registry.acquire(name, errorOutput);
+        if (previousGame != null) {
+            registry.release(previousGame);
+        }
+        registry.evictIdleGames(errorOutput);
     }
 
     /**
-     * Returns a list of active games being managed.
+     * Makes a game that has just been created the current game.
      *
-     * @return A formatted string containing the list of active games.
+     * @param game The created game.
      */
-    public String getGameList() {
-        List<HexGame> games = getActiveGames();
+    private void enterCreatedGame(HexGame game) {
+        try {
+            enter(game.getName());
+        } catch (GameNotFoundException e) {
+            // Only happens if the game has been evicted right away and cannot be loaded again, so the manager
+            // keeps playing on the instance it has
+            if (currentGame != null) {
+                registry.release(currentGame);
+            }
+            currentGame = game;
+        }
+    }
 
+    /**
+     * Releases the current game, so that the registry may evict it once this manager is no longer used.
+     */
+    public void close() {
+        registry.release(currentGame);
+        registry.evictIdleGames(errorOutput);
+    }
 
-        return games.stream()
-                .map(game -> game.getName() + ": " + (game.getMoveHistory().size()))
-                .collect(Collectors.joining("\n"));
+    /**
+     * Passes a page of the active games being managed to the given action, in the order in which they have been
+     * created.
+     *
+     * @param offset The number of active games to skip.
+     * @param limit  The maximum number of games to list.
+     * @param action The action receiving the name and the move count of each game.
+     */
+    public void forEachActiveGame(int offset, int limit, ObjIntConsumer<String> action) {
+        registry.forEachActiveGame(offset, limit, action);
+    }
+
+    /**
+     * Places a token in each of the given games, in the given order, without printing anything.
+     * The tokens are placed for the player whose turn it is in the game, but not for an AI player, whose move is
+     * left to the AI. A failed placement does not stop the batch. The games are acquired from the registry while
+     * tokens are placed in them, and consecutive placements in the same game acquire it only once. The games in
+     * which an AI is to move afterwards are kept for {@link #drainGamesAwaitingAI(Consumer)}.
+     *
+     * @param placements The placements.
+     * @return The codes defined by {@link PlaceResult} reporting the outcome of each placement, in the same order.
+     */
+    public int[] placeBatch(List<Placement> placements) {
+        int[] results = new int[placements.size()];
+        HexGame game = null;
+        try {
+            for (int i = 0; i < results.length; i++) {
+                Placement placement = placements.get(i);
+                if (game != null && !game.getName().equals(placement.gameName())) {
+                    registry.release(game);
+                    game = null;
+                }
+                if (game == null) {
+                    try {
+                        game = registry.acquire(placement.gameName(), errorOutput);
+                    } catch (GameNotFoundException e) {
+                        results[i] = PlaceResult.GAME_NOT_FOUND;
+                        continue;
+                    }
+                }
+                results[i] = place(game, placement.x(), placement.y());
+                if (results[i] == PlaceResult.PLACED && game.getCurrentPlayer() instanceof AIPlayer
+                        && !gamesAwaitingAI.contains(game) && registry.pin(game)) {
+                    gamesAwaitingAI.add(game);
+                }
+            }
+        } finally {
+            if (game != null) {
+                registry.release(game);
+            }
+        }
+        registry.evictIdleGames(errorOutput);
+        return results;
+    }
+
+    /**
+     * Passes each game in which a batch of placements has left an AI to move to the given action, so that the
+     * moves of the AI can be scheduled, and forgets the games. They stay on the heap until they are passed on.
+     *
+     * @param action The action receiving the games.
+     */
+    public void drainGamesAwaitingAI(Consumer<HexGame> action) {
+        for (HexGame game : gamesAwaitingAI) {
+            action.accept(game);
+            registry.release(game);
+        }
+        gamesAwaitingAI.clear();
+    }
+
+    /**
+     * Places a token for the current player of the given game, unless an AI is to move there.
+     *
+     * @param game The game.
+     * @param x    The x-coordinate of the position.
+     * @param y    The y-coordinate of the position.
+     * @return The code defined by {@link PlaceResult} reporting the outcome.
+     */
+    private static int place(HexGame game, int x, int y) {
+        Lock lock = game.getLock();
+        lock.lock();
+        try {
+            if (game.getWinningPlayer() == null && game.getCurrentPlayer() instanceof AIPlayer) {
+                // The AI may be computing its move on the game right now
+                return PlaceResult.AI_TO_MOVE;
+            }
+            return game.tryPlace(x, y);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the registry holding the games of this manager.
+     *
+     * @return The game registry.
+     */
+    public GameRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Returns the stream to which the output for the client of this manager is written.
+     *
+     * @return The output stream.
+     */
+    public PrintStream getOutput() {
+        return output;
+    }
+
+    /**
+     * Returns the charset in which the output stream encodes text, so that text can be encoded in advance and
+     * written to the stream as bytes.
+     *
+     * @return The charset of the output stream.
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Returns the stream to which the error messages for the client of this manager are written.
+     *
+     * @return The error stream.
+     */
+    public PrintStream getErrorOutput() {
+        return errorOutput;
     }
 
     /**
@@ -201,4 +390,16 @@ public class GameManager {
     public boolean isPrint() {
         return print;
     }
+
+    /**
+     * Represents a token to place in a game by {@link #placeBatch(List)}.
+     *
+     * @param gameName The name of the game.
+     * @param x        The x-coordinate of the position, as given to the place command.
+     * @param y        The y-coordinate of the position, as given to the place command.
+     * @author utobm
+     * @version 1.0
+     */
+    public record Placement(String gameName, int x, int y) {
+    }
 }
@@ -0,0 +1,594 @@
+package edu.kit.informatik.manager;
+
+
+import edu.kit.informatik.entity.Player;
+import edu.kit.informatik.entity.ai.AIType;
+import edu.kit.informatik.manager.exceptions.GameAlreadyExistsException;
+import edu.kit.informatik.manager.exceptions.GameNotFoundException;
+import edu.kit.informatik.manager.exceptions.NotEmptyException;
+import edu.kit.informatik.manager.exceptions.OutOfBoundsException;
+import edu.kit.informatik.manager.record.GameRecord;
+import edu.kit.informatik.manager.session.Entry;
+import edu.kit.informatik.manager.session.GameListener;
+import edu.kit.informatik.manager.session.Board;
+import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.MoveHistory;
+import edu.kit.informatik.util.concurrent.ReplacementPolicy;
+import edu.kit.informatik.util.concurrent.TranspositionTable;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Holds all games of Hex hosted by one process, keyed by their names.
+ * Every game is played on a board of the same size by copies of the same two players.
+ * All games share one transposition table, in which the AI players cache their search results.
+ *
+ * <p>The registry is concurrent, so that games can be created and looked up from several threads, for example by
+ * the {@link GameManager}s of several clients. Moves in different games may run in parallel, since each game orders
+ * its own moves with its lock (see {@link HexGame#getLock()}). The games are listed in the order in which they have
+ * been created.</p>
+ *
+ * <p>A {@link GameListener}, such as a journal, can be informed about the creation of games and the moves in all of
+ * them.</p>
+ *
+ * <p>With spilling enabled, the registry keeps only as many games on the heap as fit into a memory budget. When
+ * there are more, the least recently used games are written to a spill directory and evicted, and they are loaded
+ * again transparently when they are looked up. The current game of a {@link GameManager} is pinned with
+ * {@link #acquire(String, PrintStream)} and never evicted, since the manager keeps playing on its instance.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class GameRegistry {
+    private static final int TRANSPOSITION_TABLE_BUCKETS = 1 << 15;
+    private static final String NAME_SUFFIX_SEPARATOR = "-";
+    /**
+     * The bytes a game takes besides its board and its move history, for the game and its players themselves.
+     */
+    private static final long ESTIMATED_BYTES_PER_GAME = 1 << 10;
+    private static final int LRU_INITIAL_CAPACITY = 16;
+    private static final float LRU_LOAD_FACTOR = 0.75f;
+    private static final String SPILL_FAILED_ERROR = "Error: The game %s could not be spilled: %s%n";
+    private static final String RELOAD_FAILED_ERROR = "Error: The game %s could not be loaded again: %s%n";
+    private final int size;
+    private final List<Player> players = new ArrayList<>();
+    private final Map<String, HexGame> gameSessions = new ConcurrentHashMap<>();
+    /**
+     * The names of the games in the order in which they have been created.
+     */
+    private final Queue<String> namesInOrder = new ConcurrentLinkedQueue<>();
+    private final TranspositionTable transpositionTable
+            = new TranspositionTable(TRANSPOSITION_TABLE_BUCKETS, ReplacementPolicy.TWO_TIER);
+    /**
+     * The next suffix tried by {@link #createUniqueGame(String)}.
+     */
+    private final AtomicInteger nextNameSuffix = new AtomicInteger(1);
+    /**
+     * The listener of every game, which passes the changes on to the listener of the registry.
+     */
+    private final ActiveGameIndex activeGames = new ActiveGameIndex();
+    /**
+     * Orders the changes of the residency of games: adding, evicting and loading them again.
+     */
+    private final Lock residencyLock = new ReentrantLock();
+    /**
+     * The games on the heap, the least recently used first, only kept while spilling is enabled and guarded by the
+     * residency lock.
+     */
+    private final Map<String, HexGame> leastRecentlyUsed
+            = new LinkedHashMap<>(LRU_INITIAL_CAPACITY, LRU_LOAD_FACTOR, true);
+    /**
+     * The number of times each game has been acquired and not yet released, guarded by the residency lock.
+     */
+    private final Map<HexGame, Integer> pins = new IdentityHashMap<>();
+    /**
+     * The games that have been evicted from the heap.
+     */
+    private final Map<String, SpilledGame> spilledGames = new ConcurrentHashMap<>();
+    private volatile SpillDirectory spillDirectory;
+    private volatile int maxResidentGames = Integer.MAX_VALUE;
+
+    /**
+     * Constructs a new empty registry.
+     *
+     * @param size               The size of the board for the games.
+     * @param nameOfFirstPlayer  The name of the first player.
+     * @param nameOfSecondPlayer The name of the second player (could be an AI).
+     */
+    public GameRegistry(int size, String nameOfFirstPlayer, String nameOfSecondPlayer) {
+        this.size = size;
+        initializePlayers(nameOfFirstPlayer, nameOfSecondPlayer);
+    }
+
+    /**
+     * Initializes players for the game based on the provided names.
+     * The first player is always initialized with the token {@code Entry.X}.
+     * For the second player:
+     * - If the name is the name of an AI, e.g. "HeroAI" or "BogoAI", an instance of that AI is created.
+     * - Otherwise, a regular {@code Player} instance with the token {@code Entry.O} is created.
+     * Both players are then added to the player list.
+     *
+     * @param nameOfFirstPlayer  The name of the first player.
+     * @param nameOfSecondPlayer The name of the second player, which can also be the name of a specific AI.
+     */
+    private void initializePlayers(String nameOfFirstPlayer, String nameOfSecondPlayer) {
+        Player firstPlayer = new Player(nameOfFirstPlayer, Entry.X);
+        AIType aiType = AIType.fromName(nameOfSecondPlayer);
+        Player secondPlayer = (aiType != null) ? aiType.create() : new Player(nameOfSecondPlayer, Entry.O);
+
+        players.add(firstPlayer);
+        players.add(secondPlayer);
+    }
+
+    /**
+     * Creates a new game with the given name.
+     * If several threads create a game with the same name at the same time, exactly one of them succeeds.
+     *
+     * @param name The name of the new game.
+     * @return The new game.
+     * @throws GameAlreadyExistsException If a game with the given name already exists.
+     */
+    public HexGame createGame(String name) throws GameAlreadyExistsException {
+        HexGame game = registerGame(name);
+        if (game == null) {
+            throw new GameAlreadyExistsException(name);
+        }
+        return game;
+    }
+
+    /**
+     * Creates a new game with the given name, or with the name followed by a dash and a number if the name is
+     * already taken.
+     *
+     * @param name The preferred name of the new game.
+     * @return The new game.
+     */
+    public HexGame createUniqueGame(String name) {
+        HexGame game = registerGame(name);
+        while (game == null) {
+            game = registerGame(name + NAME_SUFFIX_SEPARATOR + nextNameSuffix.getAndIncrement());
+        }
+        return game;
+    }
+
+    /**
+     * Creates a game with a fresh board and copies of the players and adds it to the registry.
+     *
+     * @param name The name of the new game.
+     * @return The new game, or null if a game with the given name already exists.
+     */
+    private HexGame registerGame(String name) {
+        HexGame game = new HexGame(name, size, createPlayers());
+        return register(game) ? game : null;
+    }
+
+    /**
+     * Adds a game that has been created outside of the registry, for example by loading it from a game record.
+     * The listener is informed about the game including the moves it already contains.
+     *
+     * @param game The game, played by copies of the players of this registry on a board of the same size.
+     * @throws GameAlreadyExistsException If a game with the same name already exists.
+     */
+    public void addGame(HexGame game) throws GameAlreadyExistsException {
+        if (!register(game)) {
+            throw new GameAlreadyExistsException(game.getName());
+        }
+    }
+
+    /**
+     * Adds the given game to the registry unless its name is already taken.
+     *
+     * @param game The game.
+     * @return True if the game has been added, false if a game with the same name already exists.
+     */
+    private boolean register(HexGame game) {
+        game.setTranspositionTable(transpositionTable);
+        // The listener learns about the game before anyone else can move in it
+        Lock lock = game.getLock();
+        lock.lock();
+        try {
+            residencyLock.lock();
+            try {
+                if (spilledGames.containsKey(game.getName())
+                        || gameSessions.putIfAbsent(game.getName(), game) != null) {
+                    return false;
+                }
+                namesInOrder.add(game.getName());
+                if (spillDirectory != null) {
+                    leastRecentlyUsed.put(game.getName(), game);
+                }
+            } finally {
+                residencyLock.unlock();
+            }
+            game.setListener(activeGames);
+            activeGames.gameCreated(game);
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the game with the given name, creating it if it does not exist yet.
+     *
+     * @param name The name of the game.
+     * @return The existing or the new game.
+     */
+    public HexGame getOrCreateGame(String name) {
+        while (true) {
+            HexGame game = registerGame(name);
+            if (game != null) {
+                return game;
+            }
+            try {
+                return getGame(name);
+            } catch (GameNotFoundException e) {
+                // The game has been lost while being loaded again, so it is created anew
+            }
+        }
+    }
+
+    /**
+     * Adds a restored game to the registry, replacing a game with the same name but keeping its position in the
+     * list of games. The listener is not informed about the restored game itself, only about its further moves.
+     *
+     * @param game The restored game.
+     */
+    public void restoreGame(HexGame game) {
+        game.setTranspositionTable(transpositionTable);
+        game.setListener(activeGames);
+        activeGames.update(game);
+        residencyLock.lock();
+        try {
+            SpilledGame spilled = spilledGames.remove(game.getName());
+            if (spilled != null) {
+                spillDirectory.delete(spilled.file());
+            }
+            if (gameSessions.put(game.getName(), game) == null && spilled == null) {
+                namesInOrder.add(game.getName());
+            }
+            if (spillDirectory != null) {
+                leastRecentlyUsed.put(game.getName(), game);
+            }
+        } finally {
+            residencyLock.unlock();
+        }
+    }
+
+    /**
+     * Creates copies of the two players for a new game.
+     *
+     * @return The players, with the first player holding the token {@code X}.
+     */
+    public List<Player> createPlayers() {
+        return players.stream().map(Player::copy).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns all games on the heap in the order in which they have been created. Evicted games are left out.
+     *
+     * @return A list of the games at the time of the call.
+     */
+    public List<HexGame> getGames() {
+        List<HexGame> games = new ArrayList<>();
+        for (String name : namesInOrder) {
+            HexGame game = gameSessions.get(name);
+            if (game != null) {
+                games.add(game);
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Passes the records of all games, including the evicted ones, to the given action in the order in which the
+     * games have been created. The action is called while the game cannot change: a game on the heap is recorded
+     * under its lock, and an evicted game while it cannot be loaded again.
+     *
+     * @param action The action receiving the records.
+     * @throws IOException If the record of an evicted game cannot be read.
+     */
+    public void forEachRecord(Consumer<GameRecord> action) throws IOException {
+        for (String name : namesInOrder) {
+            HexGame game;
+            do {
+                residencyLock.lock();
+                try {
+                    game = gameSessions.get(name);
+                    SpilledGame spilled = spilledGames.get(name);
+                    if (game == null && spilled != null) {
+                        action.accept(spillDirectory.read(spilled.file()));
+                    }
+                } finally {
+                    residencyLock.unlock();
+                }
+            } while (game != null && !recordResident(game, action));
+        }
+    }
+
+    /**
+     * Passes the record of a game on the heap to the given action unless the game has been evicted.
+     *
+     * @param game   The game.
+     * @param action The action receiving the record.
+     * @return True if the game has been recorded, false if it has been evicted in the meantime.
+     */
+    private boolean recordResident(HexGame game, Consumer<GameRecord> action) {
+        Lock lock = game.getLock();
+        lock.lock();
+        try {
+            // Evicting a game takes its lock, so a game that is still registered stays on the heap meanwhile
+            if (gameSessions.get(game.getName()) != game) {
+                return false;
+            }
+            action.accept(GameRecord.of(game));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Enables spilling: from now on, the least recently used games that are not acquired are evicted to the given
+     * directory whenever more games are on the heap than fit into the given memory budget. Must be called before
+     * any game is acquired.
+     *
+     * @param directory    The directory for the evicted games, which is created if it does not exist.
+     * @param memoryBudget The number of bytes the games on the heap may take, as estimated from the bytes of a
+     *                     full board and move history of the size of the games.
+     * @throws IOException If the directory cannot be created.
+     */
+    public void enableSpilling(Path directory, long memoryBudget) throws IOException {
+        SpillDirectory opened = new SpillDirectory(directory);
+        long bytesPerGame = Board.estimateBytes(size) + MoveHistory.estimateBytes(size) + ESTIMATED_BYTES_PER_GAME;
+        residencyLock.lock();
+        try {
+            maxResidentGames = (int) Math.max(1, Math.min(Integer.MAX_VALUE, memoryBudget / bytesPerGame));
+            for (HexGame game : getGames()) {
+                leastRecentlyUsed.put(game.getName(), game);
+            }
+            spillDirectory = opened;
+        } finally {
+            residencyLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the game with the given name, loading it again if it has been evicted, and pins it on the heap until
+     * it is released. A game manager acquires the game it is playing.
+     *
+     * @param name        The name of the game.
+     * @param errorOutput The stream to which an error in loading the game again is written.
+     * @return The game.
+     * @throws GameNotFoundException If there is no game with the given name.
+     */
+    public HexGame acquire(String name, PrintStream errorOutput) throws GameNotFoundException {
+        if (spillDirectory == null) {
+            return getGame(name);
+        }
+        residencyLock.lock();
+        try {
+            HexGame game = loadResident(name, errorOutput);
+            pins.merge(game, 1, Integer::sum);
+            return game;
+        } finally {
+            residencyLock.unlock();
+        }
+    }
+
+    /**
+     * Pins the given game on the heap until it is released, like {@link #acquire(String, PrintStream)}, unless it
+     * has already been evicted. The scheduler of the AI moves pins a game while its move is pending, so that the
+     * move is not applied to an evicted instance.
+     *
+     * @param game The game.
+     * @return True if the game is on the heap and has been pinned, false if it has been evicted.
+     */
+    public boolean pin(HexGame game) {
+        if (spillDirectory == null) {
+            return true;
+        }
+        residencyLock.lock();
+        try {
+            if (!isResident(game)) {
+                return false;
+            }
+            pins.merge(game, 1, Integer::sum);
+            return true;
+        } finally {
+            residencyLock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether the given instance is the game on the heap under its name. An evicted game that has been
+     * loaded again is a different instance, so changes to the evicted one would be lost.
+     *
+     * @param game The game.
+     * @return True if the game is on the heap, otherwise false.
+     */
+    public boolean isResident(HexGame game) {
+        return gameSessions.get(game.getName()) == game;
+    }
+
+    /**
+     * Releases a game acquired with {@link #acquire(String, PrintStream)} or pinned with {@link #pin(HexGame)}, so
+     * that it may be evicted again.
+     *
+     * @param game The game.
+     */
+    public void release(HexGame game) {
+        if (spillDirectory == null) {
+            return;
+        }
+        residencyLock.lock();
+        try {
+            pins.computeIfPresent(game, (pinned, count) -> (count == 1) ? null : count - 1);
+        } finally {
+            residencyLock.unlock();
+        }
+    }
+
+    /**
+     * Evicts the least recently used games that are neither acquired nor busy until the games on the heap fit into
+     * the memory budget. Does nothing unless spilling is enabled.
+     *
+     * @param errorOutput The stream to which an error in spilling a game is written.
+     */
+    public void evictIdleGames(PrintStream errorOutput) {
+        SpillDirectory directory = spillDirectory;
+        if (directory == null) {
+            return;
+        }
+        residencyLock.lock();
+        try {
+            Iterator<HexGame> iterator = leastRecentlyUsed.values().iterator();
+            while (leastRecentlyUsed.size() > maxResidentGames && iterator.hasNext()) {
+                HexGame game = iterator.next();
+                if (pins.containsKey(game) || !game.getLock().tryLock()) {
+                    continue;
+                }
+                try {
+                    Path file = directory.write(GameRecord.of(game));
+                    spilledGames.put(game.getName(), new SpilledGame(file, game.getMoveBudget()));
+                    gameSessions.remove(game.getName());
+                    iterator.remove();
+                } catch (IOException e) {
+                    errorOutput.printf(SPILL_FAILED_ERROR, game.getName(), e.getMessage());
+                    return;
+                } finally {
+                    game.getLock().unlock();
+                }
+            }
+        } finally {
+            residencyLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the game with the given name from the heap, loading it again if it has been evicted, and marks it as
+     * the most recently used game. Must be called while holding the residency lock.
+     *
+     * @param name        The name of the game.
+     * @param errorOutput The stream to which an error in loading the game again is written.
+     * @return The game.
+     * @throws GameNotFoundException If there is no game with the given name or it cannot be loaded again.
+     */
+    private HexGame loadResident(String name, PrintStream errorOutput) throws GameNotFoundException {
+        HexGame game = gameSessions.get(name);
+        if (game != null) {
+            leastRecentlyUsed.get(name);
+            return game;
+        }
+        SpilledGame spilled = spilledGames.get(name);
+        if (spilled == null) {
+            throw new GameNotFoundException(name);
+        }
+        try {
+            game = spillDirectory.read(spilled.file()).toGame(createPlayers());
+        } catch (IOException | NotEmptyException | OutOfBoundsException e) {
+            errorOutput.printf(RELOAD_FAILED_ERROR, name, e.getMessage());
+            throw new GameNotFoundException(name);
+        }
+        game.setMoveBudget(spilled.moveBudget());
+        game.setTranspositionTable(transpositionTable);
+        game.setListener(activeGames);
+        gameSessions.put(name, game);
+        leastRecentlyUsed.put(name, game);
+        spilledGames.remove(name);
+        spillDirectory.delete(spilled.file());
+        return game;
+    }
+
+    /**
+     * Checks whether a game with the given name exists.
+     *
+     * @param name The name of the game.
+     * @return True if the game exists, otherwise false.
+     */
+    public boolean containsGame(String name) {
+        return gameSessions.containsKey(name) || spilledGames.containsKey(name);
+    }
+
+    /**
+     * Sets the listener that is informed about the creation of games and the moves in all games, including the
+     * games that already exist.
+     *
+     * @param listener The listener, or null to not inform anyone.
+     */
+    public void setListener(GameListener listener) {
+        activeGames.setDelegate(listener);
+    }
+
+    /**
+     * Returns the size of the boards of the games.
+     *
+     * @return The board size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Looks up the game with the given name, loading it again if it has been evicted. An error in loading the game
+     * again is written to the error stream of the process.
+     *
+     * @param name The name of the game.
+     * @return The game.
+     * @throws GameNotFoundException If there is no game with the given name.
+     */
+    public HexGame getGame(String name) throws GameNotFoundException {
+        if (spillDirectory == null) {
+            HexGame game = gameSessions.get(name);
+            if (game == null) {
+                throw new GameNotFoundException(name);
+            }
+            return game;
+        }
+        residencyLock.lock();
+        try {
+            return loadResident(name, System.err);
+        } finally {
+            residencyLock.unlock();
+        }
+    }
+
+    /**
+     * Passes a page of the active games to the given action, in the order in which they have been created.
+     * The games are taken from an index that is updated with every move, so neither the games on the heap nor the
+     * evicted ones are visited.
+     *
+     * @param offset The number of active games to skip.
+     * @param limit  The maximum number of games to list.
+     * @param action The action receiving the name and the move count of each game.
+     */
+    public void forEachActiveGame(int offset, int limit, ObjIntConsumer<String> action) {
+        activeGames.forEachActive(offset, limit, action);
+    }
+
+    /**
+     * Represents a game that has been evicted from the heap.
+     *
+     * @param file       The file holding the record of the game.
+     * @param moveBudget The time an AI may spend on a move in the game, which is not part of the record.
+     */
+    private record SpilledGame(Path file, long moveBudget) {
+    }
+}
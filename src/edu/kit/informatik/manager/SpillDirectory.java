@@ -0,0 +1,94 @@
+package edu.kit.informatik.manager;
+
+
+import edu.kit.informatik.manager.record.GameRecord;
+import edu.kit.informatik.manager.record.GameRecordReader;
+import edu.kit.informatik.manager.record.GameRecordWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Holds the games that a {@link GameRegistry} has evicted from the heap, each as a game record in a file of its own.
+ * The files only live as long as the process: they are not a persistent copy of the games, which is the task of
+ * the journal, so files left behind by an earlier process are deleted when the directory is opened.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+final class SpillDirectory {
+    private static final String FILE_PREFIX = "spilled-";
+    private static final String FILE_SUFFIX = ".hexr";
+    private static final String FILE_FORMAT = FILE_PREFIX + "%d" + FILE_SUFFIX;
+    private static final String MISSING_RECORD_ERROR = "The spilled game %s is missing";
+
+    private final Path directory;
+    private final AtomicLong nextFile = new AtomicLong();
+
+    /**
+     * Opens the spill directory, creating it if it does not exist and deleting the files of an earlier process.
+     *
+     * @param directory The directory.
+     * @throws IOException If the directory cannot be created or cleaned up.
+     */
+    SpillDirectory(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the record of an evicted game to a new file.
+     *
+     * @param record The record of the game.
+     * @return The file holding the record.
+     * @throws IOException If the file cannot be written.
+     */
+    Path write(GameRecord record) throws IOException {
+        Path file = directory.resolve(FILE_FORMAT.formatted(nextFile.getAndIncrement()));
+        try (GameRecordWriter writer = new GameRecordWriter(Files.newOutputStream(file))) {
+            writer.write(record);
+        }
+        return file;
+    }
+
+    /**
+     * Reads the record of an evicted game.
+     *
+     * @param file The file holding the record.
+     * @return The record of the game.
+     * @throws IOException If the file cannot be read or does not hold a record.
+     */
+    GameRecord read(Path file) throws IOException {
+        try (GameRecordReader reader = new GameRecordReader(Files.newInputStream(file))) {
+            GameRecord record = reader.read();
+            if (record == null) {
+                throw new IOException(MISSING_RECORD_ERROR.formatted(file));
+            }
+            return record;
+        }
+    }
+
+    /**
+     * Deletes the file of a game that has been loaded again.
+     *
+     * @param file The file holding the record.
+     */
+    void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // The file is only left behind until the directory is opened the next time
+        }
+    }
+}
@@ -0,0 +1,627 @@
+package edu.kit.informatik.manager.journal;
+
+
+import edu.kit.informatik.manager.GameRegistry;
+import edu.kit.informatik.manager.exceptions.GameAlreadyWonException;
+import edu.kit.informatik.manager.exceptions.GameNotFoundException;
+import edu.kit.informatik.manager.exceptions.NotEmptyException;
+import edu.kit.informatik.manager.exceptions.OutOfBoundsException;
+import edu.kit.informatik.manager.record.GameRecord;
+import edu.kit.informatik.manager.record.GameRecordReader;
+import edu.kit.informatik.manager.record.GameRecordWriter;
+import edu.kit.informatik.manager.session.GameListener;
+import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.MoveHistory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Persists the games of a {@link GameRegistry} in an append-only journal, from which they are restored after the
+ * process has ended or crashed.
+ *
+ * <p>Every created game, every placed token and every swap is written as a record before the move returns, so a
+ * move that has been reported to the player is never lost. A record consists of the length of its payload, a CRC-32C
+ * checksum of the payload and the payload itself. A record that has been torn by a crash fails the check and ends
+ * the replay. The records are written by a background thread, which writes all records that have arrived in the
+ * meantime at once and forces them to the disk with a single {@code fsync}, so under load many moves share the cost
+ * of one sync (group commit).</p>
+ *
+ * <p>The journal is a directory of numbered segment files. After a given number of records, a checkpoint starts a
+ * new segment with a snapshot of every game and deletes the older segments, so the time to restore the games is
+ * bounded by the snapshot interval instead of the length of the games. Each move record carries the index of the
+ * move, which makes replaying idempotent: a move that is already contained in a snapshot is skipped.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class MoveJournal implements GameListener, Closeable {
+    /**
+     * The default number of move records after which a checkpoint is taken.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 1 << 14;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SEGMENT_FORMAT = SEGMENT_PREFIX + "%010d" + SEGMENT_SUFFIX;
+    private static final String WRITER_THREAD_NAME = "journal-writer";
+    private static final String CHECKPOINT_THREAD_NAME = "journal-checkpoint";
+    private static final String JOURNAL_FAILED_ERROR = "Error: The journal could not be written: %s%n";
+    private static final String CORRUPT_SNAPSHOT_ERROR = "The snapshot of game %s is corrupt";
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_BYTES = 1 << 30;
+    private static final byte NEW_GAME = 1;
+    private static final byte PLACE = 2;
+    private static final byte SWAP = 3;
+    private static final byte SNAPSHOT = 4;
+    /**
+     * The marker in the queue of records that tells the writer to start the next segment.
+     */
+    private static final byte[] NEXT_SEGMENT = new byte[0];
+
+    private final Path directory;
+    private final GameRegistry registry;
+    private final int snapshotInterval;
+    private final Lock lock = new ReentrantLock();
+    private final Condition recordsArrived = lock.newCondition();
+    private final Condition recordsDurable = lock.newCondition();
+    private final ExecutorService checkpointer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, CHECKPOINT_THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Thread writer = new Thread(this::writeRecords, WRITER_THREAD_NAME);
+    /**
+     * The records that have been appended but not yet been handed to the writer, guarded by the lock.
+     */
+    private List<byte[]> pendingRecords = new ArrayList<>();
+    private long appendedRecords;
+    private long durableRecords;
+    private long lastSegment;
+    private int recordsSinceCheckpoint;
+    private boolean checkpointRunning;
+    private boolean closed;
+    private IOException failure;
+    /**
+     * The segment the writer appends to, only accessed by the writer thread.
+     */
+    private FileChannel segment;
+    private long writerSegment;
+
+    /**
+     * Constructs a journal in the given directory. Use {@link #open(Path, GameRegistry, int)} to restore the games
+     * before the journal is attached.
+     *
+     * @param directory        The directory holding the segments.
+     * @param registry         The registry whose games are persisted.
+     * @param snapshotInterval The number of move records after which a checkpoint is taken.
+     */
+    private MoveJournal(Path directory, GameRegistry registry, int snapshotInterval) {
+        this.directory = directory;
+        this.registry = registry;
+        this.snapshotInterval = snapshotInterval;
+        writer.setDaemon(true);
+    }
+
+    /**
+     * Opens the journal in the given directory with the default snapshot interval.
+     *
+     * @param directory The directory holding the segments, which is created if it does not exist.
+     * @param registry  The registry whose games are restored and persisted.
+     * @return The opened journal.
+     * @throws IOException If the journal cannot be read or written.
+     */
+    public static MoveJournal open(Path directory, GameRegistry registry) throws IOException {
+        return open(directory, registry, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Opens the journal in the given directory: restores all games recorded in it into the registry, takes a
+     * checkpoint and from then on records every change of the games in the registry.
+     *
+     * @param directory        The directory holding the segments, which is created if it does not exist.
+     * @param registry         The registry whose games are restored and persisted.
+     * @param snapshotInterval The number of move records after which a checkpoint is taken.
+     * @return The opened journal.
+     * @throws IOException If the journal cannot be read or written.
+     */
+    public static MoveJournal open(Path directory, GameRegistry registry, int snapshotInterval)
+            throws IOException {
+        Files.createDirectories(directory);
+        MoveJournal journal = new MoveJournal(directory, registry, snapshotInterval);
+        for (long number : journal.listSegments()) {
+            journal.replay(journal.segmentPath(number));
+            journal.lastSegment = number;
+        }
+        journal.writerSegment = journal.lastSegment;
+        journal.writer.start();
+        registry.setListener(journal);
+        journal.checkpoint();
+        return journal;
+    }
+
+    /**
+     * Records a created game. A game that has been created with moves, for example by loading it, is recorded
+     * with a snapshot of its state.
+     *
+     * @param game The created game.
+     */
+    @Override
+    public void gameCreated(HexGame game) {
+        if (game.getMoveHistory().isEmpty()) {
+            appendMove(encode(NEW_GAME, game.getName(), null));
+        } else {
+            appendMove(encode(SNAPSHOT, game.getName(), out -> writeSnapshot(GameRecord.of(game), out)));
+        }
+    }
+
+    @Override
+    public void tokenPlaced(HexGame game, int moveIndex, int x, int y) {
+        appendMove(encode(PLACE, game.getName(), out -> {
+            out.writeInt(moveIndex);
+            out.writeInt(x);
+            out.writeInt(y);
+        }));
+    }
+
+    @Override
+    public void tokensSwapped(HexGame game) {
+        appendMove(encode(SWAP, game.getName(), null));
+    }
+
+    /**
+     * Appends a record of a move and waits until it is durable. Starts a checkpoint once enough moves have been
+     * recorded since the last one. If the journal has failed, the error is printed once and the move is not
+     * recorded.
+     *
+     * @param record The payload of the record.
+     */
+    private void appendMove(byte[] record) {
+        long sequence;
+        lock.lock();
+        try {
+            if (closed || failure != null) {
+                return;
+            }
+            sequence = append(record);
+            if (++recordsSinceCheckpoint >= snapshotInterval && !checkpointRunning) {
+                checkpointRunning = true;
+                checkpointer.execute(this::checkpointInBackground);
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            awaitDurable(sequence);
+        } catch (IOException e) {
+            System.err.printf(JOURNAL_FAILED_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a record to the queue of the writer. Must be called while holding the lock.
+     *
+     * @param record The payload of the record, or the marker of the next segment.
+     * @return The sequence number of the record.
+     */
+    private long append(byte[] record) {
+        pendingRecords.add(record);
+        recordsArrived.signal();
+        return ++appendedRecords;
+    }
+
+    /**
+     * Waits until the record with the given sequence number and all records before it are durable.
+     *
+     * @param sequence The sequence number of the record.
+     * @throws IOException If the journal has failed.
+     */
+    private void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durableRecords < sequence && failure == null) {
+                recordsDurable.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the queued records in batches, each followed by a single {@code fsync}, until the journal is closed.
+     */
+    private void writeRecords() {
+        while (true) {
+            List<byte[]> batch;
+            long batchEnd;
+            lock.lock();
+            try {
+                while (pendingRecords.isEmpty() && !closed) {
+                    recordsArrived.awaitUninterruptibly();
+                }
+                if (pendingRecords.isEmpty()) {
+                    return;
+                }
+                batch = pendingRecords;
+                pendingRecords = new ArrayList<>();
+                batchEnd = appendedRecords;
+            } finally {
+                lock.unlock();
+            }
+            IOException error = null;
+            try {
+                writeBatch(batch);
+            } catch (IOException e) {
+                error = e;
+            }
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableRecords = batchEnd;
+                }
+                recordsDurable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of records to the current segment and forces it to the disk.
+     * The marker of the next segment closes the current segment and opens the next one.
+     *
+     * @param batch The records.
+     * @throws IOException If the records cannot be written.
+     */
+    private void writeBatch(List<byte[]> batch) throws IOException {
+        List<ByteBuffer> buffers = new ArrayList<>();
+        CRC32C checksum = new CRC32C();
+        for (byte[] record : batch) {
+            if (record == NEXT_SEGMENT) {
+                writeFully(buffers);
+                buffers.clear();
+                if (segment != null) {
+                    segment.force(false);
+                    segment.close();
+                }
+                writerSegment++;
+                segment = FileChannel.open(segmentPath(writerSegment), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                continue;
+            }
+            checksum.reset();
+            checksum.update(record);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(record.length).putInt((int) checksum.getValue()).flip();
+            buffers.add(header);
+            buffers.add(ByteBuffer.wrap(record));
+        }
+        writeFully(buffers);
+        segment.force(false);
+    }
+
+    /**
+     * Writes the given buffers to the current segment with as few system calls as possible.
+     *
+     * @param buffers The buffers to write.
+     * @throws IOException If the buffers cannot be written.
+     */
+    private void writeFully(List<ByteBuffer> buffers) throws IOException {
+        ByteBuffer[] array = buffers.toArray(new ByteBuffer[0]);
+        int first = 0;
+        while (first < array.length) {
+            segment.write(array, first, array.length - first);
+            while (first < array.length && !array[first].hasRemaining()) {
+                first++;
+            }
+        }
+    }
+
+    /**
+     * Takes a checkpoint on the background thread and reports a failure.
+     */
+    private void checkpointInBackground() {
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            System.err.printf(JOURNAL_FAILED_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a new segment, writes a snapshot of every game into it and deletes the older segments once the
+     * snapshots are durable. Each snapshot is taken while its game cannot change, so it is ordered correctly with
+     * the moves of the game. Games evicted from the heap are snapshotted from their spilled records.
+     *
+     * @throws IOException If the snapshots cannot be written or the old segments cannot be deleted.
+     */
+    private void checkpoint() throws IOException {
+        long newSegment;
+        long last;
+        lock.lock();
+        try {
+            checkpointRunning = true;
+            recordsSinceCheckpoint = 0;
+            newSegment = ++lastSegment;
+            append(NEXT_SEGMENT);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            registry.forEachRecord(record -> {
+                byte[] snapshot = encode(SNAPSHOT, record.name(), out -> writeSnapshot(record, out));
+                lock.lock();
+                try {
+                    append(snapshot);
+                } finally {
+                    lock.unlock();
+                }
+            });
+            lock.lock();
+            try {
+                last = appendedRecords;
+            } finally {
+                lock.unlock();
+            }
+            awaitDurable(last);
+            for (long number : listSegments()) {
+                if (number < newSegment) {
+                    Files.deleteIfExists(segmentPath(number));
+                }
+            }
+        } finally {
+            lock.lock();
+            try {
+                checkpointRunning = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replays the records of a segment into the registry. The replay ends at the end of the segment or at the
+     * first record that is incomplete or fails its checksum.
+     *
+     * @param path The segment.
+     * @throws IOException If the segment cannot be read.
+     */
+    private void replay(Path path) throws IOException {
+        CRC32C checksum = new CRC32C();
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            while (true) {
+                byte[] record;
+                try {
+                    int length = in.readInt();
+                    int expected = in.readInt();
+                    if (length < 0 || length > MAX_RECORD_BYTES) {
+                        return;
+                    }
+                    record = in.readNBytes(length);
+                    checksum.reset();
+                    checksum.update(record);
+                    if (record.length != length || (int) checksum.getValue() != expected) {
+                        return;
+                    }
+                } catch (EOFException e) {
+                    return;
+                }
+                apply(record);
+            }
+        }
+    }
+
+    /**
+     * Applies a record to the registry. Records of unknown games and moves that do not continue their game are
+     * skipped.
+     *
+     * @param record The payload of the record.
+     * @throws IOException If the record is malformed.
+     */
+    private void apply(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        byte type = in.readByte();
+        String name = in.readUTF();
+        if (type == NEW_GAME) {
+            registry.getOrCreateGame(name);
+            return;
+        }
+        if (type == SNAPSHOT) {
+            registry.restoreGame(readSnapshot(name, in));
+            return;
+        }
+        HexGame game;
+        try {
+            game = registry.getGame(name);
+        } catch (GameNotFoundException e) {
+            return;
+        }
+        MoveHistory history = game.getMoveHistory();
+        if (type == PLACE) {
+            int moveIndex = in.readInt();
+            int x = in.readInt();
+            int y = in.readInt();
+            if (history.size() == moveIndex) {
+                try {
+                    game.placeToken(x, y);
+                } catch (NotEmptyException | GameAlreadyWonException | OutOfBoundsException e) {
+                    // A move that was rejected when it was made has not been recorded
+                }
+            }
+        } else if (type == SWAP && history.size() == 1 && !game.hasSwapped()) {
+            game.swapTokens();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the state of a game as a game record.
+     *
+     * @param record The record of the game, taken while holding the lock of the game.
+     * @param out    The stream to write to.
+     * @throws IOException If writing fails.
+     */
+    private static void writeSnapshot(GameRecord record, DataOutputStream out) throws IOException {
+        GameRecordWriter writer = new GameRecordWriter(out);
+        writer.write(record);
+        writer.flush();
+    }
+
+    /**
+     * Reads a snapshot written by {@link #writeSnapshot(GameRecord, DataOutputStream)} and rebuilds the game, with
+     * the board rebuilt from the moves without checking for a win after every move.
+     *
+     * @param name The name of the game.
+     * @param in   The stream to read from.
+     * @return The rebuilt game.
+     * @throws IOException If reading fails or the snapshot does not describe a valid game of the registry.
+     */
+    private HexGame readSnapshot(String name, DataInputStream in) throws IOException {
+        GameRecord record = new GameRecordReader(in).read();
+        if (record == null || record.size() != registry.getSize() || !record.name().equals(name)) {
+            throw new IOException(CORRUPT_SNAPSHOT_ERROR.formatted(name));
+        }
+        try {
+            return record.toGame(registry.createPlayers());
+        } catch (NotEmptyException | OutOfBoundsException e) {
+            throw new IOException(CORRUPT_SNAPSHOT_ERROR.formatted(name), e);
+        }
+    }
+
+    /**
+     * Encodes the payload of a record: its type, the name of the game and the data of the type.
+     *
+     * @param type The type of the record.
+     * @param name The name of the game the record belongs to.
+     * @param data Writes the data of the type, or null if the type has none.
+     * @return The payload.
+     */
+    private static byte[] encode(byte type, String name, RecordData data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            out.writeUTF(name);
+            if (data != null) {
+                data.write(out);
+            }
+        } catch (IOException e) {
+            // Writing to memory does not fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the numbers of the segments in the directory in ascending order.
+     *
+     * @return The segment numbers.
+     * @throws IOException If the directory cannot be listed.
+     */
+    private List<Long> listSegments() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        numbers.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                                name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // Not a segment of this journal
+                    }
+                }
+            }
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    /**
+     * Returns the path of the segment with the given number.
+     *
+     * @param number The number of the segment.
+     * @return The path of the segment.
+     */
+    private Path segmentPath(long number) {
+        return directory.resolve(SEGMENT_FORMAT.formatted(number));
+    }
+
+    /**
+     * Stops recording, waits for a running checkpoint and the queued records and closes the current segment.
+     *
+     * @throws IOException If the journal has failed.
+     */
+    @Override
+    public void close() throws IOException {
+        registry.setListener(null);
+        checkpointer.shutdown();
+        try {
+            checkpointer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            closed = true;
+            recordsArrived.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (segment != null) {
+            segment.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes the data of a record.
+     */
+    @FunctionalInterface
+    private interface RecordData {
+
+        /**
+         * Writes the data to the given stream.
+         *
+         * @param out The stream.
+         * @throws IOException If writing fails.
+         */
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,68 @@
+package edu.kit.informatik.manager.record;
+
+
+import edu.kit.informatik.entity.Player;
+import edu.kit.informatik.manager.exceptions.NotEmptyException;
+import edu.kit.informatik.manager.exceptions.OutOfBoundsException;
+import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.MoveHistory;
+
+import java.util.List;
+
+/**
+ * The complete record of a game of Hex as it is archived: the name of the game, the size of the board, the names of
+ * the players, whether they have swapped their tokens, whether the game has been won and the cells of the moves in
+ * the order in which they were made.
+ *
+ * <p>A cell is stored as its index {@code x * size + y}, where x and y are the coordinates passed to
+ * {@link HexGame#placeToken(int, int)}, as in the {@link MoveHistory} of the game. The player of a move is not
+ * stored, since the players move in turn: the first player makes the even moves and the second player the odd ones,
+ * and after a swap the first move is attributed to the second player, so the attribution of every move is shifted
+ * by one.</p>
+ *
+ * @param name             The name of the game.
+ * @param size             The size of the board.
+ * @param firstPlayerName  The name of the player who started the game.
+ * @param secondPlayerName The name of the other player.
+ * @param hasSwapped       True if the players have swapped their tokens after the first move.
+ * @param hasWinner        True if the player of the last move has won the game.
+ * @param cells            The cell indices of the moves, which must not be modified.
+ * @author utobm
+ * @version 1.0
+ */
+public record GameRecord(String name, int size, String firstPlayerName, String secondPlayerName,
+                         boolean hasSwapped, boolean hasWinner, int[] cells) {
+
+    /**
+     * Records the current state of the given game. Must be called while holding the lock of the game.
+     *
+     * @param game The game.
+     * @return The record of the game.
+     */
+    public static GameRecord of(HexGame game) {
+        List<Player> players = game.getPlayers();
+        return new GameRecord(game.getName(), game.getSize(), players.get(0).getName(), players.get(1).getName(),
+                game.hasSwapped(), game.getWinningPlayer() != null, game.getMoveHistory().toCells());
+    }
+
+    /**
+     * Returns the number of moves in the record.
+     *
+     * @return The number of moves.
+     */
+    public int getMoveCount() {
+        return cells.length;
+    }
+
+    /**
+     * Rebuilds the recorded game with the given players, who take the places of the recorded ones.
+     *
+     * @param players The players in the order in which they start, with the tokens they have at the start.
+     * @return The rebuilt game.
+     * @throws NotEmptyException    If the record places two tokens on the same cell.
+     * @throws OutOfBoundsException If the record places a token outside of the board.
+     */
+    public HexGame toGame(List<Player> players) throws NotEmptyException, OutOfBoundsException {
+        return HexGame.restore(name, size, players, cells, hasSwapped, hasWinner);
+    }
+}
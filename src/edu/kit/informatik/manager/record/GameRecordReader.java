@@ -0,0 +1,122 @@
+package edu.kit.informatik.manager.record;
+
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reads the game records written by {@link GameRecordWriter} one after another, so that archives of any number of
+ * games can be read without holding them in memory.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class GameRecordReader implements Closeable {
+    private static final String NOT_A_RECORD_ERROR = "The stream does not contain game records";
+    private static final String UNSUPPORTED_VERSION_ERROR = "The version %d of the game records is not supported";
+    private static final String CORRUPT_RECORD_ERROR = "The game record is corrupt";
+    private static final int MAX_VARINT_BYTES = 5;
+    /**
+     * The number of moves for which space is taken before they have been read. The space grows with the moves
+     * actually read, so a corrupt move count cannot make the reader take more memory than the stream holds.
+     */
+    private static final int INITIAL_MOVE_CAPACITY = 1 << 10;
+
+    private final DataInputStream in;
+
+    /**
+     * Constructs a reader and checks the start of the stream.
+     *
+     * @param stream The stream to read from, which is buffered by the reader.
+     * @throws IOException If reading fails or the stream does not start like a stream of records.
+     */
+    public GameRecordReader(InputStream stream) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(stream));
+        try {
+            if (in.readInt() != GameRecordWriter.MAGIC) {
+                throw new IOException(NOT_A_RECORD_ERROR);
+            }
+        } catch (EOFException e) {
+            throw new IOException(NOT_A_RECORD_ERROR, e);
+        }
+        int version = in.readUnsignedByte();
+        if (version != GameRecordWriter.VERSION) {
+            throw new IOException(UNSUPPORTED_VERSION_ERROR.formatted(version));
+        }
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The record, or null if the end of the stream has been reached.
+     * @throws IOException If reading fails or the record is incomplete or malformed.
+     */
+    public GameRecord read() throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        try {
+            int size = readVarint(first);
+            String name = in.readUTF();
+            String firstPlayerName = in.readUTF();
+            String secondPlayerName = in.readUTF();
+            int flags = in.readUnsignedByte();
+            int moveCount = readVarint(in.readUnsignedByte());
+            if (size <= 0 || moveCount < 0 || (long) moveCount > (long) size * size) {
+                throw new IOException(CORRUPT_RECORD_ERROR);
+            }
+            int[] cells = new int[Math.min(moveCount, INITIAL_MOVE_CAPACITY)];
+            int previous = 0;
+            for (int i = 0; i < moveCount; i++) {
+                if (i == cells.length) {
+                    cells = Arrays.copyOf(cells, (int) Math.min(moveCount, 2L * cells.length));
+                }
+                int zigzag = readVarint(in.readUnsignedByte());
+                previous += (zigzag >>> 1) ^ -(zigzag & 1);
+                cells[i] = previous;
+            }
+            return new GameRecord(name, size, firstPlayerName, secondPlayerName,
+                    (flags & GameRecordWriter.SWAPPED_FLAG) != 0, (flags & GameRecordWriter.WINNER_FLAG) != 0, cells);
+        } catch (EOFException e) {
+            throw new IOException(CORRUPT_RECORD_ERROR, e);
+        }
+    }
+
+    /**
+     * Reads a varint whose first byte has already been read.
+     *
+     * @param first The first byte.
+     * @return The value.
+     * @throws IOException If reading fails or the varint is longer than an int.
+     */
+    private int readVarint(int first) throws IOException {
+        int current = first;
+        int value = current & GameRecordWriter.VARINT_PAYLOAD_MASK;
+        int bytes = 1;
+        while ((current & GameRecordWriter.VARINT_CONTINUATION_BIT) != 0) {
+            if (bytes == MAX_VARINT_BYTES) {
+                throw new IOException(CORRUPT_RECORD_ERROR);
+            }
+            current = in.readUnsignedByte();
+            value |= (current & GameRecordWriter.VARINT_PAYLOAD_MASK) << (GameRecordWriter.VARINT_PAYLOAD_BITS * bytes);
+            bytes++;
+        }
+        return value;
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws IOException If closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
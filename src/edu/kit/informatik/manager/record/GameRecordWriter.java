@@ -0,0 +1,125 @@
+package edu.kit.informatik.manager.record;
+
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes game records to a stream in a compact binary format, which is read by {@link GameRecordReader}.
+ *
+ * <p>The stream starts with the magic bytes {@code HEXR} and a version byte, followed by any number of records.
+ * A record consists of the size of the board as a varint, the names of the game and of both players in modified
+ * UTF-8, a byte of flags, the number of moves as a varint and the moves. Each move is the difference between its
+ * cell index and the one of the previous move, zigzag-encoded so that small negative differences stay small, as a
+ * varint of seven bits per byte. Since consecutive moves tend to be close to each other, most moves take one or two
+ * bytes.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class GameRecordWriter implements Closeable, Flushable {
+    /**
+     * The magic bytes at the start of every stream of records.
+     */
+    static final int MAGIC = 0x48455852;
+    /**
+     * The version of the format.
+     */
+    static final int VERSION = 1;
+    /**
+     * The flag of a game in which the players have swapped their tokens.
+     */
+    static final int SWAPPED_FLAG = 1;
+    /**
+     * The flag of a game that has been won.
+     */
+    static final int WINNER_FLAG = 2;
+    /**
+     * The bits of a varint byte that carry the value.
+     */
+    static final int VARINT_PAYLOAD_MASK = 0x7F;
+    /**
+     * The bit of a varint byte that tells that more bytes follow.
+     */
+    static final int VARINT_CONTINUATION_BIT = 0x80;
+    /**
+     * The number of bits of the value carried by a varint byte.
+     */
+    static final int VARINT_PAYLOAD_BITS = 7;
+
+    private final DataOutputStream out;
+
+    /**
+     * Constructs a writer and writes the start of the stream.
+     *
+     * @param stream The stream to write to, which is buffered by the writer.
+     * @throws IOException If writing fails.
+     */
+    public GameRecordWriter(OutputStream stream) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    /**
+     * Writes a record to the stream.
+     *
+     * @param record The record.
+     * @throws IOException If writing fails.
+     */
+    public void write(GameRecord record) throws IOException {
+        writeVarint(record.size());
+        out.writeUTF(record.name());
+        out.writeUTF(record.firstPlayerName());
+        out.writeUTF(record.secondPlayerName());
+        out.writeByte((record.hasSwapped() ? SWAPPED_FLAG : 0) | (record.hasWinner() ? WINNER_FLAG : 0));
+        int[] cells = record.cells();
+        writeVarint(cells.length);
+        int previous = 0;
+        for (int cell : cells) {
+            int delta = cell - previous;
+            writeVarint((delta << 1) ^ (delta >> (Integer.SIZE - 1)));
+            previous = cell;
+        }
+    }
+
+    /**
+     * Writes a non-negative value, or any value taken as unsigned, as a varint: seven bits per byte, the lowest
+     * first, with the highest bit of a byte set if another byte follows.
+     *
+     * @param value The value.
+     * @throws IOException If writing fails.
+     */
+    private void writeVarint(int value) throws IOException {
+        int rest = value;
+        while ((rest & ~VARINT_PAYLOAD_MASK) != 0) {
+            out.writeByte((rest & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION_BIT);
+            rest >>>= VARINT_PAYLOAD_BITS;
+        }
+        out.writeByte(rest);
+    }
+
+    /**
+     * Writes the buffered records to the underlying stream.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Writes the buffered records and closes the underlying stream.
+     *
+     * @throws IOException If writing or closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
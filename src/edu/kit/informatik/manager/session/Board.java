@@ -4,32 +4,103 @@ package edu.kit.informatik.manager.session;
 import edu.kit.informatik.entity.Player;
 import edu.kit.informatik.manager.exceptions.NotEmptyException;
 import edu.kit.informatik.manager.exceptions.OutOfBoundsException;
+import edu.kit.informatik.util.concurrent.Deadline;
 import edu.kit.informatik.util.graph.ConnectivityChecker;
+import edu.kit.informatik.util.graph.SearchWorkspace;
 import edu.kit.informatik.util.vector.Direction2D;
 import edu.kit.informatik.util.vector.Vector2D;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents the board of the game.
  * This class encapsulates the state and logic of the game board. It provides functionalities
  * such as placing tokens, checking for player victories, generating a winning board representation,
  * and simulating board states.
+ * The cells are stored with two bits each in the layout of a {@link PackedBoard}, which keeps even the largest
+ * boards small. The words of the cells are split into tiles, so that a fork of the board shares them with the
+ * original until either of them places a token.
  *
  * @author utobm
  * @version 1.0
  */
 
 public class Board {
+    private static final long MIX_MULTIPLIER_1 = 0xBF58476D1CE4E5B9L;
+    private static final long MIX_MULTIPLIER_2 = 0x94D049BB133111EBL;
+    private static final long MIX_INCREMENT = 0x9E3779B97F4A7C15L;
+    private static final int MIX_SHIFT_1 = 30;
+    private static final int MIX_SHIFT_2 = 27;
+    private static final int MIX_SHIFT_3 = 31;
+    private static final int TOKEN_KINDS = Entry.values().length;
+    /**
+     * The side length of the square blocks of cells in which the tokens are counted.
+     */
+    public static final int BLOCK_SIZE = 64;
+    /**
+     * The search workspace of each thread, which the connectivity checks of all boards on that thread share.
+     * A workspace grows to the number of cells of the board, so one per board would multiply the memory of forks.
+     */
+    private static final ThreadLocal<SearchWorkspace> SEARCH_WORKSPACES
+            = ThreadLocal.withInitial(SearchWorkspace::new);
+    /**
+     * The index standing for no cell.
+     */
+    private static final int NO_CELL = -1;
+
     /**
      * The size of the board.
      */
     private final int size;
     /**
-     * The matrix of entries representing the board state.
+     * The entries at the indices of their states in a {@link PackedBoard}.
      */
-    private final Entry[][] entries;
+    private static final Entry[] ENTRIES = {Entry.EMPTY, Entry.X, Entry.O};
 
+    /**
+     * The packed cells representing the board state.
+     */
+    private final TiledCells cells;
+    /**
+     * The XOR of the keys of all tokens on the board, which identifies the position independently of the order
+     * in which the tokens were placed.
+     */
+    private long hash;
+    /**
+     * The number of tokens {@code X} in every row, which a winning chain of {@code X} has to cross.
+     */
+    private int[] xCountPerRow;
+    /**
+     * The number of tokens {@code O} in every column, which a winning chain of {@code O} has to cross.
+     */
+    private int[] oCountPerColumn;
+    /**
+     * The number of rows without a token {@code X}.
+     */
+    private int rowsWithoutX;
+    /**
+     * The number of columns without a token {@code O}.
+     */
+    private int columnsWithoutO;
+    /**
+     * The number of blocks along each side of the board.
+     */
+    private final int blocksPerSide;
+    /**
+     * The number of tokens {@code X} and {@code O} in every block, indexed by token and
+     * {@code blockRow * blocksPerSide + blockColumn}.
+     */
+    private int[][] blockCounts;
+    /**
+     * Whether the arrays of counters belong to this board alone and may be changed in place. Forks share them
+     * until either board places a token, like the tiles of the cells.
+     */
+    private boolean ownsCounters;
+    /**
+     * The number of tokens on the board.
+     */
+    private int tokenCount;
 
     /**
      * Initializes a new board with the specified size.
@@ -39,8 +110,14 @@ public class Board {
 
     public Board(int size) {
         this.size = size;
-        this.entries = new Entry[size][size];
-        initializeBoard();
+        this.cells = new TiledCells(size);
+        this.xCountPerRow = new int[size];
+        this.oCountPerColumn = new int[size];
+        this.rowsWithoutX = size;
+        this.columnsWithoutO = size;
+        this.blocksPerSide = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        this.blockCounts = new int[TOKEN_KINDS][blocksPerSide * blocksPerSide];
+        this.ownsCounters = true;
 
 
     }
@@ -54,34 +131,43 @@ public class Board {
      * @param board The board whose properties are to be copied to create a new instance.
      */
     private Board(Board board) {
-        this.size = board.size;
-        this.entries = new Entry[size][size];
-        copyEntriesFrom(board);
+        this(board, board.cells.copy());
+        copyCounters();
     }
 
     /**
-     * Initializes the board with empty entries.
-     * This method sets all positions on the board to the {@code Entry.EMPTY} state.
+     * Creates a board with the tokens of the given board on the given cells.
+     * The arrays of counters of the tokens are shared with the given board, so this board does not own them.
+     *
+     * @param board The board whose tokens are on the cells.
+     * @param cells The cells of the new board, with the same states as the cells of the given board.
      */
-    private void initializeBoard() {
-        for (Entry[] row : entries) {
-            Arrays.fill(row, Entry.EMPTY);
-        }
+    private Board(Board board, TiledCells cells) {
+        this.size = board.size;
+        this.cells = cells;
+        this.hash = board.hash;
+        this.xCountPerRow = board.xCountPerRow;
+        this.oCountPerColumn = board.oCountPerColumn;
+        this.rowsWithoutX = board.rowsWithoutX;
+        this.columnsWithoutO = board.columnsWithoutO;
+        this.blocksPerSide = board.blocksPerSide;
+        this.tokenCount = board.tokenCount;
+        this.blockCounts = board.blockCounts;
     }
+
     /**
-     * Copies the entries from the provided board to the current board.
-     * This method ensures a deep copy of the entries from the provided board to the
-     * current board.
-     * It avoids reference overlaps, ensuring that changes to one board
-     * don't inadvertently affect another.
-     *
-     * @param board The board from which entries are to be copied.
+     * Replaces the arrays of counters by copies that belong to this board alone, which takes time proportional to
+     * the size of the board.
      */
-
-    private void copyEntriesFrom(Board board) {
-        for (int i = 0; i < size; i++) {
-            System.arraycopy(board.entries[i], 0, this.entries[i], 0, size);
+    private void copyCounters() {
+        xCountPerRow = xCountPerRow.clone();
+        oCountPerColumn = oCountPerColumn.clone();
+        int[][] copiedBlockCounts = new int[TOKEN_KINDS][];
+        for (int i = 0; i < TOKEN_KINDS; i++) {
+            copiedBlockCounts[i] = blockCounts[i].clone();
         }
+        blockCounts = copiedBlockCounts;
+        ownsCounters = true;
     }
 
     /**
@@ -95,13 +181,67 @@ public class Board {
      */
 
     public void placeToken(int y, int x, Player player) throws NotEmptyException, OutOfBoundsException {
-        if (!isPositionValid(new Vector2D(x, y))) {
+        int result = tryPlace(y, x, player);
+        if (result == PlaceResult.OUT_OF_BOUNDS) {
             throw new OutOfBoundsException();
         }
-        if (!isEmpty(x, y)) {
+        if (result == PlaceResult.NOT_EMPTY) {
             throw new NotEmptyException();
         }
-        entries[x][y] = player.getToken();
+    }
+
+    /**
+     * Places a token on the board at the specified position for the given player, if the position is valid and
+     * empty. Unlike {@link #placeToken(int, int, Player)}, an invalid placement is reported by its code, so that
+     * trying many positions neither allocates nor throws.
+     *
+     * @param y      The y-coordinate of the placement.
+     * @param x      The x-coordinate of the placement.
+     * @param player The player placing the token.
+     * @return {@link PlaceResult#PLACED}, {@link PlaceResult#NOT_EMPTY} or {@link PlaceResult#OUT_OF_BOUNDS}.
+     */
+    public int tryPlace(int y, int x, Player player) {
+        if (x < 0 || x >= size || y < 0 || y >= size) {
+            return PlaceResult.OUT_OF_BOUNDS;
+        }
+        if (!isEmpty(x, y)) {
+            return PlaceResult.NOT_EMPTY;
+        }
+        setEntry(x, y, player.getToken());
+        hash ^= mix((x * (long) size + y) * TOKEN_KINDS + player.getToken().ordinal());
+        countToken(x, y, player.getToken());
+        return PlaceResult.PLACED;
+    }
+
+    /**
+     * Updates the counters of the rows, columns and blocks after a token has been placed.
+     *
+     * @param row    The row of the token.
+     * @param column The column of the token.
+     * @param token  The token.
+     */
+    private void countToken(int row, int column, Entry token) {
+        if (!ownsCounters) {
+            copyCounters();
+        }
+        if (token == Entry.X && xCountPerRow[row]++ == 0) {
+            rowsWithoutX--;
+        } else if (token == Entry.O && oCountPerColumn[column]++ == 0) {
+            columnsWithoutO--;
+        }
+        blockCounts[token.ordinal()][(row / BLOCK_SIZE) * blocksPerSide + column / BLOCK_SIZE]++;
+        tokenCount++;
+    }
+
+    /**
+     * Returns the number of lines a chain of the given token has to cross but does not yet touch: the rows without
+     * a token {@code X} or the columns without a token {@code O}.
+     *
+     * @param token The token.
+     * @return The number of lines the token is still missing.
+     */
+    private int getMissingLines(Entry token) {
+        return (token == Entry.X) ? rowsWithoutX : columnsWithoutO;
     }
 
     /**
@@ -112,18 +252,46 @@ public class Board {
      */
 
     public boolean hasPlayerWon(Player player) {
-        ConnectivityChecker checker = new ConnectivityChecker(this);
-        Entry token = player.getToken();
+        return hasPlayerWon(player, Deadline.unlimited());
+    }
+
+    /**
+     * Checks if the specified player has won the game, giving up once the deadline expires.
+     *
+     * @param player   The player to check.
+     * @param deadline The deadline after which the check is aborted.
+     * @return True if the player has won, false if not or if the deadline expired before a win was found.
+     */
+    private boolean hasPlayerWon(Player player, Deadline deadline) {
+        // A winning chain touches every row or column, so the check can be skipped while one is missing
+        return getMissingLines(player.getToken()) == 0
+                && connectsEdges(player.getToken(), getChecker(), NO_CELL, deadline);
+    }
 
+    /**
+     * Checks if the tokens of the given kind connect their edges, giving up once the deadline expires.
+     * Unlike {@link #hasPlayerWon(Player, Deadline)}, the check does not rely on the counters, so it also
+     * holds with a token that is only assumed on an empty cell.
+     *
+     * @param token       The token to check.
+     * @param checker     The checker of this board.
+     * @param assumedCell The index {@code row * size + column} of an empty cell that is treated as holding the
+     *                    token, or {@link #NO_CELL}.
+     * @param deadline    The deadline after which the check is aborted.
+     * @return True if the tokens connect their edges, false if not or if the deadline expired before.
+     */
+    private boolean connectsEdges(Entry token, ConnectivityChecker checker, int assumedCell, Deadline deadline) {
         if (token == Entry.X) {
             for (int j = 0; j < size; j++) {
-                if (entries[0][j] == token && checker.isConnected(new Vector2D(0, j), player)) {
+                if ((j == assumedCell || getEntryAt(0, j) == token)
+                        && checker.isConnected(0, j, token, assumedCell, deadline)) {
                     return true;
                 }
             }
         } else if (token == Entry.O) {
             for (int i = 0; i < size; i++) {
-                if (entries[i][0] == token && checker.isConnected(new Vector2D(i, 0), player)) {
+                if ((i * size == assumedCell || getEntryAt(i, 0) == token)
+                        && checker.isConnected(i, 0, token, assumedCell, deadline)) {
                     return true;
                 }
             }
@@ -145,18 +313,18 @@ public class Board {
      */
 
     private Vector2D playerWonLocation(Player player) {
-        ConnectivityChecker checker = new ConnectivityChecker(this);
+        ConnectivityChecker checker = getChecker();
         Entry token = player.getToken();
 
         if (token == Entry.X) {
             for (int j = 0; j < size; j++) {
-                if (entries[0][j] == token && checker.isConnected(new Vector2D(0, j), player)) {
+                if (getEntryAt(0, j) == token && checker.isConnected(new Vector2D(0, j), player)) {
                     return new Vector2D(0, j);
                 }
             }
         } else if (token == Entry.O) {
             for (int i = 0; i < size; i++) {
-                if (entries[i][0] == token && checker.isConnected(new Vector2D(i, 0), player)) {
+                if (getEntryAt(i, 0) == token && checker.isConnected(new Vector2D(i, 0), player)) {
                     return new Vector2D(i, 0);
                 }
             }
@@ -166,6 +334,15 @@ public class Board {
     }
 
 
+    /**
+     * Creates a checker for connectivity checks on this board, which searches in the workspace of the calling thread.
+     *
+     * @return The connectivity checker.
+     */
+    private ConnectivityChecker getChecker() {
+        return new ConnectivityChecker(this, SEARCH_WORKSPACES.get());
+    }
+
     /**
      * Generates a string representation of the board highlighting the winning path for the specified player.
      *
@@ -174,7 +351,7 @@ public class Board {
      */
 
     public String generateWinningBoardRepresentation(Player player) {
-        char[][] representation = Entry.getRepr(entries);
+        char[][] representation = getRepresentation();
         traverseWinningPath(representation, player);
         return convertToString(representation);
     }
@@ -220,7 +397,7 @@ public class Board {
         List<Vector2D> neighbors = new ArrayList<>();
         for (Direction2D direction : Direction2D.values()) {
             Vector2D neighbor = position.add(direction.getDirection());
-            if (isPositionValid(neighbor) && entries[neighbor.x()][neighbor.y()] == player.getToken()) {
+            if (isPositionValid(neighbor) && getEntryAt(neighbor.x(), neighbor.y()) == player.getToken()) {
                 neighbors.add(neighbor);
             }
         }
@@ -234,27 +411,64 @@ public class Board {
      * @return The winning location as a Vector2D object or null if no winning location is found.
      */
     public Vector2D getWinningLocation(Player player) {
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                if (entries[j][i].equals(Entry.EMPTY)) {
-                    Board simulatedBoard = this.copy();
-                    try {
-                        simulatedBoard.placeToken(i, j, player);
-                        if (simulatedBoard.hasPlayerWon(player)) {
-                            return new Vector2D(j, i);
-                        }
-                    } catch (NotEmptyException e) {
-                        // This shouldn't happen since we are checking for empty entries
-                    } catch (OutOfBoundsException e) {
-                        // This shouldn't happen since we are generating in boundaries.
-
-                    }
+        return getWinningLocation(player, Deadline.unlimited());
+    }
+
+    /**
+     * Simulates game states to determine a winning location for the given player on the board,
+     * giving up once the deadline expires.
+     * Each empty cell is tried by treating it as holding the player's token in the connectivity check, so the board
+     * is never written and a fork does not copy any of the cells it shares.
+     * Since a winning chain touches every row or column, there is nothing to try while the player misses more
+     * than one of them, and only the cells of the missing line are tried while the player misses exactly one.
+     *
+     * @param player   The player for which the winning location is being determined.
+     * @param deadline The deadline after which the search is aborted.
+     * @return The winning location as a Vector2D object or null if no winning location is found
+     *        before the deadline expires.
+     */
+    public Vector2D getWinningLocation(Player player, Deadline deadline) {
+        Entry token = player.getToken();
+        int missingLines = getMissingLines(token);
+        if (missingLines > 1) {
+            return null;
+        }
+        // With one line missing, only its cells can complete a chain
+        int missingLine = (missingLines == 1) ? findMissingLine(token) : -1;
+        int firstColumn = (token == Entry.O && missingLine >= 0) ? missingLine : 0;
+        int lastColumn = (token == Entry.O && missingLine >= 0) ? missingLine : size - 1;
+        int firstRow = (token == Entry.X && missingLine >= 0) ? missingLine : 0;
+        int lastRow = (token == Entry.X && missingLine >= 0) ? missingLine : size - 1;
+        ConnectivityChecker checker = getChecker();
+        for (int i = firstColumn; i <= lastColumn; i++) {
+            for (int j = firstRow; j <= lastRow; j++) {
+                if (deadline.isExpired()) {
+                    return null;
+                }
+                if (isEmpty(j, i) && connectsEdges(token, checker, j * size + i, deadline)) {
+                    return new Vector2D(j, i);
                 }
             }
         }
         return null;
     }
 
+    /**
+     * Finds the first row without a token {@code X} or the first column without a token {@code O}.
+     *
+     * @param token The token.
+     * @return The index of the line, or -1 if the token touches every line.
+     */
+    private int findMissingLine(Entry token) {
+        int[] counts = (token == Entry.X) ? xCountPerRow : oCountPerColumn;
+        for (int i = 0; i < size; i++) {
+            if (counts[i] == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
 
     /**
      * Checks if a given position lies within the boundaries of the board.
@@ -307,7 +521,118 @@ public class Board {
      */
 
     public boolean isEmpty(int x, int y) {
-        return entries[x][y].equals(Entry.EMPTY);
+        return cells.get(x, y) == PackedBoard.EMPTY;
+    }
+
+    /**
+     * Returns a 64-bit key identifying the position on the board, including its size.
+     * Equal positions have equal keys, different positions have different keys with overwhelming probability.
+     *
+     * @return The key of the position.
+     */
+    public long getPositionKey() {
+        return hash ^ mix(~(long) size);
+    }
+
+    /**
+     * Spreads the bits of a number over a 64-bit key, so that keys of different numbers look unrelated.
+     *
+     * @param value The number.
+     * @return The key of the number.
+     */
+    private static long mix(long value) {
+        long key = value * MIX_INCREMENT + MIX_INCREMENT;
+        key = (key ^ (key >>> MIX_SHIFT_1)) * MIX_MULTIPLIER_1;
+        key = (key ^ (key >>> MIX_SHIFT_2)) * MIX_MULTIPLIER_2;
+        return key ^ (key >>> MIX_SHIFT_3);
+    }
+
+    /**
+     * Returns the number of blocks along each side of the board, each covering {@link #BLOCK_SIZE} rows and columns.
+     * The blocks in the last row and column may be smaller.
+     *
+     * @return The number of blocks per side.
+     */
+    public int getBlocksPerSide() {
+        return blocksPerSide;
+    }
+
+    /**
+     * Returns the number of tokens of the given kind in a block.
+     *
+     * @param token       The token, {@code Entry.X} or {@code Entry.O}.
+     * @param blockRow    The row of the block.
+     * @param blockColumn The column of the block.
+     * @return The number of tokens in the block.
+     */
+    public int getTokenCountInBlock(Entry token, int blockRow, int blockColumn) {
+        return blockCounts[token.ordinal()][blockRow * blocksPerSide + blockColumn];
+    }
+
+    /**
+     * Returns the number of cells in a block.
+     *
+     * @param blockRow    The row of the block.
+     * @param blockColumn The column of the block.
+     * @return The number of cells in the block.
+     */
+    public int getCellCountInBlock(int blockRow, int blockColumn) {
+        int rows = Math.min(size, (blockRow + 1) * BLOCK_SIZE) - blockRow * BLOCK_SIZE;
+        int columns = Math.min(size, (blockColumn + 1) * BLOCK_SIZE) - blockColumn * BLOCK_SIZE;
+        return rows * columns;
+    }
+
+    /**
+     * Chooses an empty cell uniformly at random without any structure of its own.
+     * A random rank among the empty cells is drawn and the cell with that rank is found with the token counts of
+     * the blocks, so the choice takes time proportional to the number of blocks and the cells of one block. The
+     * cells are ranked block by block, so the same position and source of randomness always give the same cell,
+     * however the position has come about.
+     *
+     * @param random The source of randomness.
+     * @return The position of the chosen cell, or null if the board is full.
+     */
+    public Vector2D getRandomEmptyCell(RandomGenerator random) {
+        int emptyCount = size * size - tokenCount;
+        if (emptyCount == 0) {
+            return null;
+        }
+        int rank = random.nextInt(emptyCount);
+        for (int blockRow = 0; blockRow < blocksPerSide; blockRow++) {
+            for (int blockColumn = 0; blockColumn < blocksPerSide; blockColumn++) {
+                int block = blockRow * blocksPerSide + blockColumn;
+                int emptyInBlock = getCellCountInBlock(blockRow, blockColumn)
+                        - blockCounts[Entry.X.ordinal()][block] - blockCounts[Entry.O.ordinal()][block];
+                if (rank < emptyInBlock) {
+                    return findEmptyCellInBlock(blockRow, blockColumn, rank);
+                }
+                rank -= emptyInBlock;
+            }
+        }
+        // This shouldn't happen since the blocks hold all empty cells
+        return null;
+    }
+
+    /**
+     * Finds the empty cell with the given rank among the empty cells of a block, row by row.
+     *
+     * @param blockRow    The row of the block.
+     * @param blockColumn The column of the block.
+     * @param rank        The number of empty cells of the block before the one to find.
+     * @return The position of the cell, or null if the block has not that many empty cells.
+     */
+    private Vector2D findEmptyCellInBlock(int blockRow, int blockColumn, int rank) {
+        int lastRow = Math.min(size, (blockRow + 1) * BLOCK_SIZE);
+        int lastColumn = Math.min(size, (blockColumn + 1) * BLOCK_SIZE);
+        int rest = rank;
+        for (int row = blockRow * BLOCK_SIZE; row < lastRow; row++) {
+            for (int column = blockColumn * BLOCK_SIZE; column < lastColumn; column++) {
+                if (isEmpty(row, column) && rest-- == 0) {
+                    return new Vector2D(row, column);
+                }
+            }
+        }
+        return null;
     }
 
     /**
@@ -321,9 +646,62 @@ public class Board {
      */
 
     public Entry getEntryAt(Vector2D position) {
-        return entries[position.x()][position.y()];
+        return getEntryAt(position.x(), position.y());
+    }
+
+
+    /**
+     * Retrieves the entry (token) present at the specified cell without creating a position object.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @return The {@link Entry} (token) present at the given cell.
+     */
+    public Entry getEntryAt(int row, int column) {
+        return ENTRIES[cells.get(row, column)];
     }
 
+    /**
+     * Sets the entry at the specified cell.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @param entry  The new entry of the cell.
+     */
+    private void setEntry(int row, int column, Entry entry) {
+        int state = PackedBoard.EMPTY;
+        if (entry == Entry.X) {
+            state = PackedBoard.X;
+        } else if (entry == Entry.O) {
+            state = PackedBoard.O;
+        }
+        cells.set(row, column, state);
+    }
+
+    /**
+     * Creates the characters representing the entries of the board, row by row.
+     *
+     * @return The characters of the entries.
+     */
+    private char[][] getRepresentation() {
+        char[][] representation = new char[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                representation[i][j] = getEntryAt(i, j).getToken();
+            }
+        }
+        return representation;
+    }
+
+    /**
+     * Creates an independent packed copy of the cells of the board, for example as the starting point of
+     * simulations that play many moves and need to read the neighbourhood of cells quickly.
+     *
+     * @return A new packed board with the same cells.
+     */
+    public PackedBoard copyCells() {
+        return cells.toPackedBoard();
+    }
 
     /**
      * Creates a copy of the current board state.
@@ -335,6 +713,32 @@ public class Board {
         return new Board(this);
     }
 
+    /**
+     * Creates a fork of the current board state, which shares the cells with this board copy-on-write.
+     * Unlike {@link #copy()}, neither the cells nor the counters of the tokens are copied, so forking even the
+     * largest board takes time proportional to its number of tiles. The cells are copied tile by tile where the
+     * fork or this board change them afterwards, and the counters the first time either board places a token.
+     *
+     * @return A new Board object representing the current board state.
+     */
+    public Board fork() {
+        ownsCounters = false;
+        return new Board(this, cells.fork());
+    }
+
+    /**
+     * Estimates the bytes a board of the given size takes at most: the cells with two bits each, as long as no tile
+     * is shared with a fork, and the counters of the tokens per row, column and block.
+     *
+     * @param size The size of the board.
+     * @return The estimated number of bytes.
+     */
+    public static long estimateBytes(int size) {
+        long blocksPerSide = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        return TiledCells.estimateBytes(size)
+                + (2L * size + TOKEN_KINDS * blocksPerSide * blocksPerSide) * Integer.BYTES;
+    }
+
     /**
      * Returns a string representation of the board.
      *
@@ -343,6 +747,6 @@ public class Board {
 
     @Override
     public String toString() {
-        return convertToString(Entry.getRepr(entries));
+        return convertToString(getRepresentation());
     }
 }
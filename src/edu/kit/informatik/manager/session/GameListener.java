@@ -0,0 +1,37 @@
+package edu.kit.informatik.manager.session;
+
+/**
+ * Receives the changes of games, for example to persist them.
+ * The listener is called by the thread changing the game while it holds the lock of the game, so the calls for
+ * one game arrive in the order of the changes. Copies of a game do not inform the listener.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public interface GameListener {
+
+    /**
+     * Called after a game has been created and registered under its name.
+     * A game that has been loaded from a record already contains moves.
+     *
+     * @param game The new game.
+     */
+    void gameCreated(HexGame game);
+
+    /**
+     * Called after a token has been placed successfully.
+     *
+     * @param game      The game.
+     * @param moveIndex The index of the move in the history of the game.
+     * @param x         The x-coordinate passed to {@link HexGame#placeToken(int, int)}.
+     * @param y         The y-coordinate passed to {@link HexGame#placeToken(int, int)}.
+     */
+    void tokenPlaced(HexGame game, int moveIndex, int x, int y);
+
+    /**
+     * Called after the players of a game have swapped their tokens.
+     *
+     * @param game The game.
+     */
+    void tokensSwapped(HexGame game);
+}
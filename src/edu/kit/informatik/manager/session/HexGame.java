@@ -3,30 +3,56 @@ package edu.kit.informatik.manager.session;
 
 import edu.kit.informatik.entity.Player;
 import edu.kit.informatik.manager.exceptions.GameAlreadyWonException;
-import edu.kit.informatik.manager.exceptions.HistoryExceededException;
 import edu.kit.informatik.manager.exceptions.NotEmptyException;
 import edu.kit.informatik.manager.exceptions.OutOfBoundsException;
+import edu.kit.informatik.util.concurrent.TranspositionTable;
 import edu.kit.informatik.util.vector.Vector2D;
 
-import java.util.ArrayList;
+import java.lang.ref.SoftReference;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 /**
  * Represents a game of Hex with a given size and set of players.
  * Hex is a strategy board game for two players, with the objective to form a path connecting opposite sides of the board.
  *
+ * <p>Every game has its own lock, so that moves in different games may run in parallel while the moves within one
+ * game happen one after another. The methods changing the game take the lock themselves. A caller that reads the
+ * game and then changes it, or that needs a consistent view of several properties, holds the lock for the whole
+ * sequence.</p>
+ *
+ * <p>Once a game has been won, it is archived: only the move history and the winner are kept for sure, while the
+ * board is only softly reachable, so the garbage collector may release it when memory runs short. The board is
+ * rebuilt from the move history when it is needed again, for example to print the game. Thereby the memory taken
+ * by the boards scales with the number of active games.</p>
+ *
  * @author utobm
  * @version 1.0
  */
 
 public class HexGame {
     private final String name;
-    private final Board board;
+    private final int size;
+    /**
+     * The board while the game is active, or null once the game has been archived.
+     */
+    private volatile Board board;
+    /**
+     * The board of the archived game, which is rebuilt if the garbage collector has released it.
+     */
+    private SoftReference<Board> archivedBoard;
     private final List<Player> players;
-    private final List<Moves> moveHistory = new ArrayList<>();
+    private final MoveHistory moveHistory;
+    private final ReentrantLock lock = new ReentrantLock();
     private int currentPlayerIndex;
     private boolean hasSwapped;
-    private Player winningPlayer;
+    private volatile Player winningPlayer;
+    private long moveBudget;
+    private TranspositionTable transpositionTable;
+    private GameListener listener;
 
 
     /**
@@ -37,9 +63,36 @@ public class HexGame {
      * @param players List of players participating in the game.
      */
     public HexGame(String name, int size, List<Player> players) {
+        this(name, new Board(size), players);
+    }
+
+    /**
+     * Constructs a Hexagon game with the given name on the given board.
+     *
+     * @param name    Name of the game.
+     * @param board   The board the game is played on.
+     * @param players List of players participating in the game.
+     */
+    private HexGame(String name, Board board, List<Player> players) {
+        this(name, board.getSize(), board, players, new MoveHistory(board.getSize()));
+    }
+
+    /**
+     * Constructs a Hexagon game with the given name on the given board with the given moves.
+     *
+     * @param name        Name of the game.
+     * @param size        Size of the game board.
+     * @param board       The board the game is played on, or null for a won game that is archived right away and
+     *                    rebuilds its board from the moves when it is needed.
+     * @param players     List of players participating in the game.
+     * @param moveHistory The moves that have been made on the board.
+     */
+    private HexGame(String name, int size, Board board, List<Player> players, MoveHistory moveHistory) {
         this.name = name;
-        this.board = new Board(size);
+        this.size = size;
+        this.board = board;
         this.players = players;
+        this.moveHistory = moveHistory;
     }
 
     /**
@@ -52,6 +105,15 @@ public class HexGame {
         return name;
     }
 
+    /**
+     * Returns the size of the board of the game, without rebuilding the board of an archived game.
+     *
+     * @return The board size.
+     */
+    public int getSize() {
+        return size;
+    }
+
     /**
      * Gets the player who has won the game.
      *
@@ -72,6 +134,143 @@ public class HexGame {
         return hasSwapped;
     }
 
+    /**
+     * Returns the time an AI may spend on a single move in this game.
+     *
+     * @return The move budget in milliseconds, or 0 if the time is not limited.
+     */
+    public long getMoveBudget() {
+        return moveBudget;
+    }
+
+    /**
+     * Sets the time an AI may spend on a single move in this game.
+     *
+     * @param moveBudget The move budget in milliseconds, or 0 to not limit the time.
+     */
+    public void setMoveBudget(long moveBudget) {
+        this.moveBudget = moveBudget;
+    }
+
+    /**
+     * Returns the table in which AI players cache their search results for this game.
+     *
+     * @return The transposition table, or null if search results are not cached.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Sets the table in which AI players cache their search results for this game.
+     * The table may be shared with other games, since its keys identify the positions on the board.
+     *
+     * @param transpositionTable The transposition table, or null to not cache search results.
+     */
+    public void setTranspositionTable(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+    }
+
+    /**
+     * Marks the start of the search of an AI for its next move in this game, so that the results cached for
+     * earlier positions may be replaced. It is called once for every move the AI actually makes, but not for
+     * positions that are only explored, such as the branches of pondering, which would let the cached results
+     * age long before they are stale.
+     */
+    public void beginSearch() {
+        if (transpositionTable != null) {
+            transpositionTable.nextGeneration();
+        }
+    }
+
+    /**
+     * Returns the lock that orders the operations on this game.
+     * It is reentrant, so a holder may still call the methods of the game that take the lock themselves.
+     *
+     * @return The lock of the game.
+     */
+    public Lock getLock() {
+        return lock;
+    }
+
+    /**
+     * Returns the number of moves made so far, reading it under the lock of the game.
+     *
+     * @return The number of moves in the history.
+     */
+    public int getMoveCount() {
+        lock.lock();
+        try {
+            return moveHistory.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the listener that is informed about the moves in this game. Copies of the game do not inherit it.
+     *
+     * @param listener The listener, or null to not inform anyone.
+     */
+    public void setListener(GameListener listener) {
+        lock.lock();
+        try {
+            this.listener = listener;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the players of the game in the order in which they started.
+     *
+     * @return An unmodifiable view of the players.
+     */
+    public List<Player> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    /**
+     * Rebuilds a game from its history, for example when it is restored from a journal.
+     * The tokens are put on the board without checking for a win after every move, so the game is rebuilt in time
+     * proportional to the number of moves.
+     *
+     * @param name       The name of the game.
+     * @param size       The size of the board.
+     * @param players    The players in the order in which they started, with the tokens they had at the start.
+     * @param cells      The cell indices of the moves as stored in a {@link MoveHistory}, in the order in which
+     *                   they were made.
+     * @param hasSwapped True if the players have swapped their tokens after the first move.
+     * @param hasWinner  True if the player of the last move has won the game.
+     * @return The restored game.
+     * @throws NotEmptyException    If the history places two tokens on the same position.
+     * @throws OutOfBoundsException If the history places a token outside of the board.
+     */
+    public static HexGame restore(String name, int size, List<Player> players, int[] cells, boolean hasSwapped,
+                                  boolean hasWinner) throws NotEmptyException, OutOfBoundsException {
+        HexGame game = new HexGame(name, size, players);
+        if (hasSwapped) {
+            players.forEach(Player::switchToken);
+            game.moveHistory.swapFirstMove();
+        }
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] < 0) {
+                throw new OutOfBoundsException();
+            }
+            int x = cells[i] / size;
+            int y = cells[i] % size;
+            game.board.placeToken(x, y, players.get((i + (hasSwapped ? 1 : 0)) % players.size()));
+            game.moveHistory.add(x, y);
+        }
+        game.hasSwapped = hasSwapped;
+        game.currentPlayerIndex = (cells.length + (hasSwapped ? 1 : 0)) % players.size();
+        if (hasWinner && cells.length > 0) {
+            game.winningPlayer = players.get(game.moveHistory.getPlayerIndex(cells.length - 1));
+            game.archive();
+        }
+        return game;
+    }
+
     /**
      * Returns the current player whose turn it is to make a move.
      *
@@ -105,17 +304,33 @@ public class HexGame {
     }
 
     /**
-     * Retrieves the list of moves made during the game.
+     * Retrieves the moves made during the game.
      * This method provides a historical record of all moves made by players
-     * since the beginning of the game. Each entry in the list represents a move
-     * made by a player at a specific point in time.
+     * since the beginning of the game, in the order in which they were made.
      *
-     * @return A list of {@link Moves} objects representing the moves made.
+     * @return The {@link MoveHistory} of the game.
      */
-    public List<Moves> getMoveHistory() {
+    public MoveHistory getMoveHistory() {
         return moveHistory;
     }
 
+    /**
+     * Retrieves a past move made by the specified player.
+     * The lookup takes constant time, however long the game is.
+     *
+     * @param player    The player whose move is to be retrieved.
+     * @param pastMoves The number of moves to go back in the history for the specified player.
+     * @return The Vector2D representing the move, or null if the player hasn't made that many moves.
+     */
+    public Vector2D getLastMoveForPlayer(Player player, int pastMoves) {
+        int playerIndex = players.indexOf(player);
+        int cell = (playerIndex < 0) ? MoveHistory.NO_MOVE : moveHistory.getLastCellOfPlayer(playerIndex, pastMoves);
+        if (cell == MoveHistory.NO_MOVE) {
+            return null;  // This player hasn't made a move yet.
+        }
+        return moveHistory.toVector(cell);
+    }
+
     /**
      * Places a token on the game board at the specified coordinates for the current player.
      * The method will place the token of the current player at the given coordinates. If the position
@@ -130,67 +345,252 @@ public class HexGame {
      * @throws OutOfBoundsException    if the position is out of boundaries.
      */
     public void placeToken(int x, int y) throws NotEmptyException, GameAlreadyWonException, OutOfBoundsException {
-        if (winningPlayer != null) {
+        int result = tryPlace(x, y);
+        if (result == PlaceResult.GAME_ALREADY_WON) {
             throw new GameAlreadyWonException(winningPlayer);
         }
-        Player currentPlayer = getCurrentPlayer();
-        // Note: The game's coordinate system is inverse to Java's typical array indexing.
-        board.placeToken(x, y, currentPlayer);
-        moveHistory.add(new Moves(currentPlayer, new Vector2D(x, y)));
-        if (board.hasPlayerWon(currentPlayer)) {
-            winningPlayer = currentPlayer;
+        if (result == PlaceResult.OUT_OF_BOUNDS) {
+            throw new OutOfBoundsException();
+        }
+        if (result == PlaceResult.NOT_EMPTY) {
+            throw new NotEmptyException();
+        }
+    }
+
+    /**
+     * Places a token on the game board at the specified coordinates for the current player, like
+     * {@link #placeToken(int, int)}, but reports an invalid placement by its code instead of an exception.
+     * Trying a placement therefore neither allocates nor throws, however often it fails.
+     *
+     * @param x The x-coordinate of the position where the token should be placed.
+     * @param y The y-coordinate of the position where the token should be placed.
+     * @return {@link PlaceResult#PLACED} or {@link PlaceResult#WON} if the token has been placed, otherwise
+     *         {@link PlaceResult#NOT_EMPTY}, {@link PlaceResult#OUT_OF_BOUNDS} or
+     *         {@link PlaceResult#GAME_ALREADY_WON}.
+     */
+    public int tryPlace(int x, int y) {
+        lock.lock();
+        try {
+            if (winningPlayer != null) {
+                return PlaceResult.GAME_ALREADY_WON;
+            }
+            Player currentPlayer = getCurrentPlayer();
+            // Note: The game's coordinate system is inverse to Java's typical array indexing.
+            int result = board.tryPlace(x, y, currentPlayer);
+            if (result != PlaceResult.PLACED) {
+                return result;
+            }
+            moveHistory.add(x, y);
+            if (board.hasPlayerWon(currentPlayer)) {
+                winningPlayer = currentPlayer;
+                archive();
+            }
+            moveToNextPlayer();
+            if (listener != null) {
+                listener.tokenPlaced(this, moveHistory.size() - 1, x, y);
+            }
+            return (winningPlayer != null) ? PlaceResult.WON : PlaceResult.PLACED;
+        } finally {
+            lock.unlock();
         }
-        moveToNextPlayer();
     }
 
     /**
      * Swaps the tokens of the players.
      */
     public void swapTokens() {
-        hasSwapped = true;
-        players.forEach(Player::switchToken);
-        Moves initialMove = moveHistory.get(0);
-        Player otherPlayer = players.stream()
-                .filter(p -> !p.equals(initialMove.player()))
-                .findFirst()
-                .orElseThrow();
-        Vector2D movePosition = initialMove.vector();
-        moveHistory.set(0, new Moves(otherPlayer, movePosition));
-        moveToNextPlayer();
+        lock.lock();
+        try {
+            hasSwapped = true;
+            players.forEach(Player::switchToken);
+            moveHistory.swapFirstMove();
+            moveToNextPlayer();
+            if (listener != null) {
+                listener.tokensSwapped(this);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes the given move for the current player, as the place or swap command would without printing anything.
+     * Unlike the swap command, the move is not checked for being allowed.
+     *
+     * @param move The move to make.
+     * @throws NotEmptyException       If the move places a token on an occupied position.
+     * @throws GameAlreadyWonException If the move places a token in a game that has already been won.
+     * @throws OutOfBoundsException    If the move places a token outside of the board.
+     */
+    public void makeMove(Move move) throws NotEmptyException, GameAlreadyWonException, OutOfBoundsException {
+        if (move instanceof Move.Place place) {
+            placeToken(place.x(), place.y());
+        } else {
+            swapTokens();
+        }
     }
 
     /**
      * Retrieves the current game board.
+     * The board of an archived game is rebuilt from the move history if it has been released.
      *
      * @return The current state of the game board.
      */
     public Board getBoard() {
-        return board;
+        Board activeBoard = board;
+        if (activeBoard != null) {
+            return activeBoard;
+        }
+        lock.lock();
+        try {
+            Board restoredBoard = archivedBoard.get();
+            if (restoredBoard == null) {
+                restoredBoard = rebuildBoard();
+                archivedBoard = new SoftReference<>(restoredBoard);
+            }
+            return restoredBoard;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether the game has been archived after it has been won.
+     *
+     * @return True if the board of the game may be released, otherwise false.
+     */
+    public boolean isArchived() {
+        return board == null;
+    }
+
+    /**
+     * Archives the won game: the board is kept only softly reachable and the move history is trimmed to its
+     * length. Must be called while holding the lock.
+     */
+    private void archive() {
+        archivedBoard = new SoftReference<>(board);
+        board = null;
+        moveHistory.trimToSize();
+    }
+
+    /**
+     * Forks the board of this game for a game created from it. The board of an archived game is only forked while
+     * it is still on the heap, so that creating a game from an archived one does not rebuild the board. Must be
+     * called while holding the lock.
+     *
+     * @return The forked board, or null if the game is archived and its board has been released.
+     */
+    private Board forkBoard() {
+        Board currentBoard = (board != null) ? board : archivedBoard.get();
+        return (currentBoard != null) ? currentBoard.fork() : null;
+    }
+
+    /**
+     * Rebuilds the board of the game from its move history. Must be called while holding the lock.
+     *
+     * @return The rebuilt board.
+     */
+    private Board rebuildBoard() {
+        Board rebuiltBoard = new Board(size);
+        for (int i = 0; i < moveHistory.size(); i++) {
+            Vector2D move = moveHistory.getVector(i);
+            try {
+                rebuiltBoard.placeToken(move.x(), move.y(), players.get(moveHistory.getPlayerIndex(i)));
+            } catch (NotEmptyException | OutOfBoundsException e) {
+                // This shouldn't happen since the moves have been placed on a board of the same size before
+            }
+        }
+        return rebuiltBoard;
     }
 
     /**
-     * Returns a string representation of the most recent moves in the game.
-     * The method fetches the specified number of recent moves from the game's history and formats them
-     * into a string. Each move is represented as "{playerName}: {x-coordinate} {y-coordinate}". If the
-     * requested number of moves exceeds the available history, a `HistoryExceededException` is thrown.
+     * Creates a new game with the given name and players from the current position of this game, for example to
+     * analyse a variation without changing this game. The board is forked, so both games share its cells until
+     * either of them places a token, while the move history is copied. The fork of an archived game is archived as
+     * well and rebuilds its board only when it is needed. The fork is taken under the lock of this game and has
+     * neither a listener nor a transposition table.
      *
-     * @param moveCount The number of recent moves to retrieve.
-     * @return A formatted string representing the specified number of recent moves.
-     * @throws HistoryExceededException If the requested number of recent moves exceeds the available history.
+     * @param forkName The name of the new game.
+     * @param players  The players of the new game in the order in which they start, with the tokens they have at the
+     *                 start.
+     * @return The new game.
      */
-    public String retrieveRecentMoves(int moveCount) throws HistoryExceededException {
-        if (moveCount > moveHistory.size()) {
-            throw new HistoryExceededException();
+    public HexGame fork(String forkName, List<Player> players) {
+        lock.lock();
+        try {
+            if (hasSwapped) {
+                players.forEach(Player::switchToken);
+            }
+            HexGame fork = new HexGame(forkName, size, forkBoard(), players, moveHistory.copy());
+            fork.currentPlayerIndex = currentPlayerIndex;
+            fork.hasSwapped = hasSwapped;
+            fork.moveBudget = moveBudget;
+            if (winningPlayer != null) {
+                fork.winningPlayer = players.get(this.players.indexOf(winningPlayer));
+                fork.archive();
+            }
+            return fork;
+        } finally {
+            lock.unlock();
         }
-        StringBuilder builder = new StringBuilder();
-        int startIndex = Math.max(0, moveHistory.size() - moveCount);
-        List<Moves> recentMoves = moveHistory.subList(startIndex, moveHistory.size());
+    }
 
-        for (int i = recentMoves.size() - 1; i >= 0; i--) {
-            Moves move = recentMoves.get(i);
-            builder.append(String.format("%s: %d %d%n", move.player().getName(), move.vector().x(), move.vector().y()));
+    /**
+     * Creates a snapshot of the current position, on which an AI player of this game may compute its move on
+     * another thread. The board is forked and the move history copied under the lock of this game, so the snapshot
+     * never shows half of a move and later moves in this game do not reach it. Unlike {@link #copy()}, the players
+     * are shared with this game, so that an AI keeps its own state and finds its moves in the history. Therefore the
+     * tokens must not be swapped in the snapshot. The transposition table is shared, the listener is not. The
+     * snapshot of an archived game is archived as well and rebuilds its board only when it is needed.
+     *
+     * @return The snapshot of this game.
+     */
+    public HexGame snapshot() {
+        lock.lock();
+        try {
+            HexGame snapshot = new HexGame(name, size, forkBoard(), players, moveHistory.copy());
+            snapshot.currentPlayerIndex = currentPlayerIndex;
+            snapshot.hasSwapped = hasSwapped;
+            snapshot.moveBudget = moveBudget;
+            snapshot.transpositionTable = transpositionTable;
+            if (winningPlayer != null) {
+                snapshot.winningPlayer = winningPlayer;
+                snapshot.archive();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        return builder.toString();
+    /**
+     * Creates and returns an independent copy of this game.
+     * The board is forked and the players and the move history are copied, so that the copy can be played on,
+     * for example by an AI exploring possible continuations, without affecting this game. Forking shares the cells
+     * copy-on-write, so the copy takes time and memory for the board only where either game changes it.
+     * Moves in the copied history are attributed to the copied players. The copy of an archived game is archived as
+     * well and rebuilds its board only when it is needed.
+     * The transposition table is shared with the copy. The copy has a lock of its own and is taken under the lock
+     * of this game, so it never shows half of a move.
+     *
+     * @return A new HexGame object representing the current state of this game.
+     */
+    public HexGame copy() {
+        lock.lock();
+        try {
+            List<Player> copiedPlayers = players.stream().map(Player::copy).collect(Collectors.toList());
+            HexGame copy = new HexGame(name, size, forkBoard(), copiedPlayers, moveHistory.copy());
+            copy.currentPlayerIndex = currentPlayerIndex;
+            copy.hasSwapped = hasSwapped;
+            copy.moveBudget = moveBudget;
+            copy.transpositionTable = transpositionTable;
+            if (winningPlayer != null) {
+                copy.winningPlayer = copiedPlayers.get(players.indexOf(winningPlayer));
+                copy.archive();
+            }
+            return copy;
+        } finally {
+            lock.unlock();
+        }
     }
 }
@@ -0,0 +1,49 @@
+package edu.kit.informatik.manager.session;
+
+
+import edu.kit.informatik.util.vector.Vector2D;
+
+/**
+ * Represents a move in a Hex game: either placing a token or swapping the tokens after the first move.
+ * AI players and other code running in the same process hand their moves to the game as moves, so that only the
+ * input of the user has to be parsed from text.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public sealed interface Move {
+    /**
+     * The swap move, which does not need an instance of its own per move.
+     */
+    Swap SWAP = new Swap();
+
+    /**
+     * Creates the move placing a token on the given cell of the board.
+     *
+     * @param cell The cell as a vector of its row and its column, as used by the board.
+     * @return The place move, whose coordinates are those of the place command.
+     */
+    static Place place(Vector2D cell) {
+        return new Place(cell.y(), cell.x());
+    }
+
+    /**
+     * Represents placing a token of the current player.
+     *
+     * @param x The x-coordinate as passed to {@link HexGame#placeToken(int, int)}.
+     * @param y The y-coordinate as passed to {@link HexGame#placeToken(int, int)}.
+     * @author utobm
+     * @version 1.0
+     */
+    record Place(int x, int y) implements Move {
+    }
+
+    /**
+     * Represents swapping the tokens of the players after the first move.
+     *
+     * @author utobm
+     * @version 1.0
+     */
+    record Swap() implements Move {
+    }
+}
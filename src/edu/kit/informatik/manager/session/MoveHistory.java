@@ -0,0 +1,209 @@
+package edu.kit.informatik.manager.session;
+
+
+import edu.kit.informatik.util.vector.Vector2D;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Represents the moves of a game of Hex in the order in which they were made.
+ * A move is stored as the index {@code x * size + y} of its cell in a growable array of ints, where x and y are the
+ * coordinates passed to {@link HexGame#placeToken(int, int)}, so a move takes four bytes instead of a record with a
+ * player reference and a boxed vector.
+ *
+ * <p>The player of a move is not stored either: the two players move in turn, so the first player makes the even
+ * moves and the second player the odd ones. After a swap, the first move is attributed to the second player, which
+ * shifts the attribution of every move by one. This makes the player of any move and the k-th most recent move of a
+ * player a constant-time lookup.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class MoveHistory {
+    private static final int NUMBER_OF_PLAYERS = 2;
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * The value returned by {@link #getLastCellOfPlayer(int, int)} if the player has not made that many moves.
+     */
+    public static final int NO_MOVE = -1;
+
+    private final int size;
+    private int[] cells;
+    private int count;
+    /**
+     * The index of the player the first move is attributed to.
+     */
+    private int firstMovePlayer;
+
+    /**
+     * Constructs a new empty history for a board of the given size.
+     *
+     * @param size The size of the board.
+     */
+    public MoveHistory(int size) {
+        this.size = size;
+        this.cells = new int[Math.min(INITIAL_CAPACITY, size * size)];
+    }
+
+    /**
+     * Copy constructor creating an independent history with the same moves.
+     *
+     * @param history The history to copy.
+     */
+    private MoveHistory(MoveHistory history) {
+        this.size = history.size;
+        this.cells = Arrays.copyOf(history.cells, Math.max(history.count, Math.min(INITIAL_CAPACITY,
+                size * size)));
+        this.count = history.count;
+        this.firstMovePlayer = history.firstMovePlayer;
+    }
+
+    /**
+     * Returns the number of moves.
+     *
+     * @return The number of moves.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Checks whether no move has been made.
+     *
+     * @return True if the history is empty, otherwise false.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the cell index of the move with the given index.
+     *
+     * @param index The index of the move, 0 for the first move.
+     * @return The cell index {@code x * size + y}.
+     * @throws IndexOutOfBoundsException If there is no move with the given index.
+     */
+    public int getCell(int index) {
+        return cells[checkIndex(index)];
+    }
+
+    /**
+     * Returns the position of the move with the given index.
+     *
+     * @param index The index of the move, 0 for the first move.
+     * @return The position in the coordinates passed to {@link HexGame#placeToken(int, int)}.
+     * @throws IndexOutOfBoundsException If there is no move with the given index.
+     */
+    public Vector2D getVector(int index) {
+        return toVector(getCell(index));
+    }
+
+    /**
+     * Returns the index of the player the move with the given index is attributed to.
+     *
+     * @param index The index of the move, 0 for the first move.
+     * @return The index of the player in the order in which the players started.
+     * @throws IndexOutOfBoundsException If there is no move with the given index.
+     */
+    public int getPlayerIndex(int index) {
+        return (checkIndex(index) + firstMovePlayer) % NUMBER_OF_PLAYERS;
+    }
+
+    /**
+     * Returns a move of the given player, counted backwards from the most recent one.
+     *
+     * @param playerIndex The index of the player in the order in which the players started.
+     * @param pastMoves   The number of moves of the player to go back, 0 for the player's most recent move.
+     * @return The cell index of the move, or {@link #NO_MOVE} if the player has not made that many moves.
+     */
+    public int getLastCellOfPlayer(int playerIndex, int pastMoves) {
+        if (count == 0 || pastMoves < 0) {
+            return NO_MOVE;
+        }
+        int latest = count - 1;
+        if ((latest + firstMovePlayer) % NUMBER_OF_PLAYERS != playerIndex) {
+            latest--;
+        }
+        long index = latest - (long) NUMBER_OF_PLAYERS * pastMoves;
+        return (index >= 0) ? cells[(int) index] : NO_MOVE;
+    }
+
+    /**
+     * Converts a cell index of this history into a position.
+     *
+     * @param cell The cell index {@code x * size + y}.
+     * @return The position in the coordinates passed to {@link HexGame#placeToken(int, int)}.
+     */
+    public Vector2D toVector(int cell) {
+        return new Vector2D(cell / size, cell % size);
+    }
+
+    /**
+     * Estimates the bytes the history of a game on a board of the given size takes at most, which is one cell
+     * index per cell of the board.
+     *
+     * @param size The size of the board.
+     * @return The estimated number of bytes.
+     */
+    public static long estimateBytes(int size) {
+        return (long) size * size * Integer.BYTES;
+    }
+
+    /**
+     * Returns the cell indices of all moves.
+     *
+     * @return A new array with the cell indices in the order in which the moves were made.
+     */
+    public int[] toCells() {
+        return Arrays.copyOf(cells, count);
+    }
+
+    /**
+     * Appends a move of the player whose turn it is.
+     *
+     * @param x The x-coordinate passed to {@link HexGame#placeToken(int, int)}.
+     * @param y The y-coordinate passed to {@link HexGame#placeToken(int, int)}.
+     */
+    void add(int x, int y) {
+        if (count == cells.length) {
+            // A game has at most one move per cell
+            cells = Arrays.copyOf(cells, (int) Math.min((long) size * size, Math.max(1L, 2L * cells.length)));
+        }
+        cells[count++] = x * size + y;
+    }
+
+    /**
+     * Releases the unused capacity of the history, for example once the game is over.
+     */
+    void trimToSize() {
+        cells = Arrays.copyOf(cells, count);
+    }
+
+    /**
+     * Attributes the first move to the other player, as happens when the players swap their tokens.
+     */
+    void swapFirstMove() {
+        firstMovePlayer = NUMBER_OF_PLAYERS - 1 - firstMovePlayer;
+    }
+
+    /**
+     * Creates an independent copy of this history.
+     *
+     * @return The copy.
+     */
+    MoveHistory copy() {
+        return new MoveHistory(this);
+    }
+
+    /**
+     * Checks that a move with the given index exists.
+     *
+     * @param index The index of the move.
+     * @return The index.
+     * @throws IndexOutOfBoundsException If there is no move with the given index.
+     */
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, count);
+    }
+}
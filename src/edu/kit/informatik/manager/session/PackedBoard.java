@@ -0,0 +1,322 @@
+package edu.kit.informatik.manager.session;
+
+
+/**
+ * Represents the cells of a board packed into a {@code long[]} with two bits per cell.
+ * A cell is either {@link #EMPTY}, holds a token of {@link #X} or {@link #O}, or lies {@link #OFF} the board.
+ *
+ * <p>The board is surrounded by a border of two cells on each side, so that the neighbours and the bridge partners
+ * of every cell can be read without any bounds checks. The border above and below the board is filled with
+ * {@code X} and the border left and right of it with {@code O}, since these are the edges each player connects.
+ * To the players the border therefore looks like a row of their own stones, which lets patterns cover the edges
+ * as well. Only the corners of the border are {@code OFF}.</p>
+ *
+ * <p>Cells are addressed by their index in the padded board, which {@link #index(int, int)} computes. The six
+ * neighbours of a cell are ordered clockwise starting above it, so that consecutive neighbours are adjacent to
+ * each other. The bridge partner {@code i} is the cell adjacent to both neighbours {@code i} and {@code i + 1}.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class PackedBoard {
+    /**
+     * The state of an empty cell.
+     */
+    public static final int EMPTY = 0;
+    /**
+     * The state of a cell holding a token {@code X}.
+     */
+    public static final int X = 1;
+    /**
+     * The state of a cell holding a token {@code O}.
+     */
+    public static final int O = 2;
+    /**
+     * The state of a cell that belongs to no player.
+     */
+    public static final int OFF = 3;
+    /**
+     * The number of neighbours, and of bridge partners, of a cell.
+     */
+    public static final int RING_SIZE = 6;
+    /**
+     * The number of bits describing the state of a cell.
+     */
+    public static final int BITS_PER_CELL = 2;
+
+    /**
+     * The bits of a word describing the state of the lowest cell.
+     */
+    static final int CELL_MASK = (1 << BITS_PER_CELL) - 1;
+    private static final int CELLS_PER_WORD = Long.SIZE / BITS_PER_CELL;
+    /**
+     * Divides an index by the cells per word, giving the word holding the cell.
+     */
+    static final int WORD_SHIFT = 5;
+    /**
+     * Multiplies an index by the bits per cell, giving the position of the cell's bits within its word.
+     */
+    static final int CELL_SHIFT = 1;
+    /**
+     * The number of cells of the border on each side of the board.
+     */
+    static final int BORDER = 2;
+    /**
+     * The row offsets of the neighbours, clockwise starting above the cell.
+     */
+    private static final int[] NEIGHBOUR_ROWS = {-1, -1, 0, 1, 1, 0};
+    /**
+     * The column offsets of the neighbours, clockwise starting above the cell.
+     */
+    private static final int[] NEIGHBOUR_COLUMNS = {0, 1, 1, 0, -1, -1};
+
+    private final int size;
+    /**
+     * The number of cells in a padded row.
+     */
+    private final int stride;
+    /**
+     * The states of the cells, {@code CELLS_PER_WORD} per long.
+     */
+    private final long[] words;
+    /**
+     * The index offsets of the neighbours of a cell.
+     */
+    private final int[] neighbourOffsets = new int[RING_SIZE];
+    /**
+     * The index offsets of the bridge partners of a cell.
+     */
+    private final int[] bridgeOffsets = new int[RING_SIZE];
+
+    /**
+     * Constructs a new board whose cells are all empty.
+     *
+     * @param size The size of the board.
+     */
+    public PackedBoard(int size) {
+        this.size = size;
+        this.stride = size + 2 * BORDER;
+        this.words = new long[wordCount(size)];
+        initializeOffsets();
+        initializeBorder();
+    }
+
+    /**
+     * Computes the number of words holding the cells of a board of the given size, including the border.
+     *
+     * @param size The size of the board.
+     * @return The number of words.
+     */
+    static int wordCount(int size) {
+        int stride = size + 2 * BORDER;
+        return (stride * stride + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+    }
+
+    /**
+     * Copy constructor creating an independent board with the same cells.
+     *
+     * @param board The board to copy.
+     */
+    private PackedBoard(PackedBoard board) {
+        this.size = board.size;
+        this.stride = board.stride;
+        this.words = board.words.clone();
+        initializeOffsets();
+    }
+
+    /**
+     * Constructs a board from the words of another board of the same size, which it takes over.
+     *
+     * @param size  The size of the board.
+     * @param words The states of the cells, including the border.
+     */
+    PackedBoard(int size, long[] words) {
+        this.size = size;
+        this.stride = size + 2 * BORDER;
+        this.words = words;
+        initializeOffsets();
+    }
+
+    /**
+     * Computes the index offsets of the neighbours and bridge partners for the padded row length.
+     */
+    private void initializeOffsets() {
+        for (int i = 0; i < RING_SIZE; i++) {
+            int next = (i + 1) % RING_SIZE;
+            neighbourOffsets[i] = NEIGHBOUR_ROWS[i] * stride + NEIGHBOUR_COLUMNS[i];
+            bridgeOffsets[i] = (NEIGHBOUR_ROWS[i] + NEIGHBOUR_ROWS[next]) * stride
+                    + NEIGHBOUR_COLUMNS[i] + NEIGHBOUR_COLUMNS[next];
+        }
+    }
+
+    /**
+     * Fills the border with the edges of the players and marks the corners as off the board.
+     */
+    private void initializeBorder() {
+        for (int offset = 0; offset < BORDER; offset++) {
+            int[] borderLines = {-1 - offset, size + offset};
+            for (int line : borderLines) {
+                for (int i = -BORDER; i < size + BORDER; i++) {
+                    boolean corner = i < 0 || i >= size;
+                    set(index(line, i), corner ? OFF : X);
+                    set(index(i, line), corner ? OFF : O);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the size of the board without the border.
+     *
+     * @return The size of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of cells of the padded board, which bounds every index.
+     *
+     * @return The number of cells including the border.
+     */
+    public int getCapacity() {
+        return stride * stride;
+    }
+
+    /**
+     * Computes the index of a cell in the padded board.
+     *
+     * @param row    The row of the cell, between -2 and {@code size + 1}.
+     * @param column The column of the cell, between -2 and {@code size + 1}.
+     * @return The index of the cell.
+     */
+    public int index(int row, int column) {
+        return (row + BORDER) * stride + column + BORDER;
+    }
+
+    /**
+     * Computes the row of a cell on the board from its index.
+     *
+     * @param index The index of the cell.
+     * @return The row of the cell.
+     */
+    public int row(int index) {
+        return index / stride - BORDER;
+    }
+
+    /**
+     * Computes the column of a cell on the board from its index.
+     *
+     * @param index The index of the cell.
+     * @return The column of the cell.
+     */
+    public int column(int index) {
+        return index % stride - BORDER;
+    }
+
+    /**
+     * Returns the state of a cell.
+     *
+     * @param index The index of the cell.
+     * @return The state of the cell.
+     */
+    public int get(int index) {
+        // Shifts of a long only use the lowest six bits of the distance, which select the cell within the word
+        return (int) (words[index >>> WORD_SHIFT] >>> (index << CELL_SHIFT)) & CELL_MASK;
+    }
+
+    /**
+     * Sets the state of a cell.
+     *
+     * @param index The index of the cell.
+     * @param state The new state of the cell.
+     */
+    public void set(int index, int state) {
+        int shift = index << CELL_SHIFT;
+        int word = index >>> WORD_SHIFT;
+        words[word] = words[word] & ~((long) CELL_MASK << shift) | (long) state << shift;
+    }
+
+    /**
+     * Returns the index offset of a neighbour.
+     *
+     * @param direction The number of the neighbour, between 0 and 5.
+     * @return The difference between the index of the neighbour and the index of the cell.
+     */
+    public int getNeighbourOffset(int direction) {
+        return neighbourOffsets[direction];
+    }
+
+    /**
+     * Returns the index offset of a bridge partner.
+     *
+     * @param direction The number of the bridge partner, between 0 and 5.
+     * @return The difference between the index of the bridge partner and the index of the cell.
+     */
+    public int getBridgeOffset(int direction) {
+        return bridgeOffsets[direction];
+    }
+
+    /**
+     * Reads the states of the six neighbours of a cell, two bits each, neighbour 0 in the lowest bits.
+     *
+     * @param index The index of a cell on the board.
+     * @return The state of the neighbourhood, between 0 and 4095.
+     */
+    public int neighbourhood(int index) {
+        return ring(index, neighbourOffsets);
+    }
+
+    /**
+     * Reads the states of the six bridge partners of a cell, two bits each, partner 0 in the lowest bits.
+     *
+     * @param index The index of a cell on the board.
+     * @return The state of the bridge partners, between 0 and 4095.
+     */
+    public int bridgePartners(int index) {
+        return ring(index, bridgeOffsets);
+    }
+
+    /**
+     * Reads the states of six cells around a cell, two bits each, the first cell in the lowest bits.
+     *
+     * @param index   The index of a cell on the board.
+     * @param offsets The index offsets of the six cells.
+     * @return The states of the cells, between 0 and 4095.
+     */
+    private int ring(int index, int[] offsets) {
+        return get(index + offsets[0])
+                | get(index + offsets[1]) << BITS_PER_CELL
+                | get(index + offsets[2]) << 2 * BITS_PER_CELL
+                | get(index + offsets[3]) << 3 * BITS_PER_CELL
+                | get(index + offsets[4]) << 4 * BITS_PER_CELL
+                | get(index + offsets[5]) << 5 * BITS_PER_CELL;
+    }
+
+    /**
+     * Copies the cells of another board of the same size into this board, without allocating anything.
+     *
+     * @param board The board to copy from.
+     */
+    public void copyFrom(PackedBoard board) {
+        System.arraycopy(board.words, 0, words, 0, words.length);
+    }
+
+    /**
+     * Returns the words holding the states of the cells, which must not be modified.
+     *
+     * @return The words of the board.
+     */
+    long[] getWords() {
+        return words;
+    }
+
+    /**
+     * Creates an independent copy of the board.
+     *
+     * @return A new board with the same cells.
+     */
+    public PackedBoard copy() {
+        return new PackedBoard(this);
+    }
+}
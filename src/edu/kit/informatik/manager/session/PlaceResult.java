@@ -0,0 +1,48 @@
+package edu.kit.informatik.manager.session;
+
+
+/**
+ * Defines the codes that report the outcome of placing a token without printing anything.
+ * The codes are small non-negative ints, so that the outcomes of many placements are kept in a plain array and
+ * printed compactly.
+ * Only {@link #PLACED} and {@link #WON} mean that the token has been placed.
+ *
+ * <p>This class should not be instantiated, and all fields are static for utility purposes.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class PlaceResult {
+    /**
+     * The token has been placed and the game goes on.
+     */
+    public static final int PLACED = 0;
+    /**
+     * The token has been placed and has won the game.
+     */
+    public static final int WON = 1;
+    /**
+     * The position is already occupied by a token.
+     */
+    public static final int NOT_EMPTY = 2;
+    /**
+     * The position is outside of the board.
+     */
+    public static final int OUT_OF_BOUNDS = 3;
+    /**
+     * The game has already been won.
+     */
+    public static final int GAME_ALREADY_WON = 4;
+    /**
+     * There is no game with the given name.
+     */
+    public static final int GAME_NOT_FOUND = 5;
+    /**
+     * An AI player is to move in the game, so the token is not placed for it.
+     */
+    public static final int AI_TO_MOVE = 6;
+
+    private PlaceResult() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+}
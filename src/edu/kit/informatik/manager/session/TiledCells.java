@@ -0,0 +1,176 @@
+package edu.kit.informatik.manager.session;
+
+
+import java.util.Arrays;
+
+/**
+ * Represents the cells of a board in the layout of a {@link PackedBoard}, with the words split into tiles that are
+ * shared copy-on-write between forks.
+ *
+ * <p>Forking a board only copies the references to its tiles, and a tile is copied the first time either the fork
+ * or the original changes one of its cells. A fork in which a few tokens are placed therefore takes a few tiles of
+ * memory instead of a copy of the whole board. Tiles that hold no token when the cells are created all refer to the
+ * same empty tile, so an empty board only allocates the tiles along its border.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+final class TiledCells {
+    /**
+     * Divides the index of a word by the words per tile, giving the tile holding the word.
+     */
+    private static final int TILE_SHIFT = 11;
+    private static final int WORDS_PER_TILE = 1 << TILE_SHIFT;
+    private static final int WORD_MASK = WORDS_PER_TILE - 1;
+    /**
+     * The tile referred to by all tiles without a token when the cells are created, which is never changed.
+     */
+    private static final long[] EMPTY_TILE = new long[WORDS_PER_TILE];
+
+    private final int size;
+    /**
+     * The number of cells in a padded row.
+     */
+    private final int stride;
+    /**
+     * The number of words of a {@link PackedBoard} of the same size.
+     */
+    private final int wordCount;
+    private final long[][] tiles;
+    /**
+     * Whether the tile with the same index belongs to these cells alone and may be changed in place.
+     */
+    private final boolean[] ownedTiles;
+
+    /**
+     * Constructs the cells of an empty board of the given size.
+     *
+     * @param size The size of the board.
+     */
+    TiledCells(int size) {
+        this.size = size;
+        this.stride = size + 2 * PackedBoard.BORDER;
+        long[] words = new PackedBoard(size).getWords();
+        this.wordCount = words.length;
+        this.tiles = new long[(wordCount + WORDS_PER_TILE - 1) >>> TILE_SHIFT][];
+        this.ownedTiles = new boolean[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            long[] tile = Arrays.copyOfRange(words, i << TILE_SHIFT, (i + 1) << TILE_SHIFT);
+            boolean empty = Arrays.equals(tile, EMPTY_TILE);
+            tiles[i] = empty ? EMPTY_TILE : tile;
+            ownedTiles[i] = !empty;
+        }
+    }
+
+    /**
+     * Copy constructor creating cells that share all tiles with the given cells.
+     *
+     * @param cells The cells to fork.
+     */
+    private TiledCells(TiledCells cells) {
+        this.size = cells.size;
+        this.stride = cells.stride;
+        this.wordCount = cells.wordCount;
+        this.tiles = cells.tiles.clone();
+        this.ownedTiles = new boolean[tiles.length];
+    }
+
+    /**
+     * Returns the state of a cell on the board.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @return The state of the cell, as in a {@link PackedBoard}.
+     */
+    int get(int row, int column) {
+        int index = index(row, column);
+        int word = index >>> PackedBoard.WORD_SHIFT;
+        return (int) (tiles[word >>> TILE_SHIFT][word & WORD_MASK] >>> (index << PackedBoard.CELL_SHIFT))
+                & PackedBoard.CELL_MASK;
+    }
+
+    /**
+     * Sets the state of a cell on the board, copying its tile first if it is shared.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @param state  The new state of the cell, as in a {@link PackedBoard}.
+     */
+    void set(int row, int column, int state) {
+        int index = index(row, column);
+        int word = index >>> PackedBoard.WORD_SHIFT;
+        int tileIndex = word >>> TILE_SHIFT;
+        if (!ownedTiles[tileIndex]) {
+            tiles[tileIndex] = tiles[tileIndex].clone();
+            ownedTiles[tileIndex] = true;
+        }
+        long[] tile = tiles[tileIndex];
+        int shift = index << PackedBoard.CELL_SHIFT;
+        tile[word & WORD_MASK] = tile[word & WORD_MASK] & ~((long) PackedBoard.CELL_MASK << shift)
+                | (long) state << shift;
+    }
+
+    /**
+     * Creates cells that share all tiles with these cells, in time proportional to the number of tiles.
+     * From then on, these cells copy a tile before changing it as well.
+     *
+     * @return The forked cells.
+     */
+    TiledCells fork() {
+        Arrays.fill(ownedTiles, false);
+        return new TiledCells(this);
+    }
+
+    /**
+     * Creates an independent copy of the cells that shares no tile with them.
+     *
+     * @return The copied cells.
+     */
+    TiledCells copy() {
+        TiledCells copy = new TiledCells(this);
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] != EMPTY_TILE) {
+                copy.tiles[i] = tiles[i].clone();
+                copy.ownedTiles[i] = true;
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Estimates the bytes the cells of a board of the given size take at most, once every tile holds a token and
+     * belongs to the board alone.
+     *
+     * @param size The size of the board.
+     * @return The estimated number of bytes.
+     */
+    static long estimateBytes(int size) {
+        long tileCount = (PackedBoard.wordCount(size) + WORDS_PER_TILE - 1) >>> TILE_SHIFT;
+        return tileCount * ((long) WORDS_PER_TILE * Long.BYTES + Long.BYTES + 1);
+    }
+
+    /**
+     * Assembles the tiles into a packed board.
+     *
+     * @return A new packed board with the same cells.
+     */
+    PackedBoard toPackedBoard() {
+        long[] words = new long[wordCount];
+        for (int i = 0; i < tiles.length; i++) {
+            int start = i << TILE_SHIFT;
+            System.arraycopy(tiles[i], 0, words, start, Math.min(WORDS_PER_TILE, wordCount - start));
+        }
+        return new PackedBoard(size, words);
+    }
+
+    /**
+     * Computes the index of a cell in the padded layout of a {@link PackedBoard}.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @return The index of the cell.
+     */
+    private int index(int row, int column) {
+        return (row + PackedBoard.BORDER) * stride + column + PackedBoard.BORDER;
+    }
+}
@@ -0,0 +1,310 @@
+package edu.kit.informatik.server;
+
+
+import edu.kit.informatik.entity.ai.AIPlayer;
+import edu.kit.informatik.manager.AIMove;
+import edu.kit.informatik.manager.AIMoveScheduler;
+import edu.kit.informatik.manager.GameManager;
+import edu.kit.informatik.manager.GameRegistry;
+import edu.kit.informatik.manager.exceptions.GameAlreadyWonException;
+import edu.kit.informatik.manager.exceptions.NotEmptyException;
+import edu.kit.informatik.manager.exceptions.OutOfBoundsException;
+import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.ui.CommandDispatcher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.BiConsumer;
+
+/**
+ * Represents the session of one client connected to the {@link GameServer}.
+ * The client speaks the same line protocol as the console: it sends one command per line and receives the output
+ * and the error messages of the commands in one stream. Each client has a game manager of its own, and therefore
+ * its own current game, while the games themselves live in the registry shared by all clients.
+ *
+ * <p>All methods are called on the thread of the server's selector. The commands of a client are executed in the
+ * order in which they arrive, and a command waits until the pending AI moves of the client, in its current game or
+ * in the games of a batch of placements, have been applied, which gives the same output as on the console. The output is collected in a buffer and written to the
+ * channel once all input at hand has been processed.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+final class ClientConnection {
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    /**
+     * The number of unsent output bytes from which no further input of the client is read.
+     */
+    private static final int MAX_PENDING_OUTPUT = 1 << 20;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final AIMoveScheduler scheduler;
+    private final BiConsumer<ClientConnection, AIMove> onAIMove;
+    /**
+     * Collects the output of the commands until it is sent.
+     */
+    private final ByteArrayOutputStream outputBuffer = new ByteArrayOutputStream();
+    /**
+     * Collects the bytes of the line that is being received.
+     */
+    private final ByteArrayOutputStream lineBuffer = new ByteArrayOutputStream();
+    /**
+     * The output that has been taken from the buffer but not yet written to the channel.
+     */
+    private final Deque<ByteBuffer> pendingOutput = new ArrayDeque<>();
+    /**
+     * The input lines that have been received but not yet executed.
+     */
+    private final Deque<String> backlog = new ArrayDeque<>();
+    private final GameManager gameManager;
+    private final CommandDispatcher dispatcher;
+    private int pendingOutputBytes;
+    /**
+     * The number of AI moves scheduled for this client that have not been applied yet.
+     */
+    private int pendingAIMoves;
+    private boolean quit;
+    private boolean inputEnded;
+    private boolean closed;
+
+    /**
+     * Constructs the session of a newly connected client and greets it with its default game.
+     *
+     * @param channel   The channel of the client.
+     * @param key       The key of the channel at the server's selector.
+     * @param registry  The registry holding the games of all clients.
+     * @param print     Flag indicating whether to print the game board after each move.
+     * @param scheduler The scheduler computing the moves of the AI players of all clients.
+     * @param onAIMove  The callback receiving the moves computed for this client on a background thread.
+     */
+    ClientConnection(SocketChannel channel, SelectionKey key, GameRegistry registry, boolean print,
+                     AIMoveScheduler scheduler, BiConsumer<ClientConnection, AIMove> onAIMove) {
+        this.channel = channel;
+        this.key = key;
+        this.scheduler = scheduler;
+        this.onAIMove = onAIMove;
+        PrintStream output = new PrintStream(outputBuffer, false, StandardCharsets.UTF_8);
+        this.gameManager = new GameManager(registry, print, output, output, StandardCharsets.UTF_8);
+        this.dispatcher = new CommandDispatcher(gameManager, () -> quit = true);
+    }
+
+    /**
+     * Splits the received bytes into lines and executes them.
+     *
+     * @param input The received bytes, between the position and the limit of the buffer.
+     * @throws IOException If the output cannot be written to the channel.
+     */
+    void receive(ByteBuffer input) throws IOException {
+        while (input.hasRemaining()) {
+            byte next = input.get();
+            if (next == LINE_FEED) {
+                backlog.add(takeLine());
+            } else {
+                lineBuffer.write(next);
+            }
+        }
+        process();
+    }
+
+    /**
+     * Marks the end of the client's input. A last line without a line break is still executed, and the
+     * connection is closed once all lines have been executed.
+     *
+     * @throws IOException If the output cannot be written to the channel.
+     */
+    void endInput() throws IOException {
+        if (lineBuffer.size() > 0) {
+            backlog.add(takeLine());
+        }
+        inputEnded = true;
+        process();
+    }
+
+    /**
+     * Returns the line collected so far and starts a new one. A trailing carriage return is removed.
+     *
+     * @return The line.
+     */
+    private String takeLine() {
+        String line = lineBuffer.toString(StandardCharsets.UTF_8);
+        lineBuffer.reset();
+        if (!line.isEmpty() && line.charAt(line.length() - 1) == CARRIAGE_RETURN) {
+            return line.substring(0, line.length() - 1);
+        }
+        return line;
+    }
+
+    /**
+     * Executes the received lines until a line has to wait for a pending AI move, schedules the next AI move of
+     * the current game and of the games in which a batch of placements has left an AI to move, and sends the output.
+     *
+     * @throws IOException If the output cannot be written to the channel.
+     */
+    void process() throws IOException {
+        if (closed) {
+            return;
+        }
+        while (!quit) {
+            scheduleAIMove(gameManager.getCurrentGame());
+            gameManager.drainGamesAwaitingAI(this::scheduleAIMove);
+            if (backlog.isEmpty() || pendingAIMoves > 0) {
+                break;
+            }
+            dispatcher.execute(backlog.poll());
+        }
+        flush();
+        if (quit || (inputEnded && backlog.isEmpty() && pendingAIMoves == 0)) {
+            closeWhenSent();
+        }
+    }
+
+    /**
+     * Checks whether the client has received lines that wait for an AI move.
+     *
+     * @return True if lines are waiting, otherwise false.
+     */
+    boolean isWaiting() {
+        return !closed && !backlog.isEmpty();
+    }
+
+    /**
+     * Schedules the next move of the AI in the given game if it is the AI's turn.
+     *
+     * @param game The game in which the AI may be about to move.
+     */
+    private void scheduleAIMove(HexGame game) {
+        if (game.getWinningPlayer() == null && game.getCurrentPlayer() instanceof AIPlayer
+                && !scheduler.isPending(game)) {
+            if (scheduler.schedule(game, move -> onAIMove.accept(this, move))) {
+                pendingAIMoves++;
+            }
+        }
+    }
+
+    /**
+     * Applies a move that an AI has computed for this client, unless its game has changed in the meantime.
+     * A move of the current game is executed like a command, a move of another game or of a closed connection is
+     * applied without output.
+     *
+     * @param move The computed move.
+     * @throws IOException If the output cannot be written to the channel.
+     */
+    void applyAIMove(AIMove move) throws IOException {
+        HexGame game = move.game();
+        try {
+            if (move.isApplicable(gameManager.getRegistry())) {
+                if (!closed && game == gameManager.getCurrentGame()) {
+                    dispatcher.execute(move.move());
+                } else {
+                    applyQuietly(move);
+                }
+            }
+        } finally {
+            // The game must not stay pinned if the move fails
+            scheduler.finish(game);
+            pendingAIMoves--;
+        }
+        process();
+    }
+
+    /**
+     * Applies the given move to its game without printing anything.
+     *
+     * @param move The computed move.
+     */
+    private void applyQuietly(AIMove move) {
+        try {
+            move.apply();
+        } catch (NotEmptyException | GameAlreadyWonException | OutOfBoundsException e) {
+            // This shouldn't happen since the AI only chooses valid moves
+        }
+    }
+
+    /**
+     * Moves the collected output to the queue of pending output and writes as much of it as the channel accepts.
+     * While too much output is pending, no further input is read from the client.
+     *
+     * @throws IOException If the output cannot be written to the channel.
+     */
+    private void flush() throws IOException {
+        if (outputBuffer.size() > 0) {
+            pendingOutput.add(ByteBuffer.wrap(outputBuffer.toByteArray()));
+            pendingOutputBytes += outputBuffer.size();
+            outputBuffer.reset();
+        }
+        write();
+    }
+
+    /**
+     * Writes the pending output until it has been sent or the channel does not accept more.
+     * Called when the channel becomes writable again.
+     *
+     * @throws IOException If the output cannot be written to the channel.
+     */
+    void write() throws IOException {
+        while (!pendingOutput.isEmpty()) {
+            ByteBuffer next = pendingOutput.peek();
+            pendingOutputBytes -= channel.write(next);
+            if (next.hasRemaining()) {
+                break;
+            }
+            pendingOutput.poll();
+        }
+        if (!key.isValid()) {
+            return;
+        }
+        int interest = pendingOutput.isEmpty() ? 0 : SelectionKey.OP_WRITE;
+        if (!closed && !quit && !inputEnded && pendingOutputBytes < MAX_PENDING_OUTPUT) {
+            interest |= SelectionKey.OP_READ;
+        }
+        key.interestOps(interest);
+        if (closed && pendingOutput.isEmpty()) {
+            close();
+        }
+    }
+
+    /**
+     * Stops reading from the client and closes the connection as soon as the pending output has been sent.
+     *
+     * @throws IOException If the output cannot be written to the channel.
+     */
+    private void closeWhenSent() throws IOException {
+        closed = true;
+        write();
+    }
+
+    /**
+     * Checks whether the connection to the client is still open.
+     *
+     * @return True if the channel is open, otherwise false.
+     */
+    boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    /**
+     * Closes the connection right away, discarding pending output, and releases the current game of the client.
+     * Pending AI moves of the client are still applied to their games when they arrive.
+     */
+    void close() {
+        if (!closed) {
+            gameManager.close();
+        }
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // The connection is gone either way
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package edu.kit.informatik.server;
+
+
+import edu.kit.informatik.manager.AIMove;
+import edu.kit.informatik.manager.AIMoveScheduler;
+import edu.kit.informatik.manager.GameRegistry;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hosts the games of many clients in one process. The clients connect to a local TCP port or a Unix domain socket
+ * and speak the same line protocol as the console, see {@link ClientConnection}.
+ *
+ * <p>All connections are served by a single thread with a {@link Selector}, so the number of clients is not bounded
+ * by the number of threads. The moves of AI players are computed on the background threads of one shared
+ * {@link AIMoveScheduler} and handed back to the selector thread, which applies them. All games live in one
+ * {@link GameRegistry}, so a client may switch to a game created by another client.</p>
+ *
+ * <p>A client whose connection or commands fail, even with an unexpected runtime exception, is disconnected on its
+ * own, while the server keeps serving the other clients.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class GameServer {
+    private static final int READ_BUFFER_SIZE = 1 << 13;
+    private static final int MAX_PORT = 65535;
+    private static final String PORT_REGEX = "\\d+";
+    private static final String LISTENING_FORMAT = "Listening on %s%n";
+    private static final String INVALID_ADDRESS_ERROR = "Error: Invalid port or socket path.";
+    private static final String SOCKET_EXISTS_ERROR = "Error: The socket file already exists.";
+    private static final String SERVER_ERROR = "Error: The server stopped: %s%n";
+    private static final String CLIENT_ERROR = "Error: A client has been disconnected: %s%n";
+
+    private final GameRegistry registry;
+    private final boolean print;
+    private final AIMoveScheduler scheduler;
+    /**
+     * The AI moves that have been computed but not yet applied, together with the client they were computed for.
+     */
+    private final Queue<CompletedMove> completedMoves = new ConcurrentLinkedQueue<>();
+    /**
+     * The connections that are open, only accessed on the selector thread.
+     */
+    private final Set<ClientConnection> connections = new HashSet<>();
+    /**
+     * The buffer receiving the input of all clients, since the input is handled one client at a time.
+     */
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private Selector selector;
+
+    /**
+     * Constructs a new server hosting the games of the given registry.
+     *
+     * @param registry The registry holding the games.
+     * @param print    Flag indicating whether to print the game board after each move.
+     */
+    public GameServer(GameRegistry registry, boolean print) {
+        this.registry = registry;
+        this.print = print;
+        this.scheduler = new AIMoveScheduler(registry);
+    }
+
+    /**
+     * Parses the address the server listens on: a port number listens on the loopback interface, anything else is
+     * the path of a Unix domain socket.
+     *
+     * @param address The port number or the socket path.
+     * @return The address, or null if the port number is out of range.
+     */
+    public static SocketAddress parseAddress(String address) {
+        if (!address.matches(PORT_REGEX)) {
+            return UnixDomainSocketAddress.of(address);
+        }
+        int port;
+        try {
+            port = Integer.parseInt(address);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return (port <= MAX_PORT) ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port) : null;
+    }
+
+    /**
+     * Listens on the given address and serves the clients until the thread is interrupted or the process ends.
+     * The file of a Unix domain socket is removed in either case. Errors are printed to the error stream.
+     *
+     * @param address The port number or the path of the Unix domain socket.
+     */
+    public void serve(String address) {
+        SocketAddress socketAddress = parseAddress(address);
+        if (socketAddress == null) {
+            System.err.println(INVALID_ADDRESS_ERROR);
+            return;
+        }
+        Path socketFile = (socketAddress instanceof UnixDomainSocketAddress unix) ? unix.getPath() : null;
+        if (socketFile != null && Files.exists(socketFile)) {
+            System.err.println(SOCKET_EXISTS_ERROR);
+            return;
+        }
+        Thread cleanup = new Thread(() -> deleteSocketFile(socketFile));
+        Runtime.getRuntime().addShutdownHook(cleanup);
+        try (Selector opened = Selector.open(); ServerSocketChannel server = openChannel(socketAddress)) {
+            this.selector = opened;
+            server.bind(socketAddress);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            System.out.printf(LISTENING_FORMAT, server.getLocalAddress());
+            loop(server);
+        } catch (IOException e) {
+            System.err.printf(SERVER_ERROR, e.getMessage());
+        } finally {
+            scheduler.shutdown();
+            connections.forEach(ClientConnection::close);
+            deleteSocketFile(socketFile);
+        }
+    }
+
+    /**
+     * Opens a server channel of the protocol family of the given address.
+     *
+     * @param address The address to listen on.
+     * @return The unbound channel.
+     * @throws IOException If the channel cannot be opened.
+     */
+    private static ServerSocketChannel openChannel(SocketAddress address) throws IOException {
+        return (address instanceof UnixDomainSocketAddress)
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+    }
+
+    /**
+     * Removes the file of a Unix domain socket after the server has stopped.
+     *
+     * @param socketFile The socket file, or null if the server listened on a TCP port.
+     */
+    private static void deleteSocketFile(Path socketFile) {
+        if (socketFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(socketFile);
+        } catch (IOException e) {
+            // A stale socket file only prevents the next start on the same path
+        }
+    }
+
+    /**
+     * Waits for events on the channels and the computed AI moves and handles them, until the thread is
+     * interrupted.
+     *
+     * @param server The channel accepting new clients.
+     * @throws IOException If the selector fails.
+     */
+    private void loop(ServerSocketChannel server) throws IOException {
+        while (!Thread.currentThread().isInterrupted()) {
+            selector.select();
+            applyCompletedMoves();
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (key.isValid() && key.isAcceptable()) {
+                    accept(server);
+                    continue;
+                }
+                ClientConnection connection = (ClientConnection) key.attachment();
+                handle(connection, () -> {
+                    if (key.isValid() && key.isWritable()) {
+                        connection.write();
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        read((SocketChannel) key.channel(), connection);
+                    }
+                });
+            }
+            connections.removeIf(connection -> !connection.isOpen());
+        }
+    }
+
+    /**
+     * Accepts a new client and greets it.
+     *
+     * @param server The channel accepting new clients.
+     * @throws IOException If the selector fails.
+     */
+    private void accept(ServerSocketChannel server) throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        ClientConnection connection = new ClientConnection(channel, key, registry, print, scheduler,
+                (client, move) -> {
+                    completedMoves.add(new CompletedMove(client, move));
+                    selector.wakeup();
+                });
+        key.attach(connection);
+        connections.add(connection);
+        handle(connection, connection::process);
+    }
+
+    /**
+     * Runs a task of the given client and disconnects the client if the task fails. A runtime exception is
+     * reported on the error stream, since it is caused by a bug rather than by the client going away.
+     *
+     * @param connection The session of the client.
+     * @param task       The task.
+     */
+    private static void handle(ClientConnection connection, ClientTask task) {
+        try {
+            task.run();
+        } catch (IOException e) {
+            connection.close();
+        } catch (RuntimeException e) {
+            System.err.printf(CLIENT_ERROR, e);
+            connection.close();
+        }
+    }
+
+    /**
+     * Reads the available input of a client and executes the complete lines.
+     *
+     * @param channel    The channel of the client.
+     * @param connection The session of the client.
+     * @throws IOException If the channel fails.
+     */
+    private void read(SocketChannel channel, ClientConnection connection) throws IOException {
+        readBuffer.clear();
+        int read = channel.read(readBuffer);
+        if (read < 0) {
+            connection.endInput();
+            return;
+        }
+        readBuffer.flip();
+        connection.receive(readBuffer);
+    }
+
+    /**
+     * Applies the AI moves computed since the last call. Since a finished move may let clients continue that wait
+     * for the same game, all waiting clients are processed afterwards.
+     */
+    private void applyCompletedMoves() {
+        CompletedMove completed = completedMoves.poll();
+        if (completed == null) {
+            return;
+        }
+        while (completed != null) {
+            ClientConnection connection = completed.connection();
+            AIMove move = completed.move();
+            handle(connection, () -> connection.applyAIMove(move));
+            completed = completedMoves.poll();
+        }
+        List<ClientConnection> waiting = new ArrayList<>();
+        for (ClientConnection connection : connections) {
+            if (connection.isWaiting()) {
+                waiting.add(connection);
+            }
+        }
+        for (ClientConnection connection : waiting) {
+            handle(connection, connection::process);
+        }
+    }
+
+    /**
+     * Represents an AI move computed for a client.
+     *
+     * @param connection The client the move was computed for.
+     * @param move       The computed move.
+     */
+    private record CompletedMove(ClientConnection connection, AIMove move) {
+    }
+
+    /**
+     * Represents a task of a client that may fail because of its connection.
+     *
+     * @author utobm
+     * @version 1.0
+     */
+    @FunctionalInterface
+    private interface ClientTask {
+        /**
+         * Runs the task.
+         *
+         * @throws IOException If the connection to the client fails.
+         */
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,153 @@
+package edu.kit.informatik.tournament;
+
+
+import edu.kit.informatik.entity.Player;
+import edu.kit.informatik.manager.session.Board;
+import edu.kit.informatik.manager.session.Entry;
+import edu.kit.informatik.util.graph.DistanceMap;
+import edu.kit.informatik.util.graph.RelaxationKernel;
+import edu.kit.informatik.util.graph.ScalarRelaxationKernel;
+import edu.kit.informatik.util.vector.Vector2D;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures how fast the relaxation kernels compute distance maps.
+ * A board is filled with random tokens of both players up to half of its cells. The maps of both tokens from both
+ * edges are computed with the scalar kernel and the default kernel, which must agree, and then each kernel
+ * computes maps for the given time and the number of maps per second is printed.
+ * The default kernel uses the Vector API only if the JVM has been started with
+ * {@code --add-modules jdk.incubator.vector}.
+ *
+ * <p>Usage: {@code distance-benchmark <size> <millis>}</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class DistanceBenchmark {
+    private static final int SIZE_INDEX = 0;
+    private static final int MILLIS_INDEX = 1;
+    private static final int NUMBER_OF_ARGUMENTS = 2;
+    private static final int MIN_SIZE = 5;
+    private static final int MAX_SIZE = 12345;
+    private static final int ODD_NUMBERS_MODULO = 2;
+    private static final int FILL_DIVISOR = 2;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final long SEED = 42L;
+    private static final String USAGE_ERROR = "Error: Usage: distance-benchmark <size> <millis>";
+    private static final String INVALID_ARGUMENTS_ERROR = "Error: Invalid arguments provided!";
+    private static final String INVALID_BOARD_SIZE_ERROR = "Error: Invalid Argument for board size.";
+    private static final String MISMATCH_ERROR = "Error: The kernels computed different distances.";
+    private static final String DISTANCE_FORMAT = "size %d: X needs %d moves, O needs %d moves%n";
+    private static final String SPEED_FORMAT = "size %d, %s: %d maps in %.2f s, %.0f maps/s%n";
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private DistanceBenchmark() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+
+    /**
+     * Runs the benchmark described by the given arguments.
+     *
+     * @param args The board size and the time per kernel in milliseconds.
+     */
+    public static void run(String[] args) {
+        if (args.length != NUMBER_OF_ARGUMENTS) {
+            System.err.println(USAGE_ERROR);
+            return;
+        }
+        int size;
+        long millis;
+        try {
+            size = Integer.parseInt(args[SIZE_INDEX]);
+            millis = Long.parseLong(args[MILLIS_INDEX]);
+        } catch (NumberFormatException e) {
+            System.err.println(INVALID_ARGUMENTS_ERROR);
+            return;
+        }
+        if (millis <= 0) {
+            System.err.println(INVALID_ARGUMENTS_ERROR);
+            return;
+        }
+        if (size < MIN_SIZE || size > MAX_SIZE || size % ODD_NUMBERS_MODULO != 1) {
+            System.err.println(INVALID_BOARD_SIZE_ERROR);
+            return;
+        }
+        Board board = createRandomBoard(size);
+        RelaxationKernel scalar = new ScalarRelaxationKernel();
+        RelaxationKernel fastest = DistanceMap.getDefaultKernel();
+        if (!computeSameDistances(board, scalar, fastest)) {
+            System.err.println(MISMATCH_ERROR);
+            return;
+        }
+        System.out.printf(DISTANCE_FORMAT, size, new DistanceMap(board, Entry.X).getDistanceBetweenEdges(),
+                new DistanceMap(board, Entry.O).getDistanceBetweenEdges());
+        measureSpeed(board, scalar, millis);
+        if (fastest.getClass() != scalar.getClass()) {
+            measureSpeed(board, fastest, millis);
+        }
+    }
+
+    /**
+     * Creates a board on which half of the cells are taken by random tokens of both players in turn.
+     *
+     * @param size The size of the board.
+     * @return The board.
+     */
+    private static Board createRandomBoard(int size) {
+        Board board = new Board(size);
+        Player[] players = {new Player(Entry.X.name(), Entry.X), new Player(Entry.O.name(), Entry.O)};
+        SplittableRandom random = new SplittableRandom(SEED);
+        int moves = size * size / FILL_DIVISOR;
+        for (int move = 0; move < moves; move++) {
+            Vector2D cell = board.getRandomEmptyCell(random);
+            // The cell has been chosen among the empty ones, so the token is always placed
+            board.tryPlace(cell.y(), cell.x(), players[move % players.length]);
+        }
+        return board;
+    }
+
+    /**
+     * Checks whether both kernels compute the same maps for both tokens from both of their edges.
+     *
+     * @param board  The board.
+     * @param first  The first kernel.
+     * @param second The second kernel.
+     * @return True if all maps agree, otherwise false.
+     */
+    private static boolean computeSameDistances(Board board, RelaxationKernel first, RelaxationKernel second) {
+        for (Entry token : new Entry[] {Entry.X, Entry.O}) {
+            for (boolean firstEdge : new boolean[] {true, false}) {
+                DistanceMap expected = new DistanceMap(board, token, firstEdge, first);
+                if (!expected.hasSameDistances(new DistanceMap(board, token, firstEdge, second))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the map of {@code X} with the given kernel for the given time and prints how many maps were
+     * computed per second.
+     *
+     * @param board  The board.
+     * @param kernel The kernel.
+     * @param millis The time to compute for in milliseconds.
+     */
+    private static void measureSpeed(Board board, RelaxationKernel kernel, long millis) {
+        long start = System.nanoTime();
+        long end = start + millis * NANOS_PER_MILLI;
+        long count = 0;
+        while (System.nanoTime() - end < 0) {
+            new DistanceMap(board, Entry.X, true, kernel);
+            count++;
+        }
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        System.out.printf(SPEED_FORMAT, board.getSize(), kernel.getClass().getSimpleName(), count, seconds,
+                count / seconds);
+    }
+}
@@ -0,0 +1,25 @@
+package edu.kit.informatik.tournament;
+
+/**
+ * Represents the outcome of a single tournament game.
+ *
+ * @param winner      The side that won, {@link #FIRST}, {@link #SECOND} or {@link #ABORTED}.
+ * @param firstTimes  The times the AI making the first move needed for its moves.
+ * @param secondTimes The times the answering AI needed for its moves.
+ * @author utobm
+ * @version 1.0
+ */
+public record GameResult(int winner, MoveTimes firstTimes, MoveTimes secondTimes) {
+    /**
+     * The AI making the first move won.
+     */
+    public static final int FIRST = 0;
+    /**
+     * The answering AI won.
+     */
+    public static final int SECOND = 1;
+    /**
+     * The game was aborted because an AI found no valid move.
+     */
+    public static final int ABORTED = -1;
+}
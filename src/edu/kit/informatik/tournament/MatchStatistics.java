@@ -0,0 +1,117 @@
+package edu.kit.informatik.tournament;
+
+
+import edu.kit.informatik.entity.ai.AIType;
+
+/**
+ * Collects the outcome of all games two AIs played against each other on one board size.
+ * The first AI makes the first move of every game, the second AI answers.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class MatchStatistics {
+    /**
+     * Column names of the lines written by {@link #toRecord()}.
+     */
+    public static final String RECORD_HEADER = "# size first second games first_wins second_wins aborted "
+            + "first_mean_us first_p99_us second_mean_us second_p99_us games_per_s";
+    private static final String RECORD_FORMAT = "%d %s %s %d %d %d %d %.1f %.1f %.1f %.1f %.2f";
+    private static final String SUMMARY_FORMAT = "size %d, %s vs %s: %d games, %s wins %.1f%%, %s wins %.1f%%, "
+            + "%d aborted, %s %.1f/%.1f us, %s %.1f/%.1f us (mean/p99 per move), %.2f games/s";
+    private static final double PERCENTILE = 99;
+    private static final double PERCENT = 100.0;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final int size;
+    private final AIType first;
+    private final AIType second;
+    private final MoveTimes firstTimes = new MoveTimes();
+    private final MoveTimes secondTimes = new MoveTimes();
+    private int games;
+    private int firstWins;
+    private int secondWins;
+    private long elapsedNanos;
+
+    /**
+     * Constructs new, empty statistics for a match.
+     *
+     * @param size   The size of the board.
+     * @param first  The AI making the first move.
+     * @param second The AI answering.
+     */
+    public MatchStatistics(int size, AIType first, AIType second) {
+        this.size = size;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Adds the outcome of a single game.
+     *
+     * @param result The outcome of the game.
+     */
+    public void add(GameResult result) {
+        games++;
+        if (result.winner() == GameResult.FIRST) {
+            firstWins++;
+        } else if (result.winner() == GameResult.SECOND) {
+            secondWins++;
+        }
+        firstTimes.addAll(result.firstTimes());
+        secondTimes.addAll(result.secondTimes());
+    }
+
+    /**
+     * Sets the wall-clock time the whole match took.
+     *
+     * @param elapsedNanos The time in nanoseconds.
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Computes the number of games finished per second of wall-clock time.
+     *
+     * @return The throughput of the match.
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    /**
+     * Returns the statistics as a single line of space-separated values, as described by {@link #RECORD_HEADER}.
+     *
+     * @return The compact record of the match.
+     */
+    public String toRecord() {
+        return RECORD_FORMAT.formatted(size, first.getName(), second.getName(), games, firstWins, secondWins,
+                games - firstWins - secondWins, firstTimes.getMeanMicros(), firstTimes.getPercentileMicros(PERCENTILE),
+                secondTimes.getMeanMicros(), secondTimes.getPercentileMicros(PERCENTILE), getGamesPerSecond());
+    }
+
+    /**
+     * Returns a human-readable summary of the statistics.
+     *
+     * @return The summary of the match.
+     */
+    @Override
+    public String toString() {
+        return SUMMARY_FORMAT.formatted(size, first.getName(), second.getName(), games,
+                first.getName(), share(firstWins), second.getName(), share(secondWins), games - firstWins - secondWins,
+                first.getName(), firstTimes.getMeanMicros(), firstTimes.getPercentileMicros(PERCENTILE),
+                second.getName(), secondTimes.getMeanMicros(), secondTimes.getPercentileMicros(PERCENTILE),
+                getGamesPerSecond());
+    }
+
+    /**
+     * Computes the share of the games that were won.
+     *
+     * @param wins The number of won games.
+     * @return The share in percent.
+     */
+    private double share(int wins) {
+        return games == 0 ? 0 : wins * PERCENT / games;
+    }
+}
@@ -0,0 +1,84 @@
+package edu.kit.informatik.tournament;
+
+import java.util.Arrays;
+
+/**
+ * Collects the times an AI needed for its moves and computes statistics over them.
+ * The times are stored in a growable primitive array to keep the overhead per move low.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class MoveTimes {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private long[] times = new long[INITIAL_CAPACITY];
+    private int count;
+
+    /**
+     * Adds the time of a single move.
+     *
+     * @param nanos The time needed for the move in nanoseconds.
+     */
+    public void add(long nanos) {
+        if (count == times.length) {
+            times = Arrays.copyOf(times, count * 2);
+        }
+        times[count++] = nanos;
+    }
+
+    /**
+     * Adds all move times collected by the other instance.
+     *
+     * @param other The move times to add.
+     */
+    public void addAll(MoveTimes other) {
+        if (count + other.count > times.length) {
+            times = Arrays.copyOf(times, Math.max(times.length * 2, count + other.count));
+        }
+        System.arraycopy(other.times, 0, times, count, other.count);
+        count += other.count;
+    }
+
+    /**
+     * Returns the number of moves.
+     *
+     * @return The number of moves whose times have been added.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Computes the mean time per move.
+     *
+     * @return The mean time per move in microseconds, or 0 if no move has been added.
+     */
+    public double getMeanMicros() {
+        if (count == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += times[i];
+        }
+        return sum / NANOS_PER_MICRO / count;
+    }
+
+    /**
+     * Computes the time that the given share of moves did not exceed.
+     *
+     * @param percentile The share of moves in percent, e.g. 99.
+     * @return The percentile of the move times in microseconds, or 0 if no move has been added.
+     */
+    public double getPercentileMicros(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(times, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, index)] / NANOS_PER_MICRO;
+    }
+}
@@ -0,0 +1,198 @@
+package edu.kit.informatik.tournament;
+
+
+import edu.kit.informatik.entity.ai.playout.Playout;
+import edu.kit.informatik.entity.ai.playout.PlayoutPolicy;
+import edu.kit.informatik.manager.session.PackedBoard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures how fast and how well the playout policies play.
+ * First, each policy plays as many playouts from the empty board as it can in the given time, and the number of
+ * playouts per second is printed. Then a flat Monte Carlo player for each pattern policy plays a match against one
+ * using random playouts with the same time per move, which shows the strength each policy buys per CPU-second.
+ * A flat Monte Carlo player tries every empty cell in turn as its next move, finishes the game with a playout and
+ * plays the cell that won most often.
+ *
+ * <p>Usage: {@code playout-benchmark <size> <millis> <games> <move-millis>}</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class PlayoutBenchmark {
+    private static final int SIZE_INDEX = 0;
+    private static final int MILLIS_INDEX = 1;
+    private static final int GAMES_INDEX = 2;
+    private static final int MOVE_MILLIS_INDEX = 3;
+    private static final int NUMBER_OF_ARGUMENTS = 4;
+    private static final int MIN_SIZE = 5;
+    private static final int MAX_SIZE = 12345;
+    private static final int ODD_NUMBERS_MODULO = 2;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final long SEED = 42L;
+    private static final int NO_CELL = -1;
+    private static final int PERCENT = 100;
+    private static final String USAGE_ERROR
+            = "Error: Usage: playout-benchmark <size> <millis> <games> <move-millis>";
+    private static final String INVALID_ARGUMENTS_ERROR = "Error: Invalid arguments provided!";
+    private static final String INVALID_BOARD_SIZE_ERROR = "Error: Invalid Argument for board size.";
+    private static final String SPEED_FORMAT = "size %d, %s playouts: %d in %.2f s, %.0f playouts/s%n";
+    private static final String MATCH_FORMAT
+            = "size %d, %d ms per move: %s wins %d of %d games (%.1f%%) against %s%n";
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private PlayoutBenchmark() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+
+    /**
+     * Runs the benchmark described by the given arguments.
+     *
+     * @param args The board size, the time per policy for measuring the speed in milliseconds, the number of
+     *             games of the match and the time per move in the match in milliseconds.
+     */
+    public static void run(String[] args) {
+        if (args.length != NUMBER_OF_ARGUMENTS) {
+            System.err.println(USAGE_ERROR);
+            return;
+        }
+        int size;
+        long millis;
+        int games;
+        long moveMillis;
+        try {
+            size = Integer.parseInt(args[SIZE_INDEX]);
+            millis = Long.parseLong(args[MILLIS_INDEX]);
+            games = Integer.parseInt(args[GAMES_INDEX]);
+            moveMillis = Long.parseLong(args[MOVE_MILLIS_INDEX]);
+        } catch (NumberFormatException e) {
+            System.err.println(INVALID_ARGUMENTS_ERROR);
+            return;
+        }
+        if (millis <= 0 || games < 0 || moveMillis <= 0) {
+            System.err.println(INVALID_ARGUMENTS_ERROR);
+            return;
+        }
+        if (size < MIN_SIZE || size > MAX_SIZE || size % ODD_NUMBERS_MODULO != 1) {
+            System.err.println(INVALID_BOARD_SIZE_ERROR);
+            return;
+        }
+        for (PlayoutPolicy policy : PlayoutPolicy.values()) {
+            measureSpeed(size, policy, millis);
+        }
+        for (PlayoutPolicy policy : PlayoutPolicy.values()) {
+            if (games > 0 && policy != PlayoutPolicy.RANDOM) {
+                playMatch(size, policy, games, moveMillis);
+            }
+        }
+    }
+
+    /**
+     * Plays playouts from the empty board for the given time and prints how many were played per second.
+     *
+     * @param size   The size of the board.
+     * @param policy The policy of the playouts.
+     * @param millis The time to play for in milliseconds.
+     */
+    private static void measureSpeed(int size, PlayoutPolicy policy, long millis) {
+        Playout playout = new Playout(new PackedBoard(size), policy);
+        SplittableRandom random = new SplittableRandom(SEED);
+        long start = System.nanoTime();
+        long end = start + millis * NANOS_PER_MILLI;
+        long count = 0;
+        while (System.nanoTime() - end < 0) {
+            playout.play(PackedBoard.X, NO_CELL, NO_CELL, random);
+            count++;
+        }
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        System.out.printf(SPEED_FORMAT, size, policy, count, seconds, count / seconds);
+    }
+
+    /**
+     * Plays a match between a flat Monte Carlo player using the given playouts and one using random playouts.
+     * The players take turns in making the first move.
+     *
+     * @param size       The size of the board.
+     * @param policy     The policy playing against random playouts.
+     * @param games      The number of games.
+     * @param moveMillis The time per move in milliseconds.
+     */
+    private static void playMatch(int size, PlayoutPolicy policy, int games, long moveMillis) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int wins = 0;
+        for (int game = 0; game < games; game++) {
+            boolean policyFirst = game % 2 == 0;
+            PlayoutPolicy first = policyFirst ? policy : PlayoutPolicy.RANDOM;
+            PlayoutPolicy second = policyFirst ? PlayoutPolicy.RANDOM : policy;
+            int winner = playGame(size, first, second, moveMillis, random);
+            if ((winner == PackedBoard.X) == policyFirst) {
+                wins++;
+            }
+        }
+        System.out.printf(MATCH_FORMAT, size, moveMillis, policy, wins, games, (double) wins * PERCENT / games,
+                PlayoutPolicy.RANDOM);
+    }
+
+    /**
+     * Plays a game between two flat Monte Carlo players until the board is full.
+     *
+     * @param size       The size of the board.
+     * @param first      The policy of the player making the first move with {@code X}.
+     * @param second     The policy of the player answering with {@code O}.
+     * @param moveMillis The time per move in milliseconds.
+     * @param random     The source of randomness.
+     * @return The winner, {@link PackedBoard#X} or {@link PackedBoard#O}.
+     */
+    private static int playGame(int size, PlayoutPolicy first, PlayoutPolicy second, long moveMillis,
+                                SplittableRandom random) {
+        PackedBoard board = new PackedBoard(size);
+        int player = PackedBoard.X;
+        int lastMove = NO_CELL;
+        for (int move = 0; move < size * size; move++) {
+            PlayoutPolicy policy = (player == PackedBoard.X) ? first : second;
+            lastMove = chooseMove(board, player, lastMove, policy, moveMillis, random);
+            board.set(lastMove, player);
+            player = PackedBoard.X + PackedBoard.O - player;
+        }
+        return new Playout(board, PlayoutPolicy.RANDOM).play(player, NO_CELL, NO_CELL, random);
+    }
+
+    /**
+     * Chooses a move by trying the empty cells in turn, finishing the game with a playout each time, until the
+     * time is up, and returning the cell that won most often.
+     *
+     * @param board      The current position.
+     * @param player     The player to move.
+     * @param lastMove   The index of the opponent's last move, or -1 if there is none.
+     * @param policy     The policy of the playouts.
+     * @param moveMillis The time for the move in milliseconds.
+     * @param random     The source of randomness.
+     * @return The index of the chosen cell.
+     */
+    private static int chooseMove(PackedBoard board, int player, int lastMove, PlayoutPolicy policy,
+                                  long moveMillis, SplittableRandom random) {
+        Playout playout = new Playout(board, policy);
+        int candidates = playout.getEmptyCellCount();
+        int[] wins = new int[candidates];
+        int[] visits = new int[candidates];
+        long end = System.nanoTime() + moveMillis * NANOS_PER_MILLI;
+        for (int i = 0; i < candidates || System.nanoTime() - end < 0; i++) {
+            int candidate = i % candidates;
+            visits[candidate]++;
+            if (playout.play(player, playout.getEmptyCell(candidate), lastMove, random) == player) {
+                wins[candidate]++;
+            }
+        }
+        int best = 0;
+        for (int candidate = 1; candidate < candidates; candidate++) {
+            if ((long) wins[candidate] * visits[best] > (long) wins[best] * visits[candidate]) {
+                best = candidate;
+            }
+        }
+        return playout.getEmptyCell(best);
+    }
+}
@@ -0,0 +1,206 @@
+package edu.kit.informatik.tournament;
+
+
+import edu.kit.informatik.entity.Player;
+import edu.kit.informatik.entity.ai.AIPlayer;
+import edu.kit.informatik.entity.ai.AIType;
+import edu.kit.informatik.manager.exceptions.GameAlreadyWonException;
+import edu.kit.informatik.manager.exceptions.NotEmptyException;
+import edu.kit.informatik.manager.exceptions.OutOfBoundsException;
+import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.Move;
+import edu.kit.informatik.util.concurrent.ReplacementPolicy;
+import edu.kit.informatik.util.concurrent.TranspositionTable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a headless tournament in which every AI plays against every AI, including itself, on a set of board sizes.
+ * The games are played directly on {@link HexGame} instances without any command parsing or output and are
+ * distributed over all available processors.
+ *
+ * <p>Since the AIs play deterministically, the first move of every game is placed on a random cell, chosen with a
+ * fixed seed per game, so that the games of a match differ from each other and every run is reproducible.
+ * For each match, the win rates, the mean and 99th percentile time per move of both AIs and the number of games
+ * per second are printed and written to the result file, one line per match. All games share one transposition
+ * table, whose counters are printed at the end.</p>
+ *
+ * <p>Usage: {@code tournament <games> <result-file> <budget-ms> <size> [<size> ...]}</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class TournamentRunner {
+    private static final int GAMES_INDEX = 0;
+    private static final int RESULT_FILE_INDEX = 1;
+    private static final int BUDGET_INDEX = 2;
+    private static final int FIRST_SIZE_INDEX = 3;
+    private static final int MIN_SIZE = 5;
+    private static final int MAX_SIZE = 12345;
+    private static final int ODD_NUMBERS_MODULO = 2;
+    private static final String GAME_NAME = "tournament";
+    private static final int TRANSPOSITION_TABLE_BUCKETS = 1 << 20;
+    private static final String TABLE_STATISTICS = "Transposition table: %s%n";
+    private static final String USAGE_ERROR
+            = "Error: Usage: tournament <games> <result-file> <budget-ms> <size> [<size> ...]";
+    private static final String INVALID_ARGUMENTS_ERROR = "Error: Invalid arguments provided!";
+    private static final String INVALID_BOARD_SIZE_ERROR = "Error: Invalid Argument for board size.";
+    private static final String WRITE_ERROR = "Error: Could not write the results: %s%n";
+    private static final String INTERRUPTED_ERROR = "Error: The tournament has been interrupted.";
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private TournamentRunner() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+
+    /**
+     * Runs the tournament described by the given arguments.
+     *
+     * @param args The number of games per match, the result file, the move budget in milliseconds
+     *             (0 for no limit) and the board sizes.
+     */
+    public static void run(String[] args) {
+        if (args.length <= FIRST_SIZE_INDEX) {
+            System.err.println(USAGE_ERROR);
+            return;
+        }
+        int games;
+        long budget;
+        List<Integer> sizes = new ArrayList<>();
+        try {
+            games = Integer.parseInt(args[GAMES_INDEX]);
+            budget = Long.parseLong(args[BUDGET_INDEX]);
+            for (int i = FIRST_SIZE_INDEX; i < args.length; i++) {
+                sizes.add(Integer.parseInt(args[i]));
+            }
+        } catch (NumberFormatException e) {
+            System.err.println(INVALID_ARGUMENTS_ERROR);
+            return;
+        }
+        if (games <= 0 || budget < 0) {
+            System.err.println(INVALID_ARGUMENTS_ERROR);
+            return;
+        }
+        for (int size : sizes) {
+            if (size < MIN_SIZE || size > MAX_SIZE || size % ODD_NUMBERS_MODULO != 1) {
+                System.err.println(INVALID_BOARD_SIZE_ERROR);
+                return;
+            }
+        }
+
+        TranspositionTable table = new TranspositionTable(TRANSPOSITION_TABLE_BUCKETS, ReplacementPolicy.TWO_TIER);
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(args[RESULT_FILE_INDEX]))) {
+            writer.write(MatchStatistics.RECORD_HEADER);
+            writer.newLine();
+            for (int size : sizes) {
+                for (AIType first : AIType.values()) {
+                    for (AIType second : AIType.values()) {
+                        MatchStatistics statistics = playMatch(executor, table, size, first, second,
+                                games, budget);
+                        System.out.println(statistics);
+                        writer.write(statistics.toRecord());
+                        writer.newLine();
+                    }
+                }
+            }
+            System.out.printf(TABLE_STATISTICS, table);
+        } catch (IOException e) {
+            System.err.printf(WRITE_ERROR, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println(INTERRUPTED_ERROR);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays all games of a match in parallel and collects their outcome.
+     *
+     * @param executor The executor running the games.
+     * @param table    The transposition table shared by all games.
+     * @param size     The size of the board.
+     * @param first    The AI making the first move.
+     * @param second   The AI answering.
+     * @param games    The number of games to play.
+     * @param budget   The move budget in milliseconds, or 0 for no limit.
+     * @return The statistics of the match.
+     * @throws InterruptedException If the thread is interrupted while waiting for the games.
+     */
+    private static MatchStatistics playMatch(ExecutorService executor, TranspositionTable table, int size,
+                                             AIType first, AIType second, int games, long budget)
+            throws InterruptedException {
+        MatchStatistics statistics = new MatchStatistics(size, first, second);
+        long start = System.nanoTime();
+        List<Future<GameResult>> results = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            long seed = i;
+            results.add(executor.submit(() -> playGame(table, size, first, second, budget, seed)));
+        }
+        for (Future<GameResult> result : results) {
+            try {
+                statistics.add(result.get());
+            } catch (ExecutionException e) {
+                statistics.add(new GameResult(GameResult.ABORTED, new MoveTimes(), new MoveTimes()));
+            }
+        }
+        statistics.setElapsedNanos(System.nanoTime() - start);
+        return statistics;
+    }
+
+    /**
+     * Plays a single game between two AIs until one of them has won.
+     *
+     * @param table  The transposition table shared by all games.
+     * @param size   The size of the board.
+     * @param first  The AI making the first move.
+     * @param second The AI answering.
+     * @param budget The move budget in milliseconds, or 0 for no limit.
+     * @param seed   The seed choosing the random first move.
+     * @return The outcome of the game.
+     */
+    private static GameResult playGame(TranspositionTable table, int size, AIType first, AIType second, long budget,
+                                       long seed) {
+        Player firstPlayer = first.create();
+        firstPlayer.switchToken();
+        Player secondPlayer = second.create();
+        HexGame game = new HexGame(GAME_NAME, size, new ArrayList<>(List.of(firstPlayer, secondPlayer)));
+        game.setMoveBudget(budget);
+        game.setTranspositionTable(table);
+        MoveTimes firstTimes = new MoveTimes();
+        MoveTimes secondTimes = new MoveTimes();
+        SplittableRandom random = new SplittableRandom(seed);
+        try {
+            game.placeToken(random.nextInt(size), random.nextInt(size));
+            while (game.getWinningPlayer() == null) {
+                Player currentPlayer = game.getCurrentPlayer();
+                game.beginSearch();
+                long start = System.nanoTime();
+                Move move = ((AIPlayer) currentPlayer).nextMove(game);
+                long elapsed = System.nanoTime() - start;
+                (currentPlayer == firstPlayer ? firstTimes : secondTimes).add(elapsed);
+                if (move == null) {
+                    return new GameResult(GameResult.ABORTED, firstTimes, secondTimes);
+                }
+                game.makeMove(move);
+            }
+        } catch (NotEmptyException | GameAlreadyWonException | OutOfBoundsException e) {
+            return new GameResult(GameResult.ABORTED, firstTimes, secondTimes);
+        }
+        int winner = (game.getWinningPlayer() == firstPlayer) ? GameResult.FIRST : GameResult.SECOND;
+        return new GameResult(winner, firstTimes, secondTimes);
+    }
+}
@@ -0,0 +1,141 @@
+package edu.kit.informatik.ui;
+
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+
+/**
+ * Buffers the standard output and the error output of a batch run, so that replaying many commands does not pay
+ * for a system call per printed line.
+ *
+ * <p>Both streams have a large buffer of their own, but they keep the order in which text has been printed to
+ * them: before one of the streams takes bytes, the other one is flushed if it holds any. If both streams are
+ * redirected to the same file, the file therefore receives the same bytes in the same order as without the
+ * buffers. The buffers are flushed when they are full, when {@link #flush()} is called and when the streams switch,
+ * so a batch that rarely prints errors writes its output in large blocks.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class BatchOutput {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final PrintStream outputPrinter;
+    private final PrintStream errorPrinter;
+    /**
+     * The stream that has taken bytes last, guarded by this object.
+     */
+    private OrderedStream lastWriter;
+
+    /**
+     * Constructs buffered printers for the given streams.
+     *
+     * @param output      The stream of the standard output.
+     * @param errorOutput The stream of the error output.
+     * @param charset     The charset in which the printers encode text.
+     */
+    public BatchOutput(OutputStream output, OutputStream errorOutput, Charset charset) {
+        this.outputPrinter = new PrintStream(new OrderedStream(output), false, charset);
+        this.errorPrinter = new PrintStream(new OrderedStream(errorOutput), false, charset);
+    }
+
+    /**
+     * Returns the printer of the standard output.
+     *
+     * @return The buffered printer.
+     */
+    public PrintStream getOutput() {
+        return outputPrinter;
+    }
+
+    /**
+     * Returns the printer of the error output.
+     *
+     * @return The buffered printer.
+     */
+    public PrintStream getErrorOutput() {
+        return errorPrinter;
+    }
+
+    /**
+     * Writes everything printed so far to the underlying streams, in the order in which it has been printed.
+     */
+    public void flush() {
+        // Only one of the streams holds bytes at a time, since taking bytes flushes the other one
+        outputPrinter.flush();
+        errorPrinter.flush();
+    }
+
+    /**
+     * A buffered stream that flushes the other stream of the batch output before it takes bytes.
+     */
+    private final class OrderedStream extends BufferedOutputStream {
+
+        /**
+         * Constructs a buffered stream writing to the given stream.
+         *
+         * @param stream The underlying stream.
+         */
+        OrderedStream(OutputStream stream) {
+            super(stream, BUFFER_SIZE);
+        }
+
+        /**
+         * Writes a byte to the buffer, after flushing the other stream if it has taken bytes last.
+         *
+         * @param b The byte.
+         * @throws IOException If flushing fails.
+         */
+        @Override
+        public void write(int b) throws IOException {
+            synchronized (BatchOutput.this) {
+                switchTo();
+                super.write(b);
+            }
+        }
+
+        /**
+         * Writes bytes to the buffer, after flushing the other stream if it has taken bytes last.
+         *
+         * @param b   The bytes.
+         * @param off The index of the first byte to write.
+         * @param len The number of bytes to write.
+         * @throws IOException If flushing fails.
+         */
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            synchronized (BatchOutput.this) {
+                switchTo();
+                super.write(b, off, len);
+            }
+        }
+
+        /**
+         * Writes the buffered bytes to the underlying stream.
+         *
+         * @throws IOException If writing fails.
+         */
+        @Override
+        public void flush() throws IOException {
+            synchronized (BatchOutput.this) {
+                super.flush();
+            }
+        }
+
+        /**
+         * Flushes the other stream if it has taken bytes last and makes this stream the last writer.
+         * Must be called while holding the lock of the batch output.
+         *
+         * @throws IOException If flushing the other stream fails.
+         */
+        private void switchTo() throws IOException {
+            if (lastWriter != null && lastWriter != this) {
+                lastWriter.flush();
+            }
+            lastWriter = this;
+        }
+    }
+}
@@ -32,12 +32,23 @@ public abstract class Command {
         return commandName;
     }
 
+    /**
+     * Checks whether the command works on the current game.
+     * Such a command has to wait until a pending AI move of the current game has been applied.
+     *
+     * @return True if the command works on the current game, otherwise false.
+     */
+    public boolean requiresCurrentGame() {
+        return true;
+    }
+
     /**
      * Executes the command with the provided arguments.
      * This method should be overridden by all subclasses to provide specific command execution logic.
      *
-     * @param commandArguments An array of arguments provided by the user for executing the command.
+     * @param commandArguments The arguments provided by the user for executing the command, which are only valid
+     *                         until the command returns, since the command line is reused for the next line.
      */
 
-    public abstract void execute(String[] commandArguments);
+    public abstract void execute(CommandLine commandArguments);
 }
@@ -0,0 +1,155 @@
+package edu.kit.informatik.ui;
+
+
+import edu.kit.informatik.manager.GameManager;
+import edu.kit.informatik.manager.session.Move;
+import edu.kit.informatik.ui.command.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses input lines and executes the corresponding game commands of one client.
+ * Moves computed in the same process are executed directly by the place and swap commands, without a line.
+ * All output of the commands goes to the streams of the client's game manager, so that several clients can be
+ * served side by side, each with a dispatcher of its own.
+ *
+ * <p>The lines are split by a {@link CommandLine} that the dispatcher reuses for every line, and the command is
+ * found by comparing its name with the chars of the line, so dispatching a line creates neither strings nor arrays.
+ * A dispatcher must therefore only be used by one thread at a time.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class CommandDispatcher {
+    /**
+     * Error message format for an unrecognized command.
+     */
+    private static final String COMMAND_NOT_FOUND = "Error: Command '%s' not found%n";
+    /**
+     * Game manager that manages the games of the client.
+     */
+    private final GameManager gameManager;
+    /**
+     * The different game commands available to the client.
+     */
+    private final List<Command> commands = new ArrayList<>();
+    /**
+     * The tokens of the line being dispatched.
+     */
+    private final CommandLine commandLine = new CommandLine();
+    /**
+     * The commands executing typed moves.
+     */
+    private final PlaceCommand placeCommand;
+    private final SwapCommand swapCommand;
+
+    /**
+     * Constructs a new dispatcher for the given game manager.
+     *
+     * @param gameManager The game manager of the client.
+     * @param quitAction  The action ending the client's session when the quit command is executed.
+     */
+    public CommandDispatcher(GameManager gameManager, Runnable quitAction) {
+        this.gameManager = gameManager;
+        this.placeCommand = new PlaceCommand(gameManager);
+        this.swapCommand = new SwapCommand(gameManager);
+        initCommands(quitAction);
+    }
+
+    /**
+     * Processes and execute the specified command with its arguments.
+     *
+     * @param commandWithArguments The command and its arguments as a single string.
+     */
+    public void execute(String commandWithArguments) {
+        Command command = findCommand(commandWithArguments);
+        if (command == null) {
+            gameManager.getErrorOutput().printf(COMMAND_NOT_FOUND, commandLine.getCommandName());
+            return;
+        }
+        command.execute(commandLine);
+    }
+
+    /**
+     * Executes the given move like the place or swap command, with the same output, but without an input line.
+     * AI players hand their moves to the dispatcher this way, so that their moves are not parsed from text.
+     *
+     * @param move The move of the current player in the current game.
+     */
+    public void execute(Move move) {
+        if (move instanceof Move.Place place) {
+            placeCommand.execute(place);
+        } else {
+            swapCommand.execute((Move.Swap) move);
+        }
+    }
+
+    /**
+     * Checks whether the command of the given input line works on the current game and therefore has to wait for
+     * a pending AI move of that game.
+     *
+     * @param commandWithArguments The command and its arguments as a single string.
+     * @return True if the command works on the current game, false if it does not or is unknown.
+     */
+    public boolean requiresCurrentGame(String commandWithArguments) {
+        Command command = findCommand(commandWithArguments);
+        return command != null && command.requiresCurrentGame();
+    }
+
+    /**
+     * Splits the given line into the command line of this dispatcher and finds its command.
+     *
+     * @param commandWithArguments The command and its arguments as a single string.
+     * @return The command, or null if there is no command with the name of the line.
+     */
+    private Command findCommand(String commandWithArguments) {
+        commandLine.parse(commandWithArguments);
+        for (int i = 0; i < commands.size(); i++) {
+            if (commandLine.isCommand(commands.get(i).getCommandName())) {
+                return commands.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the game manager of the client.
+     *
+     * @return The game manager.
+     */
+    public GameManager getGameManager() {
+        return gameManager;
+    }
+
+    /**
+     * Adds a new game command to the available commands.
+     *
+     * @param command The command to add.
+     */
+    private void addCommand(Command command) {
+        this.commands.add(command);
+    }
+
+    /**
+     * Initializes the available game commands.
+     *
+     * @param quitAction The action ending the client's session.
+     */
+    private void initCommands(Runnable quitAction) {
+        addCommand(placeCommand);
+        addCommand(new PlaceBatchCommand(gameManager));
+        addCommand(new HistoryCommand(gameManager));
+        addCommand(swapCommand);
+        addCommand(new PrintCommand(gameManager));
+        addCommand(new ListGamesCommand(gameManager));
+        addCommand(new NewGameCommand(gameManager));
+        addCommand(new ForkGameCommand(gameManager));
+        addCommand(new SwitchGameCommand(gameManager));
+        addCommand(new SetBudgetCommand(gameManager));
+        addCommand(new SaveGameCommand(gameManager));
+        addCommand(new LoadGameCommand(gameManager));
+        addCommand(new QuitCommand(quitAction, gameManager.getErrorOutput()));
+        addCommand(new HelpCommand(gameManager));
+    }
+}
@@ -1,47 +1,100 @@
 package edu.kit.informatik.ui;
 
 
-import edu.kit.informatik.entity.Player;
-import edu.kit.informatik.entity.ai.BogoAI;
-import edu.kit.informatik.entity.ai.HeroAI;
+import edu.kit.informatik.entity.ai.AIPlayer;
+import edu.kit.informatik.entity.ai.Ponderer;
+import edu.kit.informatik.manager.AIMove;
+import edu.kit.informatik.manager.AIMoveScheduler;
 import edu.kit.informatik.manager.GameManager;
+import edu.kit.informatik.manager.GameRegistry;
+import edu.kit.informatik.manager.exceptions.GameAlreadyWonException;
+import edu.kit.informatik.manager.exceptions.NotEmptyException;
+import edu.kit.informatik.manager.exceptions.OutOfBoundsException;
 import edu.kit.informatik.manager.session.HexGame;
-import edu.kit.informatik.ui.command.*;
+import edu.kit.informatik.manager.session.Move;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Scanner;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * Handles user input and executes corresponding game commands.
  * This class represents the main interface for the user to interact with the game.
  * Users can input commands, and the `CommandHandler` will process the input and execute the appropriate game action.
  *
+ * <p>Input lines and the moves computed by AI players in the background arrive as events and are processed one
+ * after another on a single thread. A command that works on the current game waits until a pending AI move of
+ * that game has been applied. Without the async flag every command waits for all pending AI moves, including
+ * those answering a batch of placements in other games, so the output is the same as if the AI had moved before
+ * the next line was read. With the async flag, commands that do not work on the current game are executed right
+ * away. AI moves of games that are not current are applied without any output.</p>
+ *
+ * <p>Instead of the user's input, the commands may be read from a script in batch mode. The output is then
+ * buffered and flushed every {@value #FLUSH_INTERVAL} commands and at the end of the script.</p>
+ *
  * @author Programmieren-Team
  * @version 1.0
  */
 public class CommandHandler {
+    private static final String INPUT_THREAD_NAME = "input-reader";
     /**
-     * Defines the pattern for splitting the user's command and arguments.
+     * The number of commands after which the buffered output of a batch run is flushed.
      */
-    private static final String COMMAND_SEPARATOR = "\\s+";
+    private static final int FLUSH_INTERVAL = 1 << 12;
+    private static final String SCRIPT_ERROR = "Error: The script could not be read: %s%n";
     /**
-     * Error message format for an unrecognized command.
+     * The event signalling that no further input can be read.
      */
-    private static final String COMMAND_NOT_FOUND = "Error: Command '%s' not found%n";
+    private static final Event END_OF_INPUT = new Event(null, null);
     /**
      * Game manager that manages different game sessions and players.
      */
     private final GameManager gameManager;
     /**
-     * Map that holds the different game commands available to the user.
+     * Parses the input lines and executes the game commands available to the user.
+     */
+    private final CommandDispatcher dispatcher;
+    /**
+     * Searches the AI's replies while the user is thinking, or null if pondering is disabled.
+     */
+    private final Ponderer ponderer;
+    /**
+     * Computes the moves of AI players in the background.
+     */
+    private final AIMoveScheduler scheduler;
+    /**
+     * The input lines and computed AI moves that are waiting to be processed.
+     */
+    private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+    /**
+     * The input lines that have been received but not yet executed.
+     */
+    private final Deque<String> backlog = new ArrayDeque<>();
+    /**
+     * Flag that indicates if commands that do not work on the current game may overtake pending AI moves.
      */
-    private final Map<String, Command> commands;
+    private final boolean async;
+    /**
+     * The number of AI moves that have been scheduled but not yet applied, in the current game or in the games of
+     * a batch of placements.
+     */
+    private int pendingAIMoves;
     /**
      * Flag that indicates if the command handler is currently running.
      */
     private boolean running = false;
+    /**
+     * The buffered output of a batch run, or null if the output is not buffered.
+     */
+    private BatchOutput batchOutput;
+    /**
+     * The number of commands executed since the buffered output has been flushed.
+     */
+    private int unflushedCommands;
 
     /**
      * Constructs a new CommandHandler with the specified game parameters.
@@ -50,44 +103,226 @@ public class CommandHandler {
      * @param firstPlayerName  Name of the first player.
      * @param secondPlayerName Name of the second player.
      * @param print            Flag indicating if the board should be printed after each move.
+     * @param ponder           Flag indicating if the AI should search its replies while the user is thinking.
+     * @param async            Flag indicating if commands that do not work on the current game may overtake
+     *                         pending AI moves.
      */
-    public CommandHandler(int size, String firstPlayerName, String secondPlayerName, boolean print) {
-        gameManager = new GameManager(size, firstPlayerName, secondPlayerName, print);
-        this.commands = new HashMap<>();
-        this.initCommands();
+    public CommandHandler(int size, String firstPlayerName, String secondPlayerName, boolean print, boolean ponder,
+                          boolean async) {
+        this(new GameRegistry(size, firstPlayerName, secondPlayerName), print, ponder, async);
     }
 
     /**
-     * Gets the next command input from the user or AI.
+     * Constructs a new CommandHandler playing the games of the given registry, for example games restored from a
+     * journal.
      *
-     * @param scanner The scanner for reading user input.
-     * @return The next command input.
-     */
-    private String getInput(Scanner scanner) {
-        String input;
-        HexGame currentGame = gameManager.getCurrentGame();
-        Player currentPlayer = currentGame.getCurrentPlayer();
-        if (currentPlayer instanceof HeroAI && currentGame.getWinningPlayer() == null) {
-            input = ((HeroAI) currentPlayer).nextMove(0);
-        } else if (currentPlayer instanceof BogoAI && currentGame.getWinningPlayer() == null) {
-            input = ((BogoAI) currentPlayer).nextMove();
-        } else {
-            input = scanner.nextLine();
+     * @param registry The registry holding the games.
+     * @param print    Flag indicating if the board should be printed after each move.
+     * @param ponder   Flag indicating if the AI should search its replies while the user is thinking.
+     * @param async    Flag indicating if commands that do not work on the current game may overtake
+     *                 pending AI moves.
+     */
+    public CommandHandler(GameRegistry registry, boolean print, boolean ponder, boolean async) {
+        gameManager = new GameManager(registry, print);
+        this.scheduler = new AIMoveScheduler(registry);
+        this.ponderer = ponder ? new Ponderer() : null;
+        this.async = async;
+        this.dispatcher = new CommandDispatcher(gameManager, this::quit);
+    }
+
+    /**
+     * Handles user input by reading and executing commands until the user quits or the input ends.
+     */
+    public void handleUserInput() {
+        handleInput(this::readUserInput);
+    }
 
+    /**
+     * Reads and executes the commands of a script until a command quits or the script ends.
+     * The given output must be the one the game manager of this handler prints to. It is flushed every
+     * {@value #FLUSH_INTERVAL} commands and once the script has been executed.
+     *
+     * @param script The script, one command per line.
+     * @param output The buffered output.
+     */
+    public void handleScript(BufferedReader script, BatchOutput output) {
+        this.batchOutput = output;
+        try {
+            handleInput(() -> readScript(script));
+        } finally {
+            output.flush();
         }
-        return input;
     }
 
     /**
-     * Handles user input by reading and executing commands until the user quits.
+     * Reads and executes commands until a command quits or the input ends.
+     *
+     * @param inputReader Reads the input lines, queues them as events and finally queues the end of input.
      */
-    public void handleUserInput() {
+    private void handleInput(Runnable inputReader) {
         this.running = true;
+        startInputReader(inputReader);
+        boolean inputEnded = false;
+        while (running) {
+            HexGame currentGame = gameManager.getCurrentGame();
+            scheduleAIMove(currentGame);
+            gameManager.drainGamesAwaitingAI(this::scheduleAIMove);
+            String line = backlog.peek();
+            if (line != null && mayExecute(line, gameManager.getCurrentGame())) {
+                executeCommand(backlog.poll());
+                continue;
+            }
+            if (inputEnded && backlog.isEmpty() && !scheduler.isPending(gameManager.getCurrentGame())) {
+                break;
+            }
+            Event event = takeEvent(gameManager.getCurrentGame());
+            if (event == END_OF_INPUT) {
+                inputEnded = true;
+            } else if (event.move() != null) {
+                applyAIMove(event.move());
+            } else {
+                backlog.add(event.line());
+            }
+        }
+        scheduler.shutdown();
+        if (ponderer != null) {
+            ponderer.stop();
+        }
+    }
+
+    /**
+     * Starts the background thread that reads the input line by line and queues it as events.
+     *
+     * @param inputReader Reads the input lines, queues them as events and finally queues the end of input.
+     */
+    private void startInputReader(Runnable inputReader) {
+        Thread reader = new Thread(inputReader, INPUT_THREAD_NAME);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Reads the user's input line by line and queues it as events.
+     */
+    private void readUserInput() {
         try (Scanner scanner = new Scanner(System.in)) {
-            while (running) {
-                executeCommand(getInput(scanner));
+            while (scanner.hasNextLine()) {
+                events.add(new Event(scanner.nextLine(), null));
+            }
+        }
+        events.add(END_OF_INPUT);
+    }
+
+    /**
+     * Reads a script line by line and queues it as events.
+     * If the script cannot be read to its end, the lines read so far are still executed.
+     *
+     * @param script The script.
+     */
+    private void readScript(BufferedReader script) {
+        try (script) {
+            for (String line = script.readLine(); line != null; line = script.readLine()) {
+                events.add(new Event(line, null));
+            }
+        } catch (IOException e) {
+            gameManager.getErrorOutput().printf(SCRIPT_ERROR, e.getMessage());
+        }
+        events.add(END_OF_INPUT);
+    }
+
+    /**
+     * Schedules the next move of the AI in the given game if it is the AI's turn.
+     * If pondering is enabled and the AI has already found its reply to the user's move in the current game, the
+     * reply is executed right away instead.
+     *
+     * @param game The game in which the AI may be about to move.
+     */
+    private void scheduleAIMove(HexGame game) {
+        if (game.getWinningPlayer() != null || !(game.getCurrentPlayer() instanceof AIPlayer)
+                || scheduler.isPending(game)) {
+            return;
+        }
+        Move reply = (ponderer != null && game == gameManager.getCurrentGame()) ? ponderer.takeReply(game) : null;
+        if (reply != null) {
+            executeMove(reply);
+            return;
+        }
+        if (scheduler.schedule(game, move -> events.add(new Event(null, move)))) {
+            pendingAIMoves++;
+        }
+    }
+
+    /**
+     * Checks whether the given input line may be executed now.
+     *
+     * @param line        The input line.
+     * @param currentGame The current game.
+     * @return True if no AI move is pending, or if commands may overtake pending AI moves and either no AI move of
+     *         the current game is pending or the command does not have to wait for it.
+     */
+    private boolean mayExecute(String line, HexGame currentGame) {
+        if (!async) {
+            return pendingAIMoves == 0;
+        }
+        return !scheduler.isPending(currentGame) || !dispatcher.requiresCurrentGame(line);
+    }
+
+    /**
+     * Waits for the next event.
+     * If pondering is enabled and the user is to move in the current game, the AI searches its replies while
+     * waiting.
+     *
+     * @param currentGame The current game.
+     * @return The next event, or the end of input if the thread has been interrupted.
+     */
+    private Event takeEvent(HexGame currentGame) {
+        boolean pondering = ponderer != null && backlog.isEmpty() && !scheduler.isPending(currentGame);
+        if (pondering) {
+            ponderer.start(currentGame);
+        }
+        Event event;
+        try {
+            event = events.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return END_OF_INPUT;
+        }
+        if (pondering && event.line() != null) {
+            ponderer.stop();
+        }
+        return event;
+    }
+
+    /**
+     * Applies a move that an AI has computed in the background, unless its game has changed in the meantime.
+     * A move of the current game is executed like a command, a move of another game is applied without output.
+     *
+     * @param move The computed move.
+     */
+    private void applyAIMove(AIMove move) {
+        HexGame game = move.game();
+        if (move.isApplicable(gameManager.getRegistry())) {
+            if (game == gameManager.getCurrentGame()) {
+                executeMove(move.move());
+            } else {
+                applyQuietly(move);
             }
         }
+        scheduler.finish(game);
+        pendingAIMoves--;
+    }
+
+    /**
+     * Applies the given move to its game without printing anything.
+     *
+     * @param move The computed move.
+     */
+    private void applyQuietly(AIMove move) {
+        try {
+            move.apply();
+        } catch (NotEmptyException | GameAlreadyWonException | OutOfBoundsException e) {
+            // This shouldn't happen since the AI only chooses valid moves
+        }
     }
 
     /**
@@ -103,37 +338,36 @@ public class CommandHandler {
      * @param commandWithArguments The command and its arguments as a single string.
      */
     private void executeCommand(String commandWithArguments) {
-        String[] splitCommand = commandWithArguments.trim().split(COMMAND_SEPARATOR);
-        String commandName = splitCommand[0];
-        String[] arguments = Arrays.copyOfRange(splitCommand, 1, splitCommand.length);
-        if (!commands.containsKey(commandName)) {
-            System.err.printf(COMMAND_NOT_FOUND, commandName);
-            return;
-        }
-        commands.get(commandName).execute(arguments);
+        dispatcher.execute(commandWithArguments);
+        countExecutedCommand();
     }
 
     /**
-     * Adds a new game command to the command map.
+     * Executes the given move of an AI in the current game like a command.
      *
-     * @param command The command to add.
+     * @param move The move.
      */
-    private void addCommand(Command command) {
-        this.commands.put(command.getCommandName(), command);
+    private void executeMove(Move move) {
+        dispatcher.execute(move);
+        countExecutedCommand();
     }
 
     /**
-     * Initializes the available game commands.
+     * Counts an executed command and flushes the batch output after every {@link #FLUSH_INTERVAL} commands.
+     */
+    private void countExecutedCommand() {
+        if (batchOutput != null && ++unflushedCommands == FLUSH_INTERVAL) {
+            batchOutput.flush();
+            unflushedCommands = 0;
+        }
+    }
+
+    /**
+     * Represents an event processed by the command handler: either an input line or a computed AI move.
+     *
+     * @param line The input line, or null if the event is not an input line.
+     * @param move The computed AI move, or null if the event is not an AI move.
      */
-    private void initCommands() {
-        addCommand(new PlaceCommand(gameManager));
-        addCommand(new HistoryCommand(gameManager));
-        addCommand(new SwapCommand(gameManager));
-        addCommand(new PrintCommand(gameManager));
-        addCommand(new ListGamesCommand(gameManager));
-        addCommand(new NewGameCommand(gameManager));
-        addCommand(new SwitchGameCommand(gameManager));
-        addCommand(new QuitCommand(this));
-        addCommand(new HelpCommand(gameManager));
+    private record Event(String line, AIMove move) {
     }
 }
@@ -0,0 +1,218 @@
+package edu.kit.informatik.ui;
+
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Splits an input line into the name of a command and its arguments, without creating a string per token.
+ *
+ * <p>The line is copied into a char buffer that is reused for every line, and the tokens are kept as the bounds of
+ * their chars in the buffer. An argument only becomes a string when a command asks for it as one, while numbers are
+ * parsed right from the buffer. The line is split like {@code line.trim().split("\\s+")}: leading and trailing
+ * control characters and spaces are dropped, and the tokens are separated by runs of the whitespace characters
+ * {@code [ \t\n\x0B\f\r]}. A line without any token therefore consists of one empty command name.</p>
+ *
+ * <p>A command line is reused for all lines of a client and must only be used by one thread at a time.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class CommandLine {
+    /**
+     * The value returned by {@link #getIntArgument(int)} if the argument is not an int.
+     */
+    public static final long NOT_AN_INT = Long.MIN_VALUE;
+    private static final int INITIAL_BUFFER_SIZE = 64;
+    private static final int INITIAL_TOKEN_CAPACITY = 4;
+    private static final int RADIX = 10;
+    private static final char LINE_TABULATION = '\u000B';
+
+    private char[] buffer = new char[INITIAL_BUFFER_SIZE];
+    private int[] tokenStarts = new int[INITIAL_TOKEN_CAPACITY];
+    private int[] tokenEnds = new int[INITIAL_TOKEN_CAPACITY];
+    private int tokenCount;
+
+    /**
+     * Splits the given line into its tokens, replacing the tokens of the previous line.
+     *
+     * @param line The input line.
+     */
+    public void parse(String line) {
+        int length = line.length();
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, 2 * buffer.length)];
+        }
+        line.getChars(0, length, buffer, 0);
+        int start = 0;
+        int end = length;
+        // Trims like String.trim()
+        while (start < end && buffer[start] <= ' ') {
+            start++;
+        }
+        while (end > start && buffer[end - 1] <= ' ') {
+            end--;
+        }
+        tokenCount = 0;
+        if (start == end) {
+            addToken(start, end);
+            return;
+        }
+        // After trimming, the line neither starts nor ends with a separator, so every run of separators is
+        // followed by a token
+        int position = start;
+        while (position < end) {
+            int tokenStart = position;
+            while (position < end && !isSeparator(buffer[position])) {
+                position++;
+            }
+            addToken(tokenStart, position);
+            while (position < end && isSeparator(buffer[position])) {
+                position++;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the command name of the line is the given name, without creating a string.
+     *
+     * @param name The name of a command.
+     * @return True if the line starts with the given command name.
+     */
+    public boolean isCommand(String name) {
+        int start = tokenStarts[0];
+        int length = tokenEnds[0] - start;
+        if (length != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[start + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the command name of the line.
+     *
+     * @return The first token, which is empty if the line has no tokens.
+     */
+    public String getCommandName() {
+        return token(0);
+    }
+
+    /**
+     * Returns the number of arguments following the command name.
+     *
+     * @return The number of arguments.
+     */
+    public int getArgumentCount() {
+        return tokenCount - 1;
+    }
+
+    /**
+     * Returns an argument as a string.
+     *
+     * @param index The index of the argument, 0 for the first argument after the command name.
+     * @return The argument.
+     * @throws IndexOutOfBoundsException If there is no argument with the given index.
+     */
+    public String getArgument(int index) {
+        return token(checkArgument(index));
+    }
+
+    /**
+     * Parses an argument as a decimal int, accepting exactly what {@link Integer#parseInt(String)} accepts.
+     * Arguments of ASCII digits with an optional sign are parsed right from the buffer.
+     *
+     * @param index The index of the argument, 0 for the first argument after the command name.
+     * @return The value of the argument, or {@link #NOT_AN_INT} if it is not an int.
+     * @throws IndexOutOfBoundsException If there is no argument with the given index.
+     */
+    public long getIntArgument(int index) {
+        int token = checkArgument(index);
+        int position = tokenStarts[token];
+        int end = tokenEnds[token];
+        boolean negative = buffer[position] == '-';
+        if (negative || buffer[position] == '+') {
+            position++;
+        }
+        if (position == end) {
+            return NOT_AN_INT;
+        }
+        long value = 0;
+        for (; position < end; position++) {
+            int digit = buffer[position] - '0';
+            if (digit < 0 || digit >= RADIX) {
+                return parseSlowly(token);
+            }
+            value = value * RADIX + digit;
+            if (value > -(long) Integer.MIN_VALUE) {
+                return NOT_AN_INT;
+            }
+        }
+        value = negative ? -value : value;
+        return (value > Integer.MAX_VALUE) ? NOT_AN_INT : value;
+    }
+
+    /**
+     * Parses a token with {@link Integer#parseInt(String)}, which also accepts digits of other scripts than ASCII.
+     *
+     * @param token The index of the token.
+     * @return The value of the token, or {@link #NOT_AN_INT} if it is not an int.
+     */
+    private long parseSlowly(int token) {
+        try {
+            return Integer.parseInt(token(token));
+        } catch (NumberFormatException e) {
+            return NOT_AN_INT;
+        }
+    }
+
+    /**
+     * Checks whether the given char separates tokens, as the pattern {@code \s} does.
+     *
+     * @param c The char.
+     * @return True if the char is a whitespace separator, otherwise false.
+     */
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == LINE_TABULATION || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Adds the bounds of a token.
+     *
+     * @param start The index of the first char of the token in the buffer.
+     * @param end   The index after the last char of the token in the buffer.
+     */
+    private void addToken(int start, int end) {
+        if (tokenCount == tokenStarts.length) {
+            tokenStarts = Arrays.copyOf(tokenStarts, 2 * tokenCount);
+            tokenEnds = Arrays.copyOf(tokenEnds, 2 * tokenCount);
+        }
+        tokenStarts[tokenCount] = start;
+        tokenEnds[tokenCount++] = end;
+    }
+
+    /**
+     * Creates the string of a token.
+     *
+     * @param token The index of the token.
+     * @return The token.
+     */
+    private String token(int token) {
+        return new String(buffer, tokenStarts[token], tokenEnds[token] - tokenStarts[token]);
+    }
+
+    /**
+     * Checks that an argument with the given index exists.
+     *
+     * @param index The index of the argument.
+     * @return The index of the token of the argument.
+     * @throws IndexOutOfBoundsException If there is no argument with the given index.
+     */
+    private int checkArgument(int index) {
+        return Objects.checkIndex(index, tokenCount - 1) + 1;
+    }
+}
@@ -3,6 +3,9 @@ package edu.kit.informatik.ui;
 
 import edu.kit.informatik.manager.GameManager;
 
+import java.io.PrintStream;
+import java.util.concurrent.locks.Lock;
+
 /**
  * Represents an abstract command that interacts with the game manager.
  * This class acts as a base for all specific game manager command implementations.
@@ -21,6 +24,14 @@ public abstract class GameManagerCommand extends Command {
      * The game manager instance that the command interacts with.
      */
     protected final GameManager manager;
+    /**
+     * The stream to which the command writes its output, taken from the game manager.
+     */
+    protected final PrintStream output;
+    /**
+     * The stream to which the command writes its error messages, taken from the game manager.
+     */
+    protected final PrintStream errorOutput;
     /**
      * The minimum number of arguments required by the command.
      */
@@ -43,6 +54,8 @@ public abstract class GameManagerCommand extends Command {
         super(commandName);
 
         this.manager = manager;
+        this.output = manager.getOutput();
+        this.errorOutput = manager.getErrorOutput();
         this.minNumberOfArguments = minNumberOfArguments;
         this.maxNumberOfArguments = maxNumberOfArguments;
     }
@@ -50,25 +63,47 @@ public abstract class GameManagerCommand extends Command {
     /**
      * Executes the command with the provided arguments.
      * This method validates the number of arguments before executing the specific command logic.
+     * A command that works on the current game holds the lock of that game while it runs, so that it sees and
+     * prints a consistent state even if other threads move in other games at the same time.
      *
-     * @param commandArguments An array of arguments provided by the user for executing the command.
+     * @param commandArguments The arguments provided by the user for executing the command.
      */
     @Override
-    public final void execute(String[] commandArguments) {
-        if (commandArguments.length > maxNumberOfArguments || commandArguments.length < minNumberOfArguments) {
-            System.err.println(EXPECTED_INNER_ARGUMENTS_ERROR);
+    public final void execute(CommandLine commandArguments) {
+        if (commandArguments.getArgumentCount() > maxNumberOfArguments || commandArguments.getArgumentCount() < minNumberOfArguments) {
+            errorOutput.println(EXPECTED_INNER_ARGUMENTS_ERROR);
+            return;
+        }
+        if (!requiresCurrentGame()) {
+            executeTaskManagerCommand(commandArguments);
             return;
         }
-        executeTaskManagerCommand(commandArguments);
+        executeOnCurrentGame(() -> executeTaskManagerCommand(commandArguments));
+    }
+
+    /**
+     * Runs the given action while holding the lock of the current game.
+     * Commands that can also be executed without an input line use it to lock the game like {@link #execute}.
+     *
+     * @param action The action working on the current game.
+     */
+    protected final void executeOnCurrentGame(Runnable action) {
+        Lock lock = manager.getCurrentGame().getLock();
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Executes the specific game manager command logic with the provided arguments.
      * This method should be overridden by all subclasses to provide specific command execution logic.
      *
-     * @param commandArguments An array of arguments provided by the user for executing the command.
+     * @param commandArguments The arguments provided by the user for executing the command.
      */
-    protected abstract void executeTaskManagerCommand(String[] commandArguments);
+    protected abstract void executeTaskManagerCommand(CommandLine commandArguments);
 
     /**
      * Creates and returns a formatted error message with the provided message.
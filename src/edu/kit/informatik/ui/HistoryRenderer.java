@@ -0,0 +1,157 @@
+package edu.kit.informatik.ui;
+
+
+import edu.kit.informatik.entity.Player;
+import edu.kit.informatik.manager.exceptions.HistoryExceededException;
+import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.MoveHistory;
+
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes the moves of a game in the format of the history command, "{playerName}: {x} {y}" per line, the most
+ * recent move first.
+ *
+ * <p>The lines are assembled as bytes in a buffer of the renderer, which is handed to the stream whenever it is
+ * full. The names of the players are encoded once and kept as long as the game is played by players with the same
+ * names, and the coordinates are written digit by digit, so printing a long history neither formats a string per
+ * move nor builds the whole output in memory.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class HistoryRenderer {
+    private static final int BUFFER_SIZE = 1 << 13;
+    private static final String NAME_SEPARATOR = ": ";
+    private static final byte COORDINATE_SEPARATOR = ' ';
+    private static final int RADIX = 10;
+    /**
+     * The number of digits of the largest int.
+     */
+    private static final int MAX_INT_LENGTH = 10;
+
+    private final Charset charset;
+    private final byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The maximum number of bytes of a line after the name: the coordinates, their separator and the line
+     * separator.
+     */
+    private final int coordinatesLength = 2 * MAX_INT_LENGTH + 1 + lineSeparator.length;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int length;
+    private String[] cachedNames = new String[0];
+    /**
+     * The encoded names of the players in {@link #cachedNames}, each followed by the name separator.
+     */
+    private byte[][] encodedPrefixes = new byte[0][];
+
+    /**
+     * Constructs a renderer for streams that encode text in the given charset.
+     *
+     * @param charset The charset of the streams.
+     */
+    public HistoryRenderer(Charset charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * Writes a page of the moves of the given game, counted backwards from the most recent move. Must be called
+     * while holding the lock of the game.
+     *
+     * @param game   The game.
+     * @param offset The number of most recent moves to skip.
+     * @param limit  The number of moves to write.
+     * @param output The stream to write to.
+     * @throws HistoryExceededException If the game has fewer than {@code offset + limit} moves.
+     */
+    public void render(HexGame game, int offset, int limit, PrintStream output) throws HistoryExceededException {
+        MoveHistory history = game.getMoveHistory();
+        if ((long) offset + limit > history.size()) {
+            throw new HistoryExceededException();
+        }
+        updatePrefixes(game.getPlayers());
+        int size = game.getSize();
+        int last = history.size() - offset - limit;
+        for (int i = history.size() - 1 - offset; i >= last; i--) {
+            int cell = history.getCell(i);
+            appendPrefix(encodedPrefixes[history.getPlayerIndex(i)], output);
+            appendInt(cell / size);
+            buffer[length++] = COORDINATE_SEPARATOR;
+            appendInt(cell % size);
+            System.arraycopy(lineSeparator, 0, buffer, length, lineSeparator.length);
+            length += lineSeparator.length;
+        }
+        flush(output);
+    }
+
+    /**
+     * Encodes the names of the given players unless they are the ones encoded last.
+     *
+     * @param players The players.
+     */
+    private void updatePrefixes(List<Player> players) {
+        boolean changed = cachedNames.length != players.size();
+        for (int i = 0; !changed && i < cachedNames.length; i++) {
+            changed = !cachedNames[i].equals(players.get(i).getName());
+        }
+        if (!changed) {
+            return;
+        }
+        cachedNames = new String[players.size()];
+        encodedPrefixes = new byte[players.size()][];
+        for (int i = 0; i < cachedNames.length; i++) {
+            cachedNames[i] = players.get(i).getName();
+            encodedPrefixes[i] = (cachedNames[i] + NAME_SEPARATOR).getBytes(charset);
+        }
+    }
+
+    /**
+     * Appends the encoded name of a player to the buffer, after handing the buffer to the stream if the rest of
+     * the line might not fit. A name longer than the buffer is written to the stream by itself.
+     *
+     * @param prefix The encoded name followed by the name separator.
+     * @param output The stream.
+     */
+    private void appendPrefix(byte[] prefix, PrintStream output) {
+        if (length + prefix.length + coordinatesLength > BUFFER_SIZE) {
+            flush(output);
+        }
+        if (prefix.length + coordinatesLength > BUFFER_SIZE) {
+            output.write(prefix, 0, prefix.length);
+            return;
+        }
+        System.arraycopy(prefix, 0, buffer, length, prefix.length);
+        length += prefix.length;
+    }
+
+    /**
+     * Appends the decimal representation of a non-negative int to the buffer.
+     *
+     * @param value The value.
+     */
+    private void appendInt(int value) {
+        int rest = value;
+        int digits = 1;
+        for (long bound = RADIX; bound <= rest; bound *= RADIX) {
+            digits++;
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (byte) ('0' + rest % RADIX);
+            rest /= RADIX;
+        }
+        length += digits;
+    }
+
+    /**
+     * Writes the buffered bytes to the stream.
+     *
+     * @param output The stream.
+     */
+    private void flush(PrintStream output) {
+        output.write(buffer, 0, length);
+        length = 0;
+    }
+}
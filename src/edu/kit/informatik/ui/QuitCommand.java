@@ -1,5 +1,7 @@
 package edu.kit.informatik.ui;
 
+import java.io.PrintStream;
+
 /**
  * Represents a command to quit the game or application.
  * This command will stop the game execution and exit the application when invoked.
@@ -18,19 +20,25 @@ public class QuitCommand extends Command {
      */
     private static final String QUIT_WITH_ARGUMENTS_ERROR = "Error: quit does not allow args.";
     /**
-     * The command handler responsible for handling the quit action.
+     * The action ending the session of the client.
+     */
+    private final Runnable quitAction;
+    /**
+     * The stream to which the command writes its error messages.
      */
-    private final CommandHandler commandHandler;
+    private final PrintStream errorOutput;
 
     /**
-     * Constructs a new QuitCommand with the specified command handler.
+     * Constructs a new QuitCommand with the specified quit action.
      *
-     * @param commandHandler The command handler responsible for handling the quit action.
+     * @param quitAction  The action ending the session of the client, e.g. stopping the command handler.
+     * @param errorOutput The stream to which error messages are written.
      */
 
-    public QuitCommand(CommandHandler commandHandler) {
+    public QuitCommand(Runnable quitAction, PrintStream errorOutput) {
         super(COMMAND_NAME);
-        this.commandHandler = commandHandler;
+        this.quitAction = quitAction;
+        this.errorOutput = errorOutput;
     }
 
     /**
@@ -38,14 +46,25 @@ public class QuitCommand extends Command {
      * If any arguments are provided, an error message is displayed.
      * Otherwise, the game or application is exited.
      *
-     * @param commandArguments An array of arguments provided by the user for executing the command.
+     * @param commandArguments The arguments provided by the user for executing the command.
      */
     @Override
-    public void execute(String[] commandArguments) {
-        if (commandArguments.length != 0) {
-            System.err.println(QUIT_WITH_ARGUMENTS_ERROR);
+    public void execute(CommandLine commandArguments) {
+        if (commandArguments.getArgumentCount() != 0) {
+            errorOutput.println(QUIT_WITH_ARGUMENTS_ERROR);
             return;
         }
-        commandHandler.quit();
+        quitAction.run();
+    }
+
+    /**
+     * Checks whether the command works on the current game.
+     * Quitting cancels pending AI moves instead of waiting for them.
+     *
+     * @return False, since quitting does not depend on the state of any game.
+     */
+    @Override
+    public boolean requiresCurrentGame() {
+        return false;
     }
 }
@@ -0,0 +1,84 @@
+package edu.kit.informatik.ui.command;
+
+
+import edu.kit.informatik.manager.GameManager;
+import edu.kit.informatik.manager.exceptions.GameAlreadyExistsException;
+import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.ui.CommandLine;
+import edu.kit.informatik.ui.GameManagerCommand;
+
+import java.util.regex.Pattern;
+
+/**
+ * Represents the "fork-game" command, which creates a new game from the current position of the current game.
+ * The new game becomes the current game, so that a variation can be played on without changing the original game.
+ * Its board shares the cells with the original until either game places a token, so even a fork of the largest
+ * board is created right away.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class ForkGameCommand extends GameManagerCommand {
+    /**
+     * The name of the fork-game command.
+     */
+    private static final String COMMAND_NAME = "fork-game";
+    /**
+     * Regular expression to validate the name of the game.
+     * The game name should not contain any white-space.
+     */
+    private static final Pattern GAME_NAME_PATTERN = Pattern.compile("^\\S+$");
+    private static final String FORK_SUCCESS_FORMAT = "Forked %s to %s%n";
+    private static final String INVALID_GAME_NAME_ERROR = "Game name is invalid";
+    /**
+     * The expected number of arguments for this command.
+     * This command expects one argument - the name of the new game.
+     */
+    private static final int NUMBER_OF_ARGUMENTS = 1;
+    /**
+     * Index for the game name argument in the command arguments array.
+     */
+    private static final int NAME_INDEX = 0;
+
+    /**
+     * Constructs a new ForkGameCommand with the specified game manager.
+     *
+     * @param manager The game manager whose current game is forked.
+     */
+    public ForkGameCommand(GameManager manager) {
+        super(COMMAND_NAME, manager, NUMBER_OF_ARGUMENTS, NUMBER_OF_ARGUMENTS);
+    }
+
+    /**
+     * Executes the fork-game command.
+     * Forks the current game into a new game with the given name and switches to it. The board and the name of the
+     * player who has the next move are displayed as after the new-game command, unless the game has been won.
+     *
+     * @param commandArguments The arguments provided by the user for executing the command.
+     *                         This command expects one argument - the name of the new game.
+     */
+    @Override
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        String name = commandArguments.getArgument(NAME_INDEX);
+        if (!GAME_NAME_PATTERN.matcher(name).matches()) {
+            errorOutput.println(createError(INVALID_GAME_NAME_ERROR));
+            return;
+        }
+        String parentName = manager.getCurrentGame().getName();
+        try {
+            manager.forkGame(name);
+        } catch (GameAlreadyExistsException e) {
+            errorOutput.println(createError(e.getMessage()));
+            return;
+        }
+        output.printf(FORK_SUCCESS_FORMAT, parentName, name);
+        HexGame fork = manager.getCurrentGame();
+        if (fork.getWinningPlayer() != null) {
+            return;
+        }
+        if (manager.isPrint()) {
+            output.print(fork.getBoard());
+        }
+        output.printf(TURN_FORMAT, manager.getCurrentPlayer().getName());
+    }
+}
@@ -1,6 +1,7 @@
 package edu.kit.informatik.ui.command;
 
 import edu.kit.informatik.manager.GameManager;
+import edu.kit.informatik.ui.CommandLine;
 import edu.kit.informatik.ui.GameManagerCommand;
 
 /**
@@ -24,16 +25,32 @@ public class HelpCommand extends GameManagerCommand {
     }
 
     @Override
-    protected void executeTaskManagerCommand(String[] commandArguments) {
-        System.out.println("* help: Prints this help message");
-        System.out.println("* history: Shows the move history of the current game");
-        System.out.println("* list-games: Lists all active games being managed");
-        System.out.println("* new-game: Starts a new game with the given name");
-        System.out.println("* place: Places the current player's token on the board at the specified (x, y) coordinates");
-        System.out.println("* print: Displays the current state of the game board");
-        System.out.println("* quit: Quit all games and end program");
-        System.out.println("* swap: Swaps the players");
-        System.out.println("* switch-game: Switches to another game session with the provided name");
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        output.println("* fork-game: Starts a new game from the position of the current game");
+        output.println("* help: Prints this help message");
+        output.println("* history: Shows the move history of the current game");
+        output.println("* list-games: Lists all active games being managed, optionally a page of the given size and offset");
+        output.println("* load-game: Loads the games recorded in the given file");
+        output.println("* new-game: Starts a new game with the given name");
+        output.println("* place: Places the current player's token on the board at the specified (x, y) coordinates");
+        output.println("* place-batch: Places tokens in the given games, each given by its name and (x, y) coordinates, and prints a result code per token");
+        output.println("* print: Displays the current state of the game board");
+        output.println("* quit: Quit all games and end program");
+        output.println("* save-game: Saves the record of the current game to the given file");
+        output.println("* set-budget: Limits the time in milliseconds an AI may spend on a move, 0 for no limit");
+        output.println("* swap: Swaps the players");
+        output.println("* switch-game: Switches to another game session with the provided name");
 
     }
+
+    /**
+     * Checks whether the command works on the current game.
+     * The help message does not depend on any game.
+     *
+     * @return False, since the help message does not depend on the state of any game.
+     */
+    @Override
+    public boolean requiresCurrentGame() {
+        return false;
+    }
 }
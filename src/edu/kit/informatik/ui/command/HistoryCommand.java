@@ -3,13 +3,16 @@ package edu.kit.informatik.ui.command;
 
 import edu.kit.informatik.manager.GameManager;
 import edu.kit.informatik.manager.exceptions.HistoryExceededException;
+import edu.kit.informatik.ui.CommandLine;
 import edu.kit.informatik.ui.GameManagerCommand;
+import edu.kit.informatik.ui.HistoryRenderer;
 
 /**
  * Represents a command to retrieve the recent move history of the current game.
  * The history command allows players to view recent moves made in the game.
  * The number of recent moves to be retrieved can be specified as an argument.
  * If no argument is provided, the default is to retrieve the most recent move.
+ * A second argument pages through long histories by skipping the given number of most recent moves first.
  *
  * @author utobm
  * @version 1.0
@@ -27,6 +30,10 @@ public class HistoryCommand extends GameManagerCommand {
      * Index for the number of turns in the command arguments.
      */
     private static final int NUMBER_OF_TURNS_INDEX = 0;
+    /**
+     * Index for the number of skipped turns in the command arguments.
+     */
+    private static final int OFFSET_INDEX = 1;
     /**
      * Minimum number of arguments that can be provided to the history command.
      */
@@ -34,7 +41,11 @@ public class HistoryCommand extends GameManagerCommand {
     /**
      * Maximum number of arguments that can be provided to the history command.
      */
-    private static final int MAX_NUMBER_OF_ARGUMENTS = 1;
+    private static final int MAX_NUMBER_OF_ARGUMENTS = 2;
+    /**
+     * Writes the moves directly to the output of the client.
+     */
+    private final HistoryRenderer renderer;
 
     /**
      * Constructs a new HistoryCommand with the specified game manager.
@@ -43,49 +54,53 @@ public class HistoryCommand extends GameManagerCommand {
      */
     public HistoryCommand(GameManager manager) {
         super(COMMAND_NAME, manager, MIN_NUMBER_OF_ARGUMENTS, MAX_NUMBER_OF_ARGUMENTS);
+        this.renderer = new HistoryRenderer(manager.getCharset());
     }
 
     /**
      * Executes the history command.
-     * Retrieves and displays the recent move history based on the provided argument or the default count.
+     * Retrieves and displays the recent move history based on the provided arguments or the default count.
      *
-     * @param commandArguments An array of arguments provided by the user for executing the command.
+     * @param commandArguments The arguments provided by the user for executing the command.
      */
     @Override
-    protected void executeTaskManagerCommand(String[] commandArguments) {
-        int requestedMoves = (commandArguments.length == MIN_NUMBER_OF_ARGUMENTS)
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        int requestedMoves = (commandArguments.getArgumentCount() == MIN_NUMBER_OF_ARGUMENTS)
                 ? DEFAULT_MOVES_COUNT
                 : parseRequestedMoves(commandArguments);
+        int offset = (commandArguments.getArgumentCount() > OFFSET_INDEX) ? parseOffset(commandArguments) : 0;
 
-        if (requestedMoves == -1) {
-            System.err.println(INVALID_ARGUMENTS_ERROR);
+        if (requestedMoves == -1 || offset == -1) {
+            errorOutput.println(INVALID_ARGUMENTS_ERROR);
             return;
         }
 
         try {
-            String recentMovesOutput = manager.getCurrentGame().retrieveRecentMoves(requestedMoves);
-            System.out.print(recentMovesOutput);
+            renderer.render(manager.getCurrentGame(), offset, requestedMoves, output);
         } catch (HistoryExceededException e) {
-            System.err.println(createError(e.getMessage()));
+            errorOutput.println(createError(e.getMessage()));
         }
     }
 
     /**
      * Parses the requested number of recent moves from the command arguments.
      *
-     * @param commandArguments An array of arguments provided by the user.
+     * @param commandArguments The arguments provided by the user.
      * @return The parsed number of requested moves or -1 if the parsing fails.
      */
-    private int parseRequestedMoves(String[] commandArguments) {
-        int requestedMoves;
-        try {
-            requestedMoves = Integer.parseInt(commandArguments[NUMBER_OF_TURNS_INDEX]);
-        } catch (NumberFormatException ignored) {
-            return -1;
-        }
-        if (requestedMoves == 0) {
-            return -1;
-        }
-        return requestedMoves;
+    private int parseRequestedMoves(CommandLine commandArguments) {
+        long requestedMoves = commandArguments.getIntArgument(NUMBER_OF_TURNS_INDEX);
+        return (requestedMoves <= 0) ? -1 : (int) requestedMoves;
+    }
+
+    /**
+     * Parses the number of most recent moves to skip from the command arguments.
+     *
+     * @param commandArguments The arguments provided by the user.
+     * @return The parsed number of skipped moves or -1 if the parsing fails.
+     */
+    private int parseOffset(CommandLine commandArguments) {
+        long offset = commandArguments.getIntArgument(OFFSET_INDEX);
+        return (offset < 0) ? -1 : (int) offset;
     }
 }
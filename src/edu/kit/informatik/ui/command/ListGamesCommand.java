@@ -2,12 +2,14 @@ package edu.kit.informatik.ui.command;
 
 
 import edu.kit.informatik.manager.GameManager;
+import edu.kit.informatik.ui.CommandLine;
 import edu.kit.informatik.ui.GameManagerCommand;
 
 /**
  * Represents a command to list all the active games in the game manager.
  * The command, when executed, will retrieve a list of all the active games
  * (games that haven't been won yet) and display them to the user.
+ * Optionally, only a page of the list is displayed: the given number of games after skipping the given offset.
  * @author utobm
  * @version 1.0
  */
@@ -16,11 +18,27 @@ public class ListGamesCommand extends GameManagerCommand {
      * The name for the list-games command.
      */
     private static final String COMMAND_NAME = "list-games";
+    private static final String MOVE_COUNT_SEPARATOR = ": ";
     /**
-     * The number of arguments expected by the list-games command.
-     * Since the command doesn't take any arguments, the value is set to 0.
+     * Index for the number of games in the command arguments.
      */
-    private static final int NUMBER_OF_ARGUMENTS = 0;
+    private static final int LIMIT_INDEX = 0;
+    /**
+     * Index for the number of skipped games in the command arguments.
+     */
+    private static final int OFFSET_INDEX = 1;
+    /**
+     * Minimum number of arguments: without arguments, all active games are listed.
+     */
+    private static final int MIN_NUMBER_OF_ARGUMENTS = 0;
+    /**
+     * Maximum number of arguments: the number of games to list and the number of games to skip.
+     */
+    private static final int MAX_NUMBER_OF_ARGUMENTS = 2;
+    /**
+     * Tells whether the current listing has written a game yet.
+     */
+    private boolean listedAny;
 
     /**
      * Constructs a new ListGamesCommand with the specified game manager.
@@ -28,18 +46,68 @@ public class ListGamesCommand extends GameManagerCommand {
      * @param manager The game manager used to retrieve the list of active games.
      */
     public ListGamesCommand(GameManager manager) {
-        super(COMMAND_NAME, manager, NUMBER_OF_ARGUMENTS, NUMBER_OF_ARGUMENTS);
+        super(COMMAND_NAME, manager, MIN_NUMBER_OF_ARGUMENTS, MAX_NUMBER_OF_ARGUMENTS);
     }
 
     /**
      * Executes the list-games command.
-     * Retrieves and displays the list of all active games from the game manager.
+     * Writes the active games from the game manager straight to the output, one game per line, or an empty line if
+     * there is no game to list.
+     *
+     * @param commandArguments The arguments provided by the user for executing the command: optionally the
+     *                         number of games to list, followed by the number of games to skip.
+     */
+    @Override
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        int limit = (commandArguments.getArgumentCount() > LIMIT_INDEX)
+                ? parseArgument(commandArguments, LIMIT_INDEX) : 0;
+        int offset = (commandArguments.getArgumentCount() > OFFSET_INDEX)
+                ? parseArgument(commandArguments, OFFSET_INDEX) : 0;
+        if (limit == -1 || offset == -1 || commandArguments.getArgumentCount() > LIMIT_INDEX && limit == 0) {
+            errorOutput.println(INVALID_ARGUMENTS_ERROR);
+            return;
+        }
+        listedAny = false;
+        int pageSize = (commandArguments.getArgumentCount() > LIMIT_INDEX) ? limit : Integer.MAX_VALUE;
+        manager.forEachActiveGame(offset, pageSize, this::printGame);
+        if (!listedAny) {
+            output.println();
+        }
+    }
+
+    /**
+     * Writes the line of a game.
+     *
+     * @param name      The name of the game.
+     * @param moveCount The number of moves made in the game.
+     */
+    private void printGame(String name, int moveCount) {
+        output.print(name);
+        output.print(MOVE_COUNT_SEPARATOR);
+        output.println(moveCount);
+        listedAny = true;
+    }
+
+    /**
+     * Parses a non-negative number from the command arguments.
+     *
+     * @param commandArguments The arguments provided by the user.
+     * @param index            The index of the argument.
+     * @return The parsed number or -1 if the parsing fails.
+     */
+    private static int parseArgument(CommandLine commandArguments, int index) {
+        long value = commandArguments.getIntArgument(index);
+        return (value < 0) ? -1 : (int) value;
+    }
+
+    /**
+     * Checks whether the command works on the current game.
+     * Games with a pending AI move are listed with the moves made so far.
      *
-     * @param commandArguments An array of arguments provided by the user for executing the command.
-     *                         Expected to be empty for this command.
+     * @return False, since the list is a snapshot of all games.
      */
     @Override
-    protected void executeTaskManagerCommand(String[] commandArguments) {
-        System.out.println(manager.getGameList());
+    public boolean requiresCurrentGame() {
+        return false;
     }
 }
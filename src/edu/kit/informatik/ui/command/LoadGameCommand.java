@@ -0,0 +1,147 @@
+package edu.kit.informatik.ui.command;
+
+
+import edu.kit.informatik.manager.GameManager;
+import edu.kit.informatik.manager.exceptions.GameAlreadyExistsException;
+import edu.kit.informatik.manager.exceptions.GameNotFoundException;
+import edu.kit.informatik.manager.exceptions.NotEmptyException;
+import edu.kit.informatik.manager.exceptions.OutOfBoundsException;
+import edu.kit.informatik.manager.record.GameRecord;
+import edu.kit.informatik.manager.record.GameRecordReader;
+import edu.kit.informatik.ui.CommandLine;
+import edu.kit.informatik.ui.GameManagerCommand;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * Represents the "load-game" command, which adds the games recorded in a file as new games.
+ * The first loaded game becomes the current game and is welcomed like a game created with "new-game".
+ * Loading stops at the first record that cannot be added, for example since a game with its name already exists.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class LoadGameCommand extends GameManagerCommand {
+    /**
+     * The name of the load-game command.
+     */
+    private static final String COMMAND_NAME = "load-game";
+    /**
+     * Message prefix to display when the loaded game starts.
+     */
+    private static final String GAME_BEGIN_PREFIX = "Welcome to %s%n";
+    private static final String LOAD_FAILED_ERROR = "The game could not be loaded: %s";
+    private static final String NO_GAME_ERROR = "The file does not contain a game.";
+    private static final String WRONG_SIZE_ERROR = "The game %s is played on a board of another size.";
+    private static final String CORRUPT_GAME_ERROR = "The record of game %s is corrupt.";
+    /**
+     * The expected number of arguments for this command.
+     * This command expects one argument - the path of the file to read.
+     */
+    private static final int NUMBER_OF_ARGUMENTS = 1;
+    /**
+     * Index position of the path in the command arguments array.
+     */
+    private static final int PATH_INDEX = 0;
+
+    /**
+     * Constructs a new LoadGameCommand with the specified game manager.
+     *
+     * @param manager The game manager to which the games are added.
+     */
+    public LoadGameCommand(GameManager manager) {
+        super(COMMAND_NAME, manager, NUMBER_OF_ARGUMENTS, NUMBER_OF_ARGUMENTS);
+    }
+
+    /**
+     * Executes the load-game command.
+     * Reads the records of the given file one after another and adds each as a new game.
+     *
+     * @param commandArguments The arguments provided by the user for executing the command.
+     *                         This command expects one argument - the path of the file to read.
+     */
+    @Override
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        String firstName = null;
+        Path file;
+        try {
+            file = Path.of(commandArguments.getArgument(PATH_INDEX));
+        } catch (InvalidPathException e) {
+            errorOutput.println(createError(LOAD_FAILED_ERROR.formatted(e.getMessage())));
+            return;
+        }
+        try (GameRecordReader reader = new GameRecordReader(Files.newInputStream(file))) {
+            GameRecord record = reader.read();
+            if (record == null) {
+                errorOutput.println(createError(NO_GAME_ERROR));
+            }
+            while (record != null && addGame(record)) {
+                if (firstName == null) {
+                    firstName = record.name();
+                }
+                record = reader.read();
+            }
+        } catch (IOException e) {
+            errorOutput.println(createError(LOAD_FAILED_ERROR.formatted(e.getMessage())));
+        }
+        if (firstName != null) {
+            welcome(firstName);
+        }
+    }
+
+    /**
+     * Adds the game of the given record and prints an error if that is not possible.
+     *
+     * @param record The record.
+     * @return True if the game has been added, otherwise false.
+     */
+    private boolean addGame(GameRecord record) {
+        if (record.size() != manager.getRegistry().getSize()) {
+            errorOutput.println(createError(WRONG_SIZE_ERROR.formatted(record.name())));
+            return false;
+        }
+        try {
+            manager.addRecordedGame(record);
+        } catch (GameAlreadyExistsException e) {
+            errorOutput.println(createError(e.getMessage()));
+            return false;
+        } catch (NotEmptyException | OutOfBoundsException e) {
+            errorOutput.println(createError(CORRUPT_GAME_ERROR.formatted(record.name())));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Makes the first loaded game the current game and welcomes the player to it.
+     *
+     * @param name The name of the first loaded game.
+     */
+    private void welcome(String name) {
+        try {
+            manager.switchGame(name);
+        } catch (GameNotFoundException e) {
+            // This shouldn't happen since the game has just been added
+            return;
+        }
+        output.printf(GAME_BEGIN_PREFIX, name);
+        if (manager.isPrint()) {
+            output.print(manager.getCurrentGame().getBoard());
+        }
+        output.printf(TURN_FORMAT, manager.getCurrentPlayer().getName());
+    }
+
+    /**
+     * Checks whether the command works on the current game.
+     * A pending AI move of the game that is left is finished in the background.
+     *
+     * @return False, since the current game is only left.
+     */
+    @Override
+    public boolean requiresCurrentGame() {
+        return false;
+    }
+}
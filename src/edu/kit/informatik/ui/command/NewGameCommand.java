@@ -3,8 +3,11 @@ package edu.kit.informatik.ui.command;
 
 import edu.kit.informatik.manager.GameManager;
 import edu.kit.informatik.manager.exceptions.GameAlreadyExistsException;
+import edu.kit.informatik.ui.CommandLine;
 import edu.kit.informatik.ui.GameManagerCommand;
 
+import java.util.regex.Pattern;
+
 /**
  * Represents a command to start a new game in the game manager.
  * The command, when executed, will attempt to create a new game with a given name.
@@ -22,7 +25,7 @@ public class NewGameCommand extends GameManagerCommand {
      * Regular expression to validate the name of the game.
      * The game name should not contain any white-space.
      */
-    private static final String GAME_NAME_REGEX = "^\\S+$";
+    private static final Pattern GAME_NAME_PATTERN = Pattern.compile("^\\S+$");
     /**
      * Message prefix to display when a new game starts.
      */
@@ -55,26 +58,37 @@ public class NewGameCommand extends GameManagerCommand {
      * Tries to create a new game with the specified name in the game manager.
      * If successful, a welcome message for the new game is displayed along with the game board and the name of the current player.
      *
-     * @param commandArguments An array of arguments provided by the user for executing the command.
+     * @param commandArguments The arguments provided by the user for executing the command.
      *                         Expected to contain the game's name as the only argument.
      */
     @Override
-    protected void executeTaskManagerCommand(String[] commandArguments) {
-        String name = commandArguments[NAME_INDEX];
-        if (!name.matches(GAME_NAME_REGEX)) {
-            System.err.println(createError(INVALID_GAME_NAME_ERROR));
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        String name = commandArguments.getArgument(NAME_INDEX);
+        if (!GAME_NAME_PATTERN.matcher(name).matches()) {
+            errorOutput.println(createError(INVALID_GAME_NAME_ERROR));
             return;
         }
         try {
             manager.addNewGame(name);
         } catch (GameAlreadyExistsException e) {
-            System.err.println(createError(e.getMessage()));
+            errorOutput.println(createError(e.getMessage()));
             return;
         }
-        System.out.printf(GAME_BEGIN_PREFIX.formatted(name));
+        output.printf(GAME_BEGIN_PREFIX, name);
         if (manager.isPrint()) {
-            System.out.print(manager.getCurrentGame().getBoard());
+            output.print(manager.getCurrentGame().getBoard());
         }
-        System.out.printf(TURN_FORMAT.formatted(manager.getCurrentPlayer().getName()));
+        output.printf(TURN_FORMAT, manager.getCurrentPlayer().getName());
+    }
+
+    /**
+     * Checks whether the command works on the current game.
+     * A pending AI move of the game that is left is finished in the background.
+     *
+     * @return False, since the current game is only left.
+     */
+    @Override
+    public boolean requiresCurrentGame() {
+        return false;
     }
 }
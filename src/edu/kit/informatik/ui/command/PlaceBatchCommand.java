@@ -0,0 +1,94 @@
+package edu.kit.informatik.ui.command;
+
+
+import edu.kit.informatik.manager.GameManager;
+import edu.kit.informatik.manager.session.PlaceResult;
+import edu.kit.informatik.ui.CommandLine;
+import edu.kit.informatik.ui.GameManagerCommand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the "place-batch" command, which places tokens in many games at once.
+ * The command takes triples of a game name and the x- and y-coordinates of a position and places a token for the
+ * player whose turn it is in each game, without switching the current game. Instead of the output of the place
+ * command, one line with the code of each placement is printed, separated by spaces, as defined by
+ * {@link PlaceResult}: 0 placed, 1 placed and won, 2 occupied, 3 out of bounds, 4 game already won,
+ * 5 game not found and 6 AI to move. An AI answers a token placed in a game other than the current one in the
+ * background, and its move is applied without output, so a later batch may place the next token there.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class PlaceBatchCommand extends GameManagerCommand {
+    /**
+     * The name of the place-batch command.
+     */
+    private static final String COMMAND_NAME = "place-batch";
+    private static final char RESULT_SEPARATOR = ' ';
+    /**
+     * The number of arguments of each placement: the game name and the x- and y-coordinates.
+     */
+    private static final int ARGUMENTS_PER_PLACEMENT = 3;
+    /**
+     * Offsets of the game name and the coordinates within the arguments of a placement.
+     */
+    private static final int NAME_OFFSET = 0;
+    private static final int X_OFFSET = 1;
+    private static final int Y_OFFSET = 2;
+
+    /**
+     * Constructs a new PlaceBatchCommand with the specified game manager.
+     *
+     * @param manager The game manager whose games receive the tokens.
+     */
+    public PlaceBatchCommand(GameManager manager) {
+        super(COMMAND_NAME, manager, ARGUMENTS_PER_PLACEMENT, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Executes the place-batch command.
+     * All coordinates are checked before any token is placed, so invalid arguments leave every game unchanged.
+     *
+     * @param commandArguments The arguments provided by the user for executing the command: one or more triples
+     *                         of a game name and the x- and y-coordinates of a position.
+     */
+    @Override
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        int argumentCount = commandArguments.getArgumentCount();
+        if (argumentCount % ARGUMENTS_PER_PLACEMENT != 0) {
+            errorOutput.println(EXPECTED_INNER_ARGUMENTS_ERROR);
+            return;
+        }
+        List<GameManager.Placement> placements = new ArrayList<>(argumentCount / ARGUMENTS_PER_PLACEMENT);
+        for (int i = 0; i < argumentCount; i += ARGUMENTS_PER_PLACEMENT) {
+            long x = commandArguments.getIntArgument(i + X_OFFSET);
+            long y = commandArguments.getIntArgument(i + Y_OFFSET);
+            if (x == CommandLine.NOT_AN_INT || y == CommandLine.NOT_AN_INT) {
+                errorOutput.println(INVALID_ARGUMENTS_ERROR);
+                return;
+            }
+            placements.add(new GameManager.Placement(commandArguments.getArgument(i + NAME_OFFSET), (int) x, (int) y));
+        }
+        int[] results = manager.placeBatch(placements);
+        for (int i = 0; i < results.length; i++) {
+            if (i > 0) {
+                output.print(RESULT_SEPARATOR);
+            }
+            output.print(results[i]);
+        }
+        output.println();
+    }
+
+    /**
+     * Checks whether the command works on the current game.
+     * A game in which an AI move may be pending is not changed, since an AI is to move there.
+     *
+     * @return False, since the tokens are placed in the named games, each under its own lock.
+     */
+    @Override
+    public boolean requiresCurrentGame() {
+        return false;
+    }
+}
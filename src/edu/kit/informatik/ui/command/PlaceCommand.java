@@ -9,6 +9,8 @@ import edu.kit.informatik.manager.exceptions.GameAlreadyWonException;
 import edu.kit.informatik.manager.exceptions.NotEmptyException;
 import edu.kit.informatik.manager.exceptions.OutOfBoundsException;
 import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.Move;
+import edu.kit.informatik.ui.CommandLine;
 import edu.kit.informatik.ui.GameManagerCommand;
 
 /**
@@ -54,44 +56,60 @@ public class PlaceCommand extends GameManagerCommand {
      * Attempts to place a token for the current player at the specified location on the game board.
      * Handles various scenarios and outputs appropriate messages for each.
      *
-     * @param commandArguments An array of arguments provided by the user for executing the command.
+     * @param commandArguments The arguments provided by the user for executing the command.
      *                         Expected to contain the X and Y coordinates where the token should be placed.
      */
 
     @Override
-    protected void executeTaskManagerCommand(String[] commandArguments) {
-        int x;
-        int y;
-        try {
-            x = Integer.parseInt(commandArguments[X]);
-            y = Integer.parseInt(commandArguments[Y]);
-        } catch (NumberFormatException ignored) {
-            System.err.println(INVALID_ARGUMENTS_ERROR);
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        long parsedX = commandArguments.getIntArgument(X);
+        long parsedY = commandArguments.getIntArgument(Y);
+        if (parsedX == CommandLine.NOT_AN_INT || parsedY == CommandLine.NOT_AN_INT) {
+            errorOutput.println(INVALID_ARGUMENTS_ERROR);
             return;
         }
+        place((int) parsedX, (int) parsedY);
+    }
+
+    /**
+     * Executes the given place move like the place command, without parsing an input line.
+     *
+     * @param move The move placing a token of the current player.
+     */
+    public void execute(Move.Place move) {
+        executeOnCurrentGame(() -> place(move.x(), move.y()));
+    }
+
+    /**
+     * Places a token for the current player at the given location and prints the outcome.
+     *
+     * @param x The x-coordinate of the location.
+     * @param y The y-coordinate of the location.
+     */
+    private void place(int x, int y) {
         HexGame currentGame = manager.getCurrentGame();
         Player currentPlayer = currentGame.getCurrentPlayer();
 
         try {
             currentGame.placeToken(x, y);
         } catch (NotEmptyException | GameAlreadyWonException | OutOfBoundsException e) {
-            System.err.println(createError(e.getMessage()));
+            errorOutput.println(createError(e.getMessage()));
             return;
         }
         if (currentPlayer instanceof BogoAI) {
-            System.out.printf(BOGO_AI_PLACE_PREFIX.formatted(x, y));
+            output.printf(BOGO_AI_PLACE_PREFIX, x, y);
         } else if (currentPlayer instanceof HeroAI) {
-            System.out.printf(HERO_AI_PLACE_PREFIX.formatted(x, y));
+            output.printf(HERO_AI_PLACE_PREFIX, x, y);
         }
         Player winningPlayer = (currentGame.getWinningPlayer());
         if (winningPlayer != null) {
-            System.out.printf(WINNING_PREFIX.formatted(winningPlayer.getName()));
-            System.out.print(currentGame.getBoard().generateWinningBoardRepresentation(winningPlayer));
+            output.printf(WINNING_PREFIX, winningPlayer.getName());
+            output.print(currentGame.getBoard().generateWinningBoardRepresentation(winningPlayer));
             return;
         }
         if (manager.isPrint()) {
-            System.out.print(currentGame.getBoard());
+            output.print(currentGame.getBoard());
         }
-        System.out.printf(TURN_FORMAT.formatted(manager.getCurrentPlayer().getName()));
+        output.printf(TURN_FORMAT, manager.getCurrentPlayer().getName());
     }
 }
@@ -2,6 +2,7 @@ package edu.kit.informatik.ui.command;
 
 
 import edu.kit.informatik.manager.GameManager;
+import edu.kit.informatik.ui.CommandLine;
 import edu.kit.informatik.ui.GameManagerCommand;
 
 /**
@@ -36,11 +37,11 @@ public class PrintCommand extends GameManagerCommand {
      * Executes the print command.
      * Outputs the current state of the game board to the console.
      *
-     * @param commandArguments An array of arguments provided by the user for executing the command.
+     * @param commandArguments The arguments provided by the user for executing the command.
      *                         This command does not expect any arguments, so the array should be empty.
      */
     @Override
-    protected void executeTaskManagerCommand(String[] commandArguments) {
-        System.out.print(manager.getCurrentGame().getBoard());
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        output.print(manager.getCurrentGame().getBoard());
     }
 }
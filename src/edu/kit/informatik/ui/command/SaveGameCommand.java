@@ -0,0 +1,67 @@
+package edu.kit.informatik.ui.command;
+
+
+import edu.kit.informatik.manager.GameManager;
+import edu.kit.informatik.manager.record.GameRecord;
+import edu.kit.informatik.manager.record.GameRecordWriter;
+import edu.kit.informatik.ui.CommandLine;
+import edu.kit.informatik.ui.GameManagerCommand;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * Represents the "save-game" command, which writes the record of the current game to a file.
+ * The file can be loaded again with the "load-game" command.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class SaveGameCommand extends GameManagerCommand {
+    /**
+     * The name of the save-game command.
+     */
+    private static final String COMMAND_NAME = "save-game";
+    private static final String SAVE_SUCCESS_FORMAT = "Saved %s to %s%n";
+    private static final String SAVE_FAILED_ERROR = "The game could not be saved: %s";
+    /**
+     * The expected number of arguments for this command.
+     * This command expects one argument - the path of the file to write.
+     */
+    private static final int NUMBER_OF_ARGUMENTS = 1;
+    /**
+     * Index position of the path in the command arguments array.
+     */
+    private static final int PATH_INDEX = 0;
+
+    /**
+     * Constructs a new SaveGameCommand with the specified game manager.
+     *
+     * @param manager The game manager whose current game is saved.
+     */
+    public SaveGameCommand(GameManager manager) {
+        super(COMMAND_NAME, manager, NUMBER_OF_ARGUMENTS, NUMBER_OF_ARGUMENTS);
+    }
+
+    /**
+     * Executes the save-game command.
+     * Writes the record of the current game to the given file, replacing its content.
+     *
+     * @param commandArguments The arguments provided by the user for executing the command.
+     *                         This command expects one argument - the path of the file to write.
+     */
+    @Override
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        String file = commandArguments.getArgument(PATH_INDEX);
+        GameRecord record = GameRecord.of(manager.getCurrentGame());
+        try (GameRecordWriter writer = new GameRecordWriter(Files.newOutputStream(Path.of(file)))) {
+            writer.write(record);
+        } catch (IOException | InvalidPathException e) {
+            errorOutput.println(createError(SAVE_FAILED_ERROR.formatted(e.getMessage())));
+            return;
+        }
+        output.printf(SAVE_SUCCESS_FORMAT, record.name(), file);
+    }
+}
@@ -0,0 +1,67 @@
+package edu.kit.informatik.ui.command;
+
+
+import edu.kit.informatik.manager.GameManager;
+import edu.kit.informatik.ui.CommandLine;
+import edu.kit.informatik.ui.GameManagerCommand;
+
+/**
+ * Represents the "set-budget" command, which limits the time an AI may spend on a single move in the current game.
+ * Once the budget is used up, the AI plays the best move it has found so far.
+ * A budget of 0 removes the limit again.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class SetBudgetCommand extends GameManagerCommand {
+    /**
+     * The name of the set-budget command.
+     */
+    private static final String COMMAND_NAME = "set-budget";
+    /**
+     * Success message format for a changed budget.
+     */
+    private static final String BUDGET_SET_FORMAT = "Move budget of %s set to %d ms%n";
+    /**
+     * The expected number of arguments for this command.
+     * This command expects one argument - the budget in milliseconds.
+     */
+    private static final int NUMBER_OF_ARGUMENTS = 1;
+    /**
+     * Index position of the budget in the command arguments array.
+     */
+    private static final int BUDGET_INDEX = 0;
+
+    /**
+     * Constructs a new SetBudgetCommand with the specified game manager.
+     *
+     * @param manager The game manager that manages the current game session.
+     */
+    public SetBudgetCommand(GameManager manager) {
+        super(COMMAND_NAME, manager, NUMBER_OF_ARGUMENTS, NUMBER_OF_ARGUMENTS);
+    }
+
+    /**
+     * Executes the set-budget command.
+     * Sets the move budget of the current game if the given budget is a non-negative number of milliseconds.
+     *
+     * @param commandArguments The arguments provided by the user for executing the command.
+     *                         This command expects one argument - the budget in milliseconds.
+     */
+    @Override
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        long budget;
+        try {
+            budget = Long.parseLong(commandArguments.getArgument(BUDGET_INDEX));
+        } catch (NumberFormatException ignored) {
+            errorOutput.println(INVALID_ARGUMENTS_ERROR);
+            return;
+        }
+        if (budget < 0) {
+            errorOutput.println(INVALID_ARGUMENTS_ERROR);
+            return;
+        }
+        manager.getCurrentGame().setMoveBudget(budget);
+        output.printf(BUDGET_SET_FORMAT, manager.getCurrentGame().getName(), budget);
+    }
+}
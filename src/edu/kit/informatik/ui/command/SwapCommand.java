@@ -3,6 +3,8 @@ package edu.kit.informatik.ui.command;
 
 import edu.kit.informatik.manager.GameManager;
 import edu.kit.informatik.manager.session.HexGame;
+import edu.kit.informatik.manager.session.Move;
+import edu.kit.informatik.ui.CommandLine;
 import edu.kit.informatik.ui.GameManagerCommand;
 
 /**
@@ -44,23 +46,37 @@ public class SwapCommand extends GameManagerCommand {
      * Executes the swap command.
      * The swap is only allowed after the first move of the game. If the swap is permitted, the tokens of the players are swapped.
      *
-     * @param commandArguments An array of arguments provided by the user for executing the command.
+     * @param commandArguments The arguments provided by the user for executing the command.
      *                         This command does not expect any arguments, so the array should be empty.
      */
     @Override
-    protected void executeTaskManagerCommand(String[] commandArguments) {
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        swap();
+    }
+
+    /**
+     * Executes the swap move like the swap command, without parsing an input line.
+     *
+     * @param move The swap move.
+     */
+    public void execute(Move.Swap move) {
+        executeOnCurrentGame(this::swap);
+    }
+
+    /**
+     * Swaps the tokens if the swap is allowed and prints the outcome.
+     */
+    private void swap() {
         HexGame currentGame = manager.getCurrentGame();
         if (currentGame.getMoveHistory().size() != 1 || currentGame.hasSwapped()) {
-            System.err.println(createError(SWAP_ERROR));
+            errorOutput.println(createError(SWAP_ERROR));
             return;
         }
-        System.out.printf(SWAP_SUCCESS_FORMAT.formatted(currentGame.getCurrentPlayer().getName()));
+        output.printf(SWAP_SUCCESS_FORMAT, currentGame.getCurrentPlayer().getName());
         currentGame.swapTokens();
         if (manager.isPrint()) {
-            System.out.print(currentGame.getBoard());
+            output.print(currentGame.getBoard());
         }
-        System.out.printf(TURN_FORMAT.formatted(currentGame.getCurrentPlayer().getName()));
-
-
+        output.printf(TURN_FORMAT, currentGame.getCurrentPlayer().getName());
     }
 }
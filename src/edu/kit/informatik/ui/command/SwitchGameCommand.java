@@ -3,6 +3,7 @@ package edu.kit.informatik.ui.command;
 
 import edu.kit.informatik.manager.GameManager;
 import edu.kit.informatik.manager.exceptions.GameNotFoundException;
+import edu.kit.informatik.ui.CommandLine;
 import edu.kit.informatik.ui.GameManagerCommand;
 
 /**
@@ -43,25 +44,35 @@ public class SwitchGameCommand extends GameManagerCommand {
      * The command attempts to switch to the specified game session.
      * If the game session does not exist, an error message is printed.
      *
-     * @param commandArguments An array of arguments provided by the user for executing the command.
+     * @param commandArguments The arguments provided by the user for executing the command.
      *                         This command expects one argument - the name of the game session to switch to.
      */
     @Override
-    protected void executeTaskManagerCommand(String[] commandArguments) {
-        String name = commandArguments[NAME_INDEX];
+    protected void executeTaskManagerCommand(CommandLine commandArguments) {
+        String name = commandArguments.getArgument(NAME_INDEX);
         boolean check;
         try {
             check = manager.switchGame(name);
         } catch (GameNotFoundException e) {
-            System.err.println(createError(e.getMessage()));
+            errorOutput.println(createError(e.getMessage()));
             return;
         }
         if (!check) {
-            System.err.println(createError(CURRENT_GAME_ERROR_FORMAT));
+            errorOutput.println(createError(CURRENT_GAME_ERROR_FORMAT));
             return;
         }
 
-        System.out.printf(SWITCH_SUCCESS_FORMAT.formatted(name));
+        output.printf(SWITCH_SUCCESS_FORMAT, name);
     }
 
+    /**
+     * Checks whether the command works on the current game.
+     * A pending AI move of the game that is left is finished in the background.
+     *
+     * @return False, since the current game is only left.
+     */
+    @Override
+    public boolean requiresCurrentGame() {
+        return false;
+    }
 }
@@ -0,0 +1,84 @@
+package edu.kit.informatik.util.concurrent;
+
+/**
+ * Represents the point in time at which a computation has to deliver its result.
+ * Long-running computations check {@link #isExpired()} cooperatively and return the best result found so far once
+ * it reports true. Besides running out of time, a deadline can be cancelled from another thread at any time.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class Deadline {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    /**
+     * The value of {@link System#nanoTime()} at which the deadline expires, if it is bounded.
+     */
+    private final long endNanos;
+    /**
+     * Whether the deadline expires after some time or only when cancelled.
+     */
+    private final boolean bounded;
+    /**
+     * Whether the deadline has been cancelled.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Constructs a new deadline.
+     *
+     * @param endNanos The value of {@link System#nanoTime()} at which the deadline expires.
+     * @param bounded  Whether the deadline expires after some time or only when cancelled.
+     */
+    private Deadline(long endNanos, boolean bounded) {
+        this.endNanos = endNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Creates a deadline that only expires when it is cancelled.
+     *
+     * @return A new unlimited deadline.
+     */
+    public static Deadline unlimited() {
+        return new Deadline(0, false);
+    }
+
+    /**
+     * Creates a deadline that expires after the given budget, starting now.
+     *
+     * @param budgetMillis The budget in milliseconds. A budget of 0 or less means that there is no time limit.
+     * @return A new deadline for the given budget.
+     */
+    public static Deadline of(long budgetMillis) {
+        if (budgetMillis <= 0) {
+            return unlimited();
+        }
+        return new Deadline(System.nanoTime() + budgetMillis * NANOS_PER_MILLI, true);
+    }
+
+    /**
+     * Cancels the deadline, so that every computation checking it stops as soon as possible.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the deadline has been cancelled.
+     *
+     * @return True if the deadline has been cancelled, otherwise false.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Checks whether the deadline has passed or has been cancelled.
+     *
+     * @return True if the computation should stop and deliver its result, otherwise false.
+     */
+    public boolean isExpired() {
+        return cancelled || bounded && System.nanoTime() - endNanos >= 0;
+    }
+}
@@ -0,0 +1,25 @@
+package edu.kit.informatik.util.concurrent;
+
+/**
+ * Enumerates the strategies by which a {@link TranspositionTable} decides which entry a new result overwrites.
+ * Every position of the table holds a bucket of two entries.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public enum ReplacementPolicy {
+    /**
+     * Only the first entry of a bucket is used, and a new result always overwrites it.
+     */
+    ALWAYS_REPLACE,
+    /**
+     * Only the first entry of a bucket is used, and a new result overwrites it only if the result cost at least
+     * as much work, or if the entry stems from an earlier generation.
+     */
+    DEPTH_PREFERRED,
+    /**
+     * The first entry of a bucket keeps the most expensive result as with {@link #DEPTH_PREFERRED}.
+     * A result that may not replace it overwrites the second entry instead.
+     */
+    TWO_TIER
+}
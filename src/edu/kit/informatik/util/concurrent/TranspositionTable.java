@@ -0,0 +1,191 @@
+package edu.kit.informatik.util.concurrent;
+
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a fixed-size cache of search results keyed by 64-bit position hashes, which any number of threads may
+ * read and write at the same time without locking.
+ *
+ * <p>The table is a single {@code long[]} of buckets with two entries. Each entry consists of two longs: the key
+ * XORed with the data, and the data itself. Two threads writing the same entry at once may leave the halves of
+ * different writes behind. Such an entry no longer yields its key when the data is XORed back in and is simply
+ * treated as a miss, so a torn entry is never mistaken for a valid one.</p>
+ *
+ * <p>Every result carries a depth, the amount of work it cost, which the {@link ReplacementPolicy} uses to keep
+ * expensive results. Results from earlier generations are always replaced, so the owner of the table advances the
+ * generation whenever the positions that are searched move on.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class TranspositionTable {
+    /**
+     * The value returned by {@link #probe(long)} if the table holds no result for the key.
+     */
+    public static final int MISS = Integer.MIN_VALUE;
+
+    private static final int ENTRIES_PER_BUCKET = 2;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int LONGS_PER_BUCKET = ENTRIES_PER_BUCKET * LONGS_PER_ENTRY;
+    private static final long VALUE_MASK = 0xFFFF_FFFFL;
+    private static final int DEPTH_SHIFT = 32;
+    private static final long DEPTH_MASK = 0xFFFFL;
+    private static final int GENERATION_SHIFT = 48;
+    private static final long GENERATION_MASK = 0x7FFFL;
+    /**
+     * Marks data that holds a result, so that a zeroed entry is recognised as empty.
+     */
+    private static final long VALID = 1L << 63;
+
+    /**
+     * The buckets of the table, each consisting of two entries of two longs.
+     */
+    private final long[] table;
+    /**
+     * The mask selecting the bucket of a key.
+     */
+    private final long bucketMask;
+    private final ReplacementPolicy policy;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    /**
+     * The generation stored with new results.
+     */
+    private volatile int generation;
+
+    /**
+     * Constructs a new empty table.
+     *
+     * @param buckets The number of buckets, which is rounded up to a power of two.
+     * @param policy  The strategy deciding which entry a new result overwrites.
+     */
+    public TranspositionTable(int buckets, ReplacementPolicy policy) {
+        int size = Integer.highestOneBit(Math.max(1, buckets - 1)) << 1;
+        this.table = new long[size * LONGS_PER_BUCKET];
+        this.bucketMask = size - 1;
+        this.policy = policy;
+    }
+
+    /**
+     * Looks up the result stored for the given key.
+     *
+     * @param key The hash of the position.
+     * @return The stored result, or {@link #MISS} if there is none.
+     */
+    public int probe(long key) {
+        int bucket = bucketIndex(key);
+        boolean occupied = false;
+        for (int entry = bucket; entry < bucket + LONGS_PER_BUCKET; entry += LONGS_PER_ENTRY) {
+            long check = table[entry];
+            long data = table[entry + 1];
+            if ((check ^ data) == key && (data & VALID) != 0) {
+                hits.increment();
+                return (int) (data & VALUE_MASK);
+            }
+            occupied |= (data & VALID) != 0;
+        }
+        if (occupied) {
+            collisions.increment();
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    /**
+     * Stores a result for the given key, unless the replacement policy keeps the results already stored.
+     *
+     * @param key   The hash of the position.
+     * @param value The result, which must not be {@link #MISS}.
+     * @param depth The amount of work the result cost, capped at 65535.
+     */
+    public void store(long key, int value, int depth) {
+        long cappedDepth = Math.min(Math.max(depth, 0), DEPTH_MASK);
+        long data = VALID | ((long) generation & GENERATION_MASK) << GENERATION_SHIFT
+                | cappedDepth << DEPTH_SHIFT | (value & VALUE_MASK);
+        int bucket = bucketIndex(key);
+        int first = bucket;
+        int second = bucket + LONGS_PER_ENTRY;
+        int target;
+        if (policy == ReplacementPolicy.ALWAYS_REPLACE || mayReplace(first, key, cappedDepth)) {
+            target = first;
+        } else if (policy == ReplacementPolicy.TWO_TIER) {
+            target = second;
+        } else {
+            return;
+        }
+        table[target] = key ^ data;
+        table[target + 1] = data;
+    }
+
+    /**
+     * Checks whether a result may overwrite the given entry, because the entry is empty, holds the same key,
+     * stems from an earlier generation or cost no more work than the new result.
+     *
+     * @param entry The index of the entry in the table.
+     * @param key   The key of the new result.
+     * @param depth The depth of the new result.
+     * @return True if the entry may be overwritten, otherwise false.
+     */
+    private boolean mayReplace(int entry, long key, long depth) {
+        long data = table[entry + 1];
+        return (data & VALID) == 0 || (table[entry] ^ data) == key
+                || (data >>> GENERATION_SHIFT & GENERATION_MASK) != (generation & GENERATION_MASK)
+                || (data >>> DEPTH_SHIFT & DEPTH_MASK) <= depth;
+    }
+
+    /**
+     * Computes the index of the first long of the bucket of a key.
+     *
+     * @param key The hash of the position.
+     * @return The index in the table.
+     */
+    private int bucketIndex(long key) {
+        return (int) (key & bucketMask) * LONGS_PER_BUCKET;
+    }
+
+    /**
+     * Advances the generation, so that the results stored so far may be replaced by any new result.
+     */
+    public void nextGeneration() {
+        generation++;
+    }
+
+    /**
+     * Returns the number of lookups that found a result.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found no result.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of misses in which the bucket held results for other keys.
+     *
+     * @return The number of collisions.
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    /**
+     * Returns the counters of the table.
+     *
+     * @return The number of hits, misses and collisions.
+     */
+    @Override
+    public String toString() {
+        return String.format("hits %d, misses %d, collisions %d", getHits(), getMisses(), getCollisions());
+    }
+}
@@ -3,18 +3,15 @@ package edu.kit.informatik.util.graph;
 import edu.kit.informatik.entity.Player;
 import edu.kit.informatik.manager.session.Board;
 import edu.kit.informatik.manager.session.Entry;
+import edu.kit.informatik.util.concurrent.Deadline;
 import edu.kit.informatik.util.vector.Direction2D;
 import edu.kit.informatik.util.vector.Vector2D;
 
-import java.util.ArrayDeque;
-import java.util.HashSet;
-import java.util.Queue;
-import java.util.Set;
-
 /**
  * This class is responsible for checking the connectivity of a given player's tokens
  * on a board, ensuring a path exists from a starting position to the board's edge.
  * The class utilizes Breadth-First Search (BFS) to determine the connectivity.
+ * The search runs in a {@link SearchWorkspace}, which can be shared between checks to avoid allocations.
  * The connectivity rules are based on the game's mechanics:
  * - For Entry.X, the goal is to connect from the left edge to the right edge.
  * - For Entry.O, the goal is to connect from the top edge to the bottom edge.
@@ -24,9 +21,18 @@ import java.util.Set;
  */
 
 public class ConnectivityChecker {
+    /**
+     * The directions to the neighbours of a cell, in the order in which they are searched.
+     */
+    private static final Direction2D[] DIRECTIONS = Direction2D.values();
+    /**
+     * The index standing for no cell.
+     */
+    private static final int NO_CELL = -1;
 
     private final Board board;
     private final int size;
+    private final SearchWorkspace workspace;
 
     /**
      * Initializes a new ConnectivityChecker with the provided board.
@@ -35,8 +41,19 @@ public class ConnectivityChecker {
      */
 
     public ConnectivityChecker(Board board) {
+        this(board, new SearchWorkspace());
+    }
+
+    /**
+     * Initializes a new ConnectivityChecker with the provided board, searching in the given workspace.
+     *
+     * @param board     The game board on which connectivity is to be checked.
+     * @param workspace The workspace holding the state of the searches.
+     */
+    public ConnectivityChecker(Board board, SearchWorkspace workspace) {
         this.board = board;
         this.size = board.getSize();
+        this.workspace = workspace;
     }
 
     /**
@@ -53,29 +70,75 @@ public class ConnectivityChecker {
      * @return {@code true} if a connected path exists, {@code false} otherwise.
      */
     public boolean isConnected(Vector2D start, Player player) {
-        Entry targetToken = player.getToken();
-        Set<Vector2D> visited = new HashSet<>();
-        Queue<Vector2D> queue = new ArrayDeque<>();
-        queue.add(start);
+        return isConnected(start, player, Deadline.unlimited());
+    }
 
-        while (!queue.isEmpty()) {
-            Vector2D current = queue.poll();
-            if (visited.contains(current)) {
-                continue;
-            }
+    /**
+     * Checks if there's a connected path for the given player's token from the
+     * starting position to the respective edge of the board, giving up once the deadline expires.
+     *
+     * @param start    The starting position on the board from which to begin the check.
+     * @param player   The player whose token's connectivity is to be verified.
+     * @param deadline The deadline after which the check is aborted.
+     * @return {@code true} if a connected path exists,
+     *         {@code false} if not or if the deadline expired before a path was found.
+     */
+    public boolean isConnected(Vector2D start, Player player, Deadline deadline) {
+        return isConnected(start.x(), start.y(), player.getToken(), deadline);
+    }
+
+    /**
+     * Checks if there's a connected path of the given token from the starting cell to the respective edge of
+     * the board, giving up once the deadline expires. The check does not allocate any memory once the workspace
+     * has grown to the size of the board.
+     *
+     * @param row         The row of the starting cell.
+     * @param column      The column of the starting cell.
+     * @param targetToken The token whose connectivity is to be verified.
+     * @param deadline    The deadline after which the check is aborted.
+     * @return {@code true} if a connected path exists,
+     *         {@code false} if not or if the deadline expired before a path was found.
+     */
+    public boolean isConnected(int row, int column, Entry targetToken, Deadline deadline) {
+        return isConnected(row, column, targetToken, NO_CELL, deadline);
+    }
+
+    /**
+     * Checks if there's a connected path of the given token from the starting cell to the respective edge of
+     * the board, treating one empty cell as if it held the token. This allows to try a placement without writing it
+     * to the board, which may be shared with other boards or read by other threads.
+     *
+     * @param row          The row of the starting cell.
+     * @param column       The column of the starting cell.
+     * @param targetToken  The token whose connectivity is to be verified.
+     * @param assumedCell  The index {@code row * size + column} of the cell that holds the token in addition to the
+     *                     board, or -1 for none.
+     * @param deadline     The deadline after which the check is aborted.
+     * @return {@code true} if a connected path exists,
+     *         {@code false} if not or if the deadline expired before a path was found.
+     */
+    public boolean isConnected(int row, int column, Entry targetToken, int assumedCell, Deadline deadline) {
+        workspace.begin(size * size);
+        workspace.reach(row * size + column);
 
-            visited.add(current);
+        while (!workspace.isQueueEmpty() && !deadline.isExpired()) {
+            int current = workspace.dequeue();
+            int currentRow = current / size;
+            int currentColumn = current % size;
 
-            if (targetToken == Entry.X && current.x() == size - 1) {
+            if (targetToken == Entry.X && currentRow == size - 1) {
                 return true;
-            } else if (targetToken == Entry.O && current.y() == size - 1) {
+            } else if (targetToken == Entry.O && currentColumn == size - 1) {
                 return true;
             }
 
-            for (Direction2D direction : Direction2D.values()) {
-                Vector2D neighbor = current.add(direction.getDirection());
-                if (board.isPositionValid(neighbor) && board.getEntryAt(neighbor) == targetToken && !visited.contains(neighbor)) {
-                    queue.add(neighbor);
+            for (Direction2D direction : DIRECTIONS) {
+                int neighborRow = currentRow + direction.getDirection().x();
+                int neighborColumn = currentColumn + direction.getDirection().y();
+                int neighbor = neighborRow * size + neighborColumn;
+                if (neighborRow >= 0 && neighborRow < size && neighborColumn >= 0 && neighborColumn < size
+                        && (neighbor == assumedCell || board.getEntryAt(neighborRow, neighborColumn) == targetToken)) {
+                    workspace.reach(neighbor);
                 }
             }
         }
@@ -0,0 +1,217 @@
+package edu.kit.informatik.util.graph;
+
+import edu.kit.informatik.manager.session.Board;
+import edu.kit.informatik.manager.session.Entry;
+
+import java.util.Arrays;
+
+/**
+ * Computes for every cell of a board how many empty cells a player still has to fill to connect the cell to one of
+ * his edges: {@code X} connects the first and the last row, {@code O} the first and the last column.
+ * Cells of the player cost nothing, empty cells cost one and cells of the opponent cannot be passed.
+ * The distance of the opposite edge is the number of moves the player needs at least to win, which makes the map
+ * the basis of evaluating a position.
+ *
+ * <p>The distances are computed by relaxing the board row by row, alternately from top to bottom and from bottom
+ * to top, until no distance decreases any more. Unlike a search with a queue, every sweep reads and writes the
+ * arrays in order, which lets a {@link RelaxationKernel} process several cells per instruction. The board is
+ * surrounded by a border of one cell, so that the kernel never has to check the bounds of a neighbour.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public class DistanceMap {
+    /**
+     * The distance of a cell that cannot be connected to the edge. It is small enough that adding a cost does not
+     * overflow.
+     */
+    public static final int UNREACHABLE = 1 << 28;
+    private static final int BORDER = 1;
+    private static final int PLAYER_COST = 0;
+    private static final int EMPTY_COST = 1;
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "edu.kit.informatik.util.graph.VectorRelaxationKernel";
+    /**
+     * The fastest kernel available on this JVM.
+     */
+    private static final RelaxationKernel DEFAULT_KERNEL = loadDefaultKernel();
+
+    private final int size;
+    private final int stride;
+    private final Entry token;
+    private final boolean firstEdge;
+    private final int[] distances;
+
+    /**
+     * Computes the distances of all cells from the first edge of the given token with the fastest available kernel.
+     *
+     * @param board The board.
+     * @param token The token whose distances are computed, {@code X} or {@code O}.
+     */
+    public DistanceMap(Board board, Entry token) {
+        this(board, token, true, DEFAULT_KERNEL);
+    }
+
+    /**
+     * Computes the distances of all cells from one of the edges of the given token.
+     *
+     * @param board     The board.
+     * @param token     The token whose distances are computed, {@code X} or {@code O}.
+     * @param firstEdge True to measure from the first row or column, false to measure from the last one.
+     * @param kernel    The kernel relaxing the rows.
+     */
+    public DistanceMap(Board board, Entry token, boolean firstEdge, RelaxationKernel kernel) {
+        this.size = board.getSize();
+        this.stride = size + 2 * BORDER;
+        this.token = token;
+        this.firstEdge = firstEdge;
+        this.distances = new int[stride * stride];
+        int[] costs = new int[stride * stride];
+        initialize(board, costs);
+        relax(costs, kernel);
+    }
+
+    /**
+     * Returns the kernel used by default, which processes several cells at once if the Vector API is available.
+     *
+     * @return The default kernel.
+     */
+    public static RelaxationKernel getDefaultKernel() {
+        return DEFAULT_KERNEL;
+    }
+
+    /**
+     * Loads the kernel using the Vector API, or falls back to the scalar kernel if the module
+     * {@code jdk.incubator.vector} has not been added to the JVM.
+     *
+     * @return The fastest kernel available.
+     */
+    private static RelaxationKernel loadDefaultKernel() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (RelaxationKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // The scalar kernel below works everywhere
+            }
+        }
+        return new ScalarRelaxationKernel();
+    }
+
+    /**
+     * Fills in the costs of the cells and the distances of the border.
+     * The border along the measured edge has the distance zero, all other cells start unreachable.
+     *
+     * @param board The board.
+     * @param costs The costs to fill in.
+     */
+    private void initialize(Board board, int[] costs) {
+        Arrays.fill(distances, UNREACHABLE);
+        int edge = firstEdge ? 0 : size + BORDER;
+        for (int i = 0; i < stride; i++) {
+            distances[(token == Entry.X) ? index(edge, i) : index(i, edge)] = 0;
+        }
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                Entry entry = board.getEntryAt(row, column);
+                int cost = (entry == Entry.EMPTY) ? EMPTY_COST : (entry == token) ? PLAYER_COST : UNREACHABLE;
+                costs[index(row + BORDER, column + BORDER)] = cost;
+            }
+        }
+    }
+
+    /**
+     * Relaxes the rows of the board in alternating directions until no distance decreases any more.
+     *
+     * @param costs  The costs of the cells.
+     * @param kernel The kernel relaxing the rows.
+     */
+    private void relax(int[] costs, RelaxationKernel kernel) {
+        boolean changed = true;
+        boolean downwards = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < size; i++) {
+                int row = downwards ? i + BORDER : size - i;
+                int rowStart = index(row, BORDER);
+                if (kernel.relaxRow(distances, costs, rowStart, size, stride)) {
+                    propagateAlongRow(costs, rowStart);
+                    changed = true;
+                }
+            }
+            downwards = !downwards;
+        }
+    }
+
+    /**
+     * Passes the distances along a row from left to right and back, so that a path may run along the whole row
+     * within one sweep. The kernel alone moves a distance by only one cell per sweep, since it reads the
+     * distances of a whole vector of cells before writing any of them. A row whose distances the kernel has not
+     * changed needs no pass, since it has not changed since its last one.
+     *
+     * @param costs    The costs of the cells.
+     * @param rowStart The index of the first cell of the row.
+     */
+    private void propagateAlongRow(int[] costs, int rowStart) {
+        int rowEnd = rowStart + size - 1;
+        for (int i = rowStart + 1; i <= rowEnd; i++) {
+            int candidate = Math.min(distances[i - 1] + costs[i], UNREACHABLE);
+            if (candidate < distances[i]) {
+                distances[i] = candidate;
+            }
+        }
+        for (int i = rowEnd - 1; i >= rowStart; i--) {
+            int candidate = Math.min(distances[i + 1] + costs[i], UNREACHABLE);
+            if (candidate < distances[i]) {
+                distances[i] = candidate;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of empty cells that have to be filled to connect the given cell to the measured edge,
+     * including the cell itself.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @return The distance of the cell, or {@link #UNREACHABLE} if it cannot be connected.
+     */
+    public int getDistance(int row, int column) {
+        return distances[index(row + BORDER, column + BORDER)];
+    }
+
+    /**
+     * Returns the number of empty cells that have to be filled to connect the measured edge with the opposite one.
+     * This is the smallest distance among the cells next to the opposite edge.
+     *
+     * @return The distance between the edges, or {@link #UNREACHABLE} if the token cannot connect them any more.
+     */
+    public int getDistanceBetweenEdges() {
+        int line = firstEdge ? size - 1 : 0;
+        int shortest = UNREACHABLE;
+        for (int i = 0; i < size; i++) {
+            shortest = Math.min(shortest, (token == Entry.X) ? getDistance(line, i) : getDistance(i, line));
+        }
+        return shortest;
+    }
+
+    /**
+     * Checks whether this map holds the same distances as the given one.
+     *
+     * @param other The other map.
+     * @return True if both maps have the same size and distances, otherwise false.
+     */
+    public boolean hasSameDistances(DistanceMap other) {
+        return Arrays.equals(distances, other.distances);
+    }
+
+    /**
+     * Returns the index of a cell in the padded arrays.
+     *
+     * @param paddedRow    The row including the border.
+     * @param paddedColumn The column including the border.
+     * @return The index of the cell.
+     */
+    private int index(int paddedRow, int paddedColumn) {
+        return paddedRow * stride + paddedColumn;
+    }
+}
@@ -0,0 +1,26 @@
+package edu.kit.informatik.util.graph;
+
+/**
+ * Represents the inner loop of a {@link DistanceMap}: relaxing the distances of one row of cells against the
+ * distances of their six neighbours.
+ * The distances and costs are stored row by row in padded arrays, so that every cell of the board has all six
+ * neighbours within the arrays.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public interface RelaxationKernel {
+
+    /**
+     * Relaxes the cells of one row. The new distance of a cell is the smaller of its current distance and its cost
+     * plus the smallest distance of its neighbours, capped at {@link DistanceMap#UNREACHABLE}.
+     *
+     * @param distances The distances of all cells, which are updated in place.
+     * @param costs     The costs of entering each cell.
+     * @param rowStart  The index of the first cell of the row.
+     * @param length    The number of cells in the row.
+     * @param stride    The distance between the indices of vertically adjacent cells.
+     * @return True if any distance has decreased, otherwise false.
+     */
+    boolean relaxRow(int[] distances, int[] costs, int rowStart, int length, int stride);
+}
@@ -0,0 +1,26 @@
+package edu.kit.informatik.util.graph;
+
+/**
+ * Relaxes the distances of a row one cell after another. This kernel works on every platform.
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class ScalarRelaxationKernel implements RelaxationKernel {
+
+    @Override
+    public boolean relaxRow(int[] distances, int[] costs, int rowStart, int length, int stride) {
+        boolean changed = false;
+        for (int i = rowStart; i < rowStart + length; i++) {
+            int nearest = Math.min(Math.min(distances[i - 1], distances[i + 1]),
+                    Math.min(Math.min(distances[i - stride], distances[i - stride + 1]),
+                            Math.min(distances[i + stride - 1], distances[i + stride])));
+            int candidate = Math.min(costs[i] + nearest, DistanceMap.UNREACHABLE);
+            if (candidate < distances[i]) {
+                distances[i] = candidate;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,165 @@
+package edu.kit.informatik.util.graph;
+
+
+import java.util.Arrays;
+
+/**
+ * Provides the memory for breadth-first searches over the cells of a board, so that repeated searches do not
+ * allocate anything once the workspace has grown to the size of the board.
+ * Cells are identified by their index {@code row * size + column}.
+ *
+ * <p>The workspace consists of a ring buffer of cells as queue, an array holding the parent of every reached cell
+ * and an array in which a cell is marked as visited by storing the number of the current search. Starting a new
+ * search only increments this number, so the visited marks do not have to be cleared.</p>
+ *
+ * <p>A workspace must only be used by one thread at a time.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class SearchWorkspace {
+    private static final int NO_PARENT = -1;
+
+    /**
+     * The cells waiting to be processed, in a ring buffer with room for every cell of the board.
+     */
+    private int[] queue = new int[0];
+    /**
+     * The cell from which each cell has been reached in the current search.
+     */
+    private int[] parents = new int[0];
+    /**
+     * The number of the last search that visited each cell.
+     */
+    private int[] visitedIn = new int[0];
+    /**
+     * The number of the current search.
+     */
+    private int search;
+    /**
+     * The position of the first queued cell.
+     */
+    private int head;
+    /**
+     * The number of queued cells.
+     */
+    private int queued;
+
+    /**
+     * Starts a new search over the given number of cells, growing the workspace if necessary.
+     * All cells are unvisited and the queue is empty afterwards.
+     *
+     * @param cells The number of cells of the board.
+     */
+    public void begin(int cells) {
+        if (visitedIn.length < cells) {
+            queue = new int[cells];
+            parents = new int[cells];
+            visitedIn = new int[cells];
+            search = 0;
+        }
+        search++;
+        if (search == 0) {
+            // The search number has wrapped around, so old marks could be mistaken for new ones
+            Arrays.fill(visitedIn, 0);
+            search = 1;
+        }
+        head = 0;
+        queued = 0;
+    }
+
+    /**
+     * Marks a cell as visited in the current search.
+     *
+     * @param cell The index of the cell.
+     * @return True if the cell had not been visited before, otherwise false.
+     */
+    public boolean visit(int cell) {
+        if (visitedIn[cell] == search) {
+            return false;
+        }
+        visitedIn[cell] = search;
+        return true;
+    }
+
+    /**
+     * Checks whether a cell has been visited in the current search.
+     *
+     * @param cell The index of the cell.
+     * @return True if the cell has been visited, otherwise false.
+     */
+    public boolean isVisited(int cell) {
+        return visitedIn[cell] == search;
+    }
+
+    /**
+     * Adds a cell to the end of the queue.
+     *
+     * @param cell The index of the cell.
+     */
+    public void enqueue(int cell) {
+        if (queued == queue.length) {
+            throw new IllegalStateException("The queue of the search is full");
+        }
+        int tail = head + queued;
+        queue[(tail < queue.length) ? tail : tail - queue.length] = cell;
+        queued++;
+    }
+
+    /**
+     * Removes the first cell from the queue.
+     *
+     * @return The index of the cell.
+     */
+    public int dequeue() {
+        int cell = queue[head];
+        head = (head + 1 < queue.length) ? head + 1 : 0;
+        queued--;
+        return cell;
+    }
+
+    /**
+     * Checks whether the queue is empty.
+     *
+     * @return True if no cell is queued, otherwise false.
+     */
+    public boolean isQueueEmpty() {
+        return queued == 0;
+    }
+
+    /**
+     * Visits and enqueues a cell that has been reached from another cell, unless it has been visited already.
+     *
+     * @param cell   The index of the reached cell.
+     * @param parent The index of the cell from which it has been reached, or -1 for a start cell.
+     * @return True if the cell has been enqueued, false if it had been visited before.
+     */
+    public boolean reach(int cell, int parent) {
+        if (!visit(cell)) {
+            return false;
+        }
+        parents[cell] = parent;
+        enqueue(cell);
+        return true;
+    }
+
+    /**
+     * Visits and enqueues a start cell of the search, unless it has been visited already.
+     *
+     * @param cell The index of the start cell.
+     * @return True if the cell has been enqueued, false if it had been visited before.
+     */
+    public boolean reach(int cell) {
+        return reach(cell, NO_PARENT);
+    }
+
+    /**
+     * Returns the cell from which a visited cell has been reached in the current search.
+     *
+     * @param cell The index of the visited cell.
+     * @return The index of the parent cell, or -1 if the cell is a start cell.
+     */
+    public int getParent(int cell) {
+        return parents[cell];
+    }
+}
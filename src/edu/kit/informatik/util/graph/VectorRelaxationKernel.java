@@ -0,0 +1,50 @@
+package edu.kit.informatik.util.graph;
+
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Relaxes the distances of a row with the Vector API, processing as many cells per instruction as the CPU's
+ * widest vector registers hold, for example eight with AVX2 or sixteen with AVX-512.
+ * The cells left over at the end of a row are relaxed one by one.
+ *
+ * <p>This class needs the incubating module {@code jdk.incubator.vector} and is therefore only loaded by
+ * {@link DistanceMap} if the module is available at runtime.</p>
+ *
+ * @author utobm
+ * @version 1.0
+ */
+public final class VectorRelaxationKernel implements RelaxationKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * Relaxes the cells that do not fill a whole vector.
+     */
+    private final ScalarRelaxationKernel tailKernel = new ScalarRelaxationKernel();
+
+    @Override
+    public boolean relaxRow(int[] distances, int[] costs, int rowStart, int length, int stride) {
+        boolean changed = false;
+        int vectorLength = SPECIES.loopBound(length);
+        for (int i = rowStart; i < rowStart + vectorLength; i += SPECIES.length()) {
+            IntVector nearest = IntVector.fromArray(SPECIES, distances, i - 1)
+                    .min(IntVector.fromArray(SPECIES, distances, i + 1))
+                    .min(IntVector.fromArray(SPECIES, distances, i - stride))
+                    .min(IntVector.fromArray(SPECIES, distances, i - stride + 1))
+                    .min(IntVector.fromArray(SPECIES, distances, i + stride - 1))
+                    .min(IntVector.fromArray(SPECIES, distances, i + stride));
+            IntVector candidate = IntVector.fromArray(SPECIES, costs, i).add(nearest).min(DistanceMap.UNREACHABLE);
+            IntVector current = IntVector.fromArray(SPECIES, distances, i);
+            if (candidate.compare(VectorOperators.LT, current).anyTrue()) {
+                candidate.min(current).intoArray(distances, i);
+                changed = true;
+            }
+        }
+        if (vectorLength < length) {
+            changed |= tailKernel.relaxRow(distances, costs, rowStart + vectorLength, length - vectorLength, stride);
+        }
+        return changed;
+    }
+}